@@ -0,0 +1,156 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/** Metadata of a commit introduced by a reference update. */
+public class CommitInfo {
+    private final String id;
+    private final List<String> parentIds;
+    private final String authorName;
+    private final String authorEmail;
+    private final String committerName;
+    private final String committerEmail;
+    private final Instant commitTime;
+    private final String message;
+
+    private CommitInfo(Builder builder) {
+        id = Objects.requireNonNull(builder.id, "id");
+        parentIds = builder.parentIds != null ? List.copyOf(builder.parentIds) : List.of();
+        authorName = builder.authorName;
+        authorEmail = builder.authorEmail;
+        committerName = builder.committerName;
+        committerEmail = builder.committerEmail;
+        commitTime = builder.commitTime;
+        message = builder.message != null ? builder.message : "";
+    }
+
+    /**
+     * @return full hexadecimal object id of the commit
+     */
+    public String getId() {
+        return id;
+    }
+
+    public List<String> getParentIds() {
+        return parentIds;
+    }
+
+    public boolean isMerge() {
+        return parentIds.size() > 1;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public String getAuthorEmail() {
+        return authorEmail;
+    }
+
+    public String getCommitterName() {
+        return committerName;
+    }
+
+    public String getCommitterEmail() {
+        return committerEmail;
+    }
+
+    public Instant getCommitTime() {
+        return commitTime;
+    }
+
+    /**
+     * @return full commit message, including the trailers
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return first line of the commit message
+     */
+    public String getSubject() {
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+
+    @Override
+    public String toString() {
+        return "CommitInfo{" + "id='" + id + '\'' + ", subject='" + getSubject() + '\'' + '}';
+    }
+
+    public static final class Builder {
+        private String id;
+        private List<String> parentIds;
+        private String authorName;
+        private String authorEmail;
+        private String committerName;
+        private String committerEmail;
+        private Instant commitTime;
+        private String message;
+
+        public Builder() {}
+
+        public Builder id(String val) {
+            id = val;
+            return this;
+        }
+
+        public Builder parentIds(List<String> val) {
+            parentIds = val;
+            return this;
+        }
+
+        public Builder authorName(String val) {
+            authorName = val;
+            return this;
+        }
+
+        public Builder authorEmail(String val) {
+            authorEmail = val;
+            return this;
+        }
+
+        public Builder committerName(String val) {
+            committerName = val;
+            return this;
+        }
+
+        public Builder committerEmail(String val) {
+            committerEmail = val;
+            return this;
+        }
+
+        public Builder commitTime(Instant val) {
+            commitTime = val;
+            return this;
+        }
+
+        public Builder message(String val) {
+            message = val;
+            return this;
+        }
+
+        public CommitInfo build() {
+            return new CommitInfo(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+/**
+ * Per-commit check run by a {@link CommitWalker}. The verdict must only depend on the commit: it
+ * is computed once for a commit reachable from several updated references.
+ */
+@FunctionalInterface
+public interface CommitValidator {
+
+    /**
+     * @param commit a commit introduced by a reference update
+     * @return {@code null} if the commit is accepted, the reason of its rejection otherwise
+     * @throws Exception if the commit could not be checked; the walk is aborted
+     */
+    String validate(CommitInfo commit) throws Exception;
+}
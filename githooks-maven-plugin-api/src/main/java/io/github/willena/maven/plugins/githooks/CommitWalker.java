@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.util.List;
+
+/**
+ * Walks the commits introduced by the reference updates of a hook: {@code old..new} for updated
+ * references and the commits not reachable from any other reference for created ones. Deleted
+ * references introduce no commit.
+ */
+@FunctionalInterface
+public interface CommitWalker {
+
+    /**
+     * Runs a validator on every new commit. References are walked in parallel and each commit is
+     * validated once, even when several references introduce it.
+     *
+     * @param validator the per-commit check, called concurrently
+     * @return one message per rejected commit, {@code <ref> <abbreviated id>: <reason>}, in the
+     *     order of the updates
+     * @throws Exception the first failure of the validator or of the walk
+     */
+    List<String> validate(CommitValidator validator) throws Exception;
+}
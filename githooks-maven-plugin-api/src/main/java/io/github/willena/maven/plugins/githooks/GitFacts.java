@@ -0,0 +1,93 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Facts about the git repository a hook runs in, shared by all the definitions and conditions of
+ * a run. Each fact is computed on first access and at most once per run, so that facts nobody
+ * asks for cost nothing. HEAD is not expected to move while the hook runs.
+ */
+public interface GitFacts {
+    /**
+     * @return the work tree of the repository, which file paths are relative to
+     */
+    Path getWorkTree();
+
+    /**
+     * @return id of the HEAD commit or {@code null} when there is no commit yet
+     */
+    String getHeadId();
+
+    /**
+     * @return names of the references pointing at HEAD
+     */
+    Set<String> getHeadRefNames();
+
+    /**
+     * @return short name of the checked out branch or {@code null} when HEAD is detached
+     */
+    String getBranch();
+
+    /**
+     * @return full message of the HEAD commit or {@code null} when there is no commit yet
+     */
+    String getHeadCommitMessage();
+
+    /**
+     * @return author of the HEAD commit as {@code Name <email>} or {@code null} when there is no
+     *     commit yet
+     */
+    String getHeadAuthor();
+
+    /**
+     * @return number of commits of the current branch missing from its upstream, 0 without
+     *     upstream
+     */
+    int getAheadCount();
+
+    /**
+     * @return number of commits of the upstream missing from the current branch, 0 without
+     *     upstream
+     */
+    int getBehindCount();
+
+    /**
+     * @return id of the merge base of HEAD and the upstream of the current branch, or {@code
+     *     null} without upstream
+     */
+    String getUpstreamMergeBase();
+
+    /**
+     * @return paths, relative to the repository root, of the files staged in the index
+     */
+    List<String> getChangedFiles();
+
+    /**
+     * @return the staged changes as a unified diff against HEAD
+     */
+    String getStagedDiff();
+
+    /**
+     * @return the message of the commit being made, read from the file git passes to the {@code
+     *     commit-msg} and {@code prepare-commit-msg} hooks, or {@code null} for other hooks
+     */
+    String getCommitMessage();
+}
@@ -16,6 +16,9 @@
 
 package io.github.willena.maven.plugins.githooks;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
@@ -24,11 +27,32 @@ public class HookContext {
     private final MavenProject project;
     private final MavenSession session;
     private final Log logger;
+    private final HookTimings timings;
+    private final RefUpdates refUpdates;
+    private final CommitWalker commitWalker;
+    private final Path stagedSnapshot;
+    private final GitFacts gitFacts;
 
     public HookContext(MavenProject project, MavenSession session, Log logger) {
-        this.project = project;
-        this.session = session;
-        this.logger = logger;
+        this(project, session, logger, new HookTimings(null, null));
+    }
+
+    public HookContext(
+            MavenProject project, MavenSession session, Log logger, HookTimings timings) {
+        this(new Builder().project(project).session(session).logger(logger).timings(timings));
+    }
+
+    private HookContext(Builder builder) {
+        this.project = builder.project;
+        this.session = builder.session;
+        this.logger = builder.logger;
+        this.timings =
+                builder.timings != null ? builder.timings : new HookTimings(null, null);
+        this.refUpdates = builder.refUpdates != null ? builder.refUpdates : RefUpdates.empty();
+        this.commitWalker =
+                builder.commitWalker != null ? builder.commitWalker : validator -> List.of();
+        this.stagedSnapshot = builder.stagedSnapshot;
+        this.gitFacts = builder.gitFacts;
     }
 
     public Log getLogger() {
@@ -42,4 +66,105 @@ public class HookContext {
     public MavenSession getSession() {
         return session;
     }
+
+    /**
+     * @return timings of the current git hook run, including the definitions that already ran
+     */
+    public HookTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * Gets the reference updates git passed to the hook, for {@code pre-push}, {@code pre-receive},
+     * {@code post-receive}, {@code reference-transaction} and {@code update}. They are parsed
+     * lazily, each time they are iterated.
+     *
+     * @return the updates, empty for other hooks
+     */
+    public RefUpdates getRefUpdates() {
+        return refUpdates;
+    }
+
+    /**
+     * @return walker of the commits introduced by {@link #getRefUpdates()}
+     */
+    public CommitWalker getCommitWalker() {
+        return commitWalker;
+    }
+
+    /**
+     * Gets the directory holding the staged version of the files changed by the commit, laid out
+     * as in the working tree. Files are hard-linked to the working tree when possible and must not
+     * be modified.
+     *
+     * @return the directory, empty unless the definition sets {@code staged}
+     */
+    public Optional<Path> getStagedSnapshot() {
+        return Optional.ofNullable(stagedSnapshot);
+    }
+
+    /**
+     * @return facts about the repository, shared with the other definitions and conditions of
+     *     the run; empty outside of a git repository
+     */
+    public Optional<GitFacts> getGitFacts() {
+        return Optional.ofNullable(gitFacts);
+    }
+
+    public static final class Builder {
+        private MavenProject project;
+        private MavenSession session;
+        private Log logger;
+        private HookTimings timings;
+        private RefUpdates refUpdates;
+        private CommitWalker commitWalker;
+        private Path stagedSnapshot;
+        private GitFacts gitFacts;
+
+        public Builder() {}
+
+        public Builder project(MavenProject val) {
+            project = val;
+            return this;
+        }
+
+        public Builder session(MavenSession val) {
+            session = val;
+            return this;
+        }
+
+        public Builder logger(Log val) {
+            logger = val;
+            return this;
+        }
+
+        public Builder timings(HookTimings val) {
+            timings = val;
+            return this;
+        }
+
+        public Builder refUpdates(RefUpdates val) {
+            refUpdates = val;
+            return this;
+        }
+
+        public Builder commitWalker(CommitWalker val) {
+            commitWalker = val;
+            return this;
+        }
+
+        public Builder stagedSnapshot(Path val) {
+            stagedSnapshot = val;
+            return this;
+        }
+
+        public Builder gitFacts(GitFacts val) {
+            gitFacts = val;
+            return this;
+        }
+
+        public HookContext build() {
+            return new HookContext(this);
+        }
+    }
 }
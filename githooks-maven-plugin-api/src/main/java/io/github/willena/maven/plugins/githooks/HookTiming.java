@@ -0,0 +1,159 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/** Measurements of a single hook definition run. */
+public class HookTiming {
+    private final String name;
+    private final String type;
+    private final Duration wallTime;
+    private final Duration cpuTime;
+    private final Duration spawnLatency;
+    private final long outputBytes;
+    private final boolean success;
+
+    private HookTiming(Builder builder) {
+        name = builder.name;
+        type = builder.type;
+        wallTime = Objects.requireNonNull(builder.wallTime, "wallTime");
+        cpuTime = builder.cpuTime;
+        spawnLatency = builder.spawnLatency;
+        outputBytes = builder.outputBytes;
+        success = builder.success;
+    }
+
+    /**
+     * @return name of the hook definition
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return kind of run: {@code command}, {@code class} or {@code mojo}
+     */
+    public String getType() {
+        return type;
+    }
+
+    public Duration getWallTime() {
+        return wallTime;
+    }
+
+    /**
+     * @return CPU time of the run when it could be measured: the calling thread for in-process
+     *     runs, the child processes for commands
+     */
+    public Optional<Duration> getCpuTime() {
+        return Optional.ofNullable(cpuTime);
+    }
+
+    /**
+     * @return time taken to start the child processes, only for commands
+     */
+    public Optional<Duration> getSpawnLatency() {
+        return Optional.ofNullable(spawnLatency);
+    }
+
+    /**
+     * @return number of bytes written by the child processes on their standard output
+     */
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    @Override
+    public String toString() {
+        return "HookTiming{"
+                + "name='"
+                + name
+                + '\''
+                + ", type='"
+                + type
+                + '\''
+                + ", wallTime="
+                + wallTime
+                + ", cpuTime="
+                + cpuTime
+                + ", spawnLatency="
+                + spawnLatency
+                + ", outputBytes="
+                + outputBytes
+                + ", success="
+                + success
+                + '}';
+    }
+
+    public static final class Builder {
+        private String name;
+        private String type;
+        private Duration wallTime;
+        private Duration cpuTime;
+        private Duration spawnLatency;
+        private long outputBytes;
+        private boolean success;
+
+        public Builder() {}
+
+        public Builder name(String val) {
+            name = val;
+            return this;
+        }
+
+        public Builder type(String val) {
+            type = val;
+            return this;
+        }
+
+        public Builder wallTime(Duration val) {
+            wallTime = val;
+            return this;
+        }
+
+        public Builder cpuTime(Duration val) {
+            cpuTime = val;
+            return this;
+        }
+
+        public Builder spawnLatency(Duration val) {
+            spawnLatency = val;
+            return this;
+        }
+
+        public Builder outputBytes(long val) {
+            outputBytes = val;
+            return this;
+        }
+
+        public Builder success(boolean val) {
+            success = val;
+            return this;
+        }
+
+        public HookTiming build() {
+            return new HookTiming(this);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Timings of a git hook run: the Maven bootstrap, measured from the start of the hook script, and
+ * each hook definition that already ran.
+ */
+public class HookTimings {
+    private final String hookName;
+    private final Duration bootstrap;
+    private final List<HookTiming> definitions = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * @param hookName name of the git hook
+     * @param bootstrap time between the start of the hook script and the start of the run, {@code
+     *     null} if unknown
+     */
+    public HookTimings(String hookName, Duration bootstrap) {
+        this.hookName = hookName;
+        this.bootstrap = bootstrap;
+    }
+
+    public String getHookName() {
+        return hookName;
+    }
+
+    public Optional<Duration> getBootstrap() {
+        return Optional.ofNullable(bootstrap);
+    }
+
+    public void record(HookTiming timing) {
+        definitions.add(timing);
+    }
+
+    /**
+     * @return the definitions that already ran, in run order
+     */
+    public List<HookTiming> getDefinitions() {
+        synchronized (definitions) {
+            return List.copyOf(definitions);
+        }
+    }
+
+    /**
+     * @return the bootstrap time plus the wall time of every definition
+     */
+    public Duration getTotal() {
+        return getDefinitions().stream()
+                .map(HookTiming::getWallTime)
+                .reduce(getBootstrap().orElse(Duration.ZERO), Duration::plus);
+    }
+
+    /**
+     * Formats the timings as a table, slowest definition first.
+     *
+     * @return the table lines
+     */
+    public List<String> toTable() {
+        List<String> lines = new ArrayList<>();
+        lines.add(
+                String.format(
+                        Locale.ROOT,
+                        "Hook %s: total %d ms, bootstrap %s",
+                        hookName,
+                        getTotal().toMillis(),
+                        getBootstrap().map(d -> d.toMillis() + " ms").orElse("unknown")));
+        lines.add(
+                String.format(
+                        Locale.ROOT,
+                        "%10s %10s %10s %12s  %-7s  %s",
+                        "wall ms",
+                        "cpu ms",
+                        "spawn ms",
+                        "output B",
+                        "status",
+                        "definition"));
+        getDefinitions().stream()
+                .sorted(Comparator.comparing(HookTiming::getWallTime).reversed())
+                .forEach(
+                        t ->
+                                lines.add(
+                                        String.format(
+                                                Locale.ROOT,
+                                                "%10d %10s %10s %12d  %-7s  %s (%s)",
+                                                t.getWallTime().toMillis(),
+                                                millis(t.getCpuTime()),
+                                                millis(t.getSpawnLatency()),
+                                                t.getOutputBytes(),
+                                                t.isSuccess() ? "OK" : "FAILED",
+                                                t.getName(),
+                                                t.getType())));
+        return lines;
+    }
+
+    private static String millis(Optional<Duration> duration) {
+        return duration.map(d -> String.valueOf(d.toMillis())).orElse("-");
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.util.Objects;
+
+/**
+ * A reference update as received by the server side hooks ({@code pre-receive}, {@code
+ * post-receive}, {@code update}, {@code reference-transaction}) or sent by {@code pre-push}.
+ */
+public final class RefUpdate {
+    private final String refName;
+    private final String oldId;
+    private final String newId;
+    private final String localRefName;
+
+    public RefUpdate(String refName, String oldId, String newId) {
+        this(refName, oldId, newId, null);
+    }
+
+    /**
+     * @param refName name of the updated reference, on the remote side for {@code pre-push}
+     * @param oldId object id before the update, all zeros when the reference is created
+     * @param newId object id after the update, all zeros when the reference is deleted
+     * @param localRefName local reference being pushed, only for {@code pre-push}
+     */
+    public RefUpdate(String refName, String oldId, String newId, String localRefName) {
+        this.refName = Objects.requireNonNull(refName, "refName");
+        this.oldId = Objects.requireNonNull(oldId, "oldId");
+        this.newId = Objects.requireNonNull(newId, "newId");
+        this.localRefName = localRefName;
+    }
+
+    /**
+     * Parses a line of hook input.
+     *
+     * @param format format of the line
+     * @param line the line, without line terminator
+     * @return the update
+     * @throws IllegalArgumentException if the line does not match the format
+     */
+    public static RefUpdate parse(Format format, String line) {
+        String[] parts = line.trim().split(" ");
+        if (parts.length != format.fields) {
+            throw new IllegalArgumentException("Invalid " + format + " ref update line: " + line);
+        }
+        return switch (format) {
+            case RECEIVE -> new RefUpdate(parts[2], parts[0], parts[1]);
+            case PUSH -> new RefUpdate(parts[2], parts[3], parts[1], parts[0]);
+        };
+    }
+
+    public String getRefName() {
+        return refName;
+    }
+
+    public String getOldId() {
+        return oldId;
+    }
+
+    public String getNewId() {
+        return newId;
+    }
+
+    public String getLocalRefName() {
+        return localRefName;
+    }
+
+    public boolean isCreate() {
+        return isZero(oldId);
+    }
+
+    public boolean isDelete() {
+        return isZero(newId);
+    }
+
+    public boolean isBranch() {
+        return refName.startsWith("refs/heads/");
+    }
+
+    public boolean isTag() {
+        return refName.startsWith("refs/tags/");
+    }
+
+    private static boolean isZero(String id) {
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        RefUpdate that = (RefUpdate) o;
+        return Objects.equals(refName, that.refName)
+                && Objects.equals(oldId, that.oldId)
+                && Objects.equals(newId, that.newId)
+                && Objects.equals(localRefName, that.localRefName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(refName, oldId, newId, localRefName);
+    }
+
+    @Override
+    public String toString() {
+        return "RefUpdate{"
+                + "refName='"
+                + refName
+                + '\''
+                + ", oldId='"
+                + oldId
+                + '\''
+                + ", newId='"
+                + newId
+                + '\''
+                + ", localRefName='"
+                + localRefName
+                + '\''
+                + '}';
+    }
+
+    /** Line formats of the hook input. */
+    public enum Format {
+        /** {@code <old-value> SP <new-value> SP <ref-name>} */
+        RECEIVE(3),
+
+        /** {@code <local-ref> SP <local-object-name> SP <remote-ref> SP <remote-object-name>} */
+        PUSH(4);
+
+        private final int fields;
+
+        Format(int fields) {
+            this.fields = fields;
+        }
+    }
+}
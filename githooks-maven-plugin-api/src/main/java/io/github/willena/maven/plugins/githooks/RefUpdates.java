@@ -0,0 +1,230 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The reference updates of a hook run. Updates are read and parsed lazily, one line at a time,
+ * each time they are iterated, so large pushes are never held in memory.
+ */
+public class RefUpdates implements Iterable<RefUpdate> {
+    private static final RefUpdates EMPTY = of(List.of());
+
+    private final Source source;
+    private final RefUpdate.Format format;
+
+    private RefUpdates(Source source, RefUpdate.Format format) {
+        this.source = source;
+        this.format = format;
+    }
+
+    public static RefUpdates empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param file file holding the hook input, one update per line
+     * @param format format of the lines
+     * @return updates read from the file each time they are iterated
+     */
+    public static RefUpdates fromFile(Path file, RefUpdate.Format format) {
+        return new RefUpdates(() -> Files.newBufferedReader(file, StandardCharsets.UTF_8), format);
+    }
+
+    public static RefUpdates of(List<RefUpdate> updates) {
+        return new ListRefUpdates(List.copyOf(updates));
+    }
+
+    /**
+     * @throws UncheckedIOException if the input cannot be read
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    @Override
+    public Iterator<RefUpdate> iterator() {
+        return new LineIterator(open(), format);
+    }
+
+    /**
+     * @return a sequential stream of the updates, to be closed after use
+     */
+    public Stream<RefUpdate> stream() {
+        LineIterator iterator = new LineIterator(open(), format);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(
+                                iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Processes the updates on several threads. Updates are read as the workers consume them, at
+     * most a few per thread ahead. Processing stops at the first failure.
+     *
+     * @param parallelism number of threads
+     * @param action the processing of an update
+     * @throws Exception the first failure of the action
+     */
+    public void forEachParallel(int parallelism, Action action) throws Exception {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism);
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        Semaphore pending = new Semaphore(parallelism * 4);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        try (Stream<RefUpdate> updates = stream()) {
+            Iterator<RefUpdate> iterator = updates.iterator();
+            while (failure.get() == null && iterator.hasNext()) {
+                RefUpdate update = iterator.next();
+                pending.acquire();
+                workers.execute(
+                        () -> {
+                            try {
+                                if (failure.get() == null) {
+                                    action.accept(update);
+                                }
+                            } catch (Exception e) {
+                                failure.compareAndSet(null, e);
+                            } finally {
+                                pending.release();
+                            }
+                        });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private BufferedReader open() {
+        try {
+            return source.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read ref updates", e);
+        }
+    }
+
+    /** Processing of a single update. */
+    @FunctionalInterface
+    public interface Action {
+        void accept(RefUpdate update) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Source {
+        BufferedReader open() throws IOException;
+    }
+
+    private static final class LineIterator implements Iterator<RefUpdate>, AutoCloseable {
+        private final BufferedReader reader;
+        private final RefUpdate.Format format;
+        private RefUpdate next;
+        private boolean closed;
+
+        private LineIterator(BufferedReader reader, RefUpdate.Format format) {
+            this.reader = reader;
+            this.format = format;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (closed) {
+                return false;
+            }
+            try {
+                String line;
+                do {
+                    line = reader.readLine();
+                } while (line != null && line.isBlank());
+                if (line == null) {
+                    close();
+                    return false;
+                }
+                next = RefUpdate.parse(format, line);
+                return true;
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Could not read ref updates", e);
+            }
+        }
+
+        @Override
+        public RefUpdate next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RefUpdate update = next;
+            next = null;
+            return update;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // Nothing left to read
+                }
+            }
+        }
+    }
+
+    private static final class ListRefUpdates extends RefUpdates {
+        private final List<RefUpdate> updates;
+
+        private ListRefUpdates(List<RefUpdate> updates) {
+            super(() -> new BufferedReader(new StringReader("")), null);
+            this.updates = updates;
+        }
+
+        @Override
+        public Iterator<RefUpdate> iterator() {
+            return updates.iterator();
+        }
+
+        @Override
+        public Stream<RefUpdate> stream() {
+            return updates.stream();
+        }
+    }
+}
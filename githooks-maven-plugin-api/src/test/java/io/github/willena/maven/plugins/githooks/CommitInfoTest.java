@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CommitInfoTest {
+
+    @Test
+    void subjectAndParents() {
+        CommitInfo commit =
+                new CommitInfo.Builder()
+                        .id("1111111111111111111111111111111111111111")
+                        .parentIds(List.of("a", "b"))
+                        .message("Subject line\n\nBody\n")
+                        .build();
+
+        assertEquals("Subject line", commit.getSubject());
+        assertTrue(commit.isMerge());
+        assertFalse(new CommitInfo.Builder().id("1").build().isMerge());
+        assertEquals("", new CommitInfo.Builder().id("1").build().getSubject());
+        assertThrows(NullPointerException.class, () -> new CommitInfo.Builder().build());
+    }
+}
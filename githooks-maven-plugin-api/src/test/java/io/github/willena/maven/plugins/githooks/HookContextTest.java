@@ -17,20 +17,44 @@
 package io.github.willena.maven.plugins.githooks;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
 import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.Test;
 
 class HookContextTest {
 
     @Test
-    void getterSetter() {
+    void getterSetter() throws Exception {
         MavenProject project = new MavenProject();
 
         HookContext ctx = new HookContext(project, null, null);
         assertNull(ctx.getSession());
         assertNull(ctx.getLogger());
         assertEquals(project, ctx.getProject());
+        assertNotNull(ctx.getTimings());
+
+        HookTimings timings = new HookTimings("PRE_COMMIT", null);
+        assertSame(timings, new HookContext(project, null, null, timings).getTimings());
+        assertFalse(ctx.getRefUpdates().iterator().hasNext());
+        assertEquals(List.of(), ctx.getCommitWalker().validate(commit -> "rejected"));
+        assertEquals(Optional.empty(), ctx.getStagedSnapshot());
+        assertEquals(Optional.empty(), ctx.getGitFacts());
+
+        RefUpdates updates = RefUpdates.of(List.of(new RefUpdate("refs/heads/main", "a", "b")));
+        assertSame(
+                updates,
+                new HookContext.Builder().project(project).refUpdates(updates).build()
+                        .getRefUpdates());
+        assertEquals(
+                Optional.of(Path.of("snapshot")),
+                new HookContext.Builder().stagedSnapshot(Path.of("snapshot")).build()
+                        .getStagedSnapshot());
     }
 }
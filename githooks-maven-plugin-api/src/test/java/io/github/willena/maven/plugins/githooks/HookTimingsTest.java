@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HookTimingsTest {
+
+    @Test
+    void totalAndTable() {
+        HookTimings timings = new HookTimings("PRE_COMMIT", Duration.ofMillis(1000));
+        timings.record(
+                new HookTiming.Builder()
+                        .name("fast")
+                        .type("class")
+                        .wallTime(Duration.ofMillis(10))
+                        .cpuTime(Duration.ofMillis(5))
+                        .success(true)
+                        .build());
+        timings.record(
+                new HookTiming.Builder()
+                        .name("slow")
+                        .type("command")
+                        .wallTime(Duration.ofMillis(300))
+                        .spawnLatency(Duration.ofMillis(2))
+                        .outputBytes(42)
+                        .build());
+
+        assertEquals(Duration.ofMillis(1310), timings.getTotal());
+        assertEquals(
+                List.of("fast", "slow"),
+                timings.getDefinitions().stream().map(HookTiming::getName).toList());
+
+        List<String> table = timings.toTable();
+        assertEquals(4, table.size());
+        assertTrue(table.get(0).contains("PRE_COMMIT"));
+        assertTrue(table.get(0).contains("1310 ms"));
+        assertTrue(table.get(0).contains("bootstrap 1000 ms"));
+        assertTrue(table.get(2).contains("slow (command)"));
+        assertTrue(table.get(2).contains("FAILED"));
+        assertTrue(table.get(2).contains("42"));
+        assertTrue(table.get(3).contains("fast (class)"));
+        assertTrue(table.get(3).contains(" - "));
+    }
+
+    @Test
+    void unknownBootstrap() {
+        HookTimings timings = new HookTimings(null, null);
+
+        assertTrue(timings.getBootstrap().isEmpty());
+        assertEquals(Duration.ZERO, timings.getTotal());
+        assertTrue(timings.toTable().get(0).contains("bootstrap unknown"));
+    }
+
+    @Test
+    void wallTimeIsRequired() {
+        assertThrows(NullPointerException.class, () -> new HookTiming.Builder().name("a").build());
+    }
+}
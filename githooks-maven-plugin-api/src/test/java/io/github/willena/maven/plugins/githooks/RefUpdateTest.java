@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RefUpdateTest {
+    private static final String ZERO = "0000000000000000000000000000000000000000";
+    private static final String A = "1111111111111111111111111111111111111111";
+    private static final String B = "2222222222222222222222222222222222222222";
+
+    @Test
+    void parseReceive() {
+        RefUpdate update =
+                RefUpdate.parse(RefUpdate.Format.RECEIVE, A + " " + B + " refs/heads/main");
+
+        assertEquals(new RefUpdate("refs/heads/main", A, B), update);
+        assertNull(update.getLocalRefName());
+        assertTrue(update.isBranch());
+        assertFalse(update.isTag());
+        assertFalse(update.isCreate());
+        assertFalse(update.isDelete());
+    }
+
+    @Test
+    void parsePush() {
+        RefUpdate update =
+                RefUpdate.parse(
+                        RefUpdate.Format.PUSH, "refs/tags/v1 " + B + " refs/tags/v1 " + ZERO);
+
+        assertEquals("refs/tags/v1", update.getLocalRefName());
+        assertEquals(ZERO, update.getOldId());
+        assertEquals(B, update.getNewId());
+        assertTrue(update.isTag());
+        assertTrue(update.isCreate());
+    }
+
+    @Test
+    void parseDelete() {
+        assertTrue(
+                RefUpdate.parse(RefUpdate.Format.RECEIVE, A + " " + ZERO + " refs/heads/old")
+                        .isDelete());
+    }
+
+    @Test
+    void parseRejectsMalformedLine() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> RefUpdate.parse(RefUpdate.Format.PUSH, A + " " + B + " refs/heads/main"));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class RefUpdatesTest {
+    private static final String A = "1111111111111111111111111111111111111111";
+    private static final String B = "2222222222222222222222222222222222222222";
+
+    @Test
+    void fromFileIsReadOnEachIteration() throws IOException {
+        Path file = input(3);
+        RefUpdates updates = RefUpdates.fromFile(file, RefUpdate.Format.RECEIVE);
+
+        List<String> first = new ArrayList<>();
+        updates.forEach(u -> first.add(u.getRefName()));
+        List<String> second = new ArrayList<>();
+        updates.forEach(u -> second.add(u.getRefName()));
+
+        assertEquals(List.of("refs/heads/b0", "refs/heads/b1", "refs/heads/b2"), first);
+        assertEquals(first, second);
+    }
+
+    @Test
+    void streamSkipsBlankLines() throws IOException {
+        Path file = Files.createTempFile("refs", ".txt");
+        Files.writeString(file, "\n" + A + " " + B + " refs/heads/main\n\n");
+
+        try (Stream<RefUpdate> updates =
+                RefUpdates.fromFile(file, RefUpdate.Format.RECEIVE).stream()) {
+            assertEquals(List.of(new RefUpdate("refs/heads/main", A, B)), updates.toList());
+        }
+    }
+
+    @Test
+    void emptyHasNoUpdates() {
+        assertFalse(RefUpdates.empty().iterator().hasNext());
+    }
+
+    @Test
+    void forEachParallelProcessesAllUpdates() throws Exception {
+        RefUpdates updates = RefUpdates.fromFile(input(200), RefUpdate.Format.RECEIVE);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+
+        updates.forEachParallel(4, u -> seen.add(u.getRefName()));
+
+        assertEquals(200, seen.size());
+    }
+
+    @Test
+    void forEachParallelPropagatesFirstFailure() throws IOException {
+        RefUpdates updates = RefUpdates.fromFile(input(50), RefUpdate.Format.RECEIVE);
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+
+        IOException e =
+                assertThrows(
+                        IOException.class,
+                        () ->
+                                updates.forEachParallel(
+                                        2,
+                                        u -> {
+                                            seen.add(u.getRefName());
+                                            if (u.getRefName().equals("refs/heads/b3")) {
+                                                throw new IOException("rejected");
+                                            }
+                                        }));
+        assertEquals("rejected", e.getMessage());
+        assertThrows(
+                IllegalArgumentException.class, () -> updates.forEachParallel(0, u -> {}));
+    }
+
+    private static Path input(int count) throws IOException {
+        Path file = Files.createTempFile("refs", ".txt");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(A + " " + B + " refs/heads/b" + i);
+        }
+        Files.write(file, lines);
+        return file;
+    }
+}
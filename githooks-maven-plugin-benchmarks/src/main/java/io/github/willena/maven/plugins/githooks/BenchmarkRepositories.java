@@ -0,0 +1,132 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.BatchRefUpdate;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.ReceiveCommand;
+
+/** Synthetic git repositories used by the benchmarks. */
+final class BenchmarkRepositories {
+
+    private BenchmarkRepositories() {}
+
+    /**
+     * Creates a repository with a single commit on {@code main}, pointed to by {@code refCount}
+     * other references: half branches ({@code refs/heads/branch-<i>}), half tags ({@code
+     * refs/tags/v<i>}).
+     *
+     * @param refCount number of additional references
+     * @param packed whether the references are packed or stored as loose files
+     * @return the work tree of the repository
+     */
+    static Path create(int refCount, boolean packed) throws IOException, GitAPIException {
+        Path worktree = Files.createTempDirectory("githooks-benchmark");
+        try (Git git = Git.init().setDirectory(worktree.toFile()).setInitialBranch("main").call()) {
+            RevCommit head = git.commit().setMessage("initial").setAllowEmpty(true).call();
+            createRefs(git, head, refCount);
+            if (packed) {
+                git.packRefs().setAll(true).call();
+            }
+        }
+        return worktree;
+    }
+
+    /**
+     * Creates a repository on {@code main} holding {@code files} text files spread over
+     * directories of 100 files, with a history of {@code historyDepth} commits, each one changing
+     * a single file after the first. {@code refCount} references point to the last commit, as in
+     * {@link #create(int, boolean)}.
+     *
+     * @param worktree the work tree of the repository, created if missing
+     * @param files number of files
+     * @param historyDepth number of commits, at least 1
+     * @param refCount number of additional references
+     * @return the repository, to be closed by the caller
+     */
+    static Git createProject(Path worktree, int files, int historyDepth, int refCount)
+            throws IOException, GitAPIException {
+        Git git = Git.init().setDirectory(worktree.toFile()).setInitialBranch("main").call();
+        // Identity of the commits made by the git command line
+        StoredConfig config = git.getRepository().getConfig();
+        config.setString("user", null, "name", "Benchmark");
+        config.setString("user", null, "email", "benchmark@example.com");
+        config.save();
+        for (int i = 0; i < files; i++) {
+            Path file = worktree.resolve(sourceFile(i));
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, "file " + i + System.lineSeparator());
+        }
+        git.add().addFilepattern(".").call();
+        RevCommit head = git.commit().setMessage("initial").setAllowEmpty(true).call();
+        for (int c = 1; c < historyDepth && files > 0; c++) {
+            String file = sourceFile(c % files);
+            Files.writeString(
+                    worktree.resolve(file),
+                    "change " + c + System.lineSeparator(),
+                    StandardOpenOption.APPEND);
+            git.add().addFilepattern(file).call();
+            head = git.commit().setMessage("change " + c).call();
+        }
+        createRefs(git, head, refCount);
+        return git;
+    }
+
+    /**
+     * @param index index of the file
+     * @return the path of a file of {@link #createProject(Path, int, int, int)}, relative to the
+     *     work tree and using {@code /} as separator
+     */
+    static String sourceFile(int index) {
+        return "src/dir-" + index / 100 + "/file-" + index + ".txt";
+    }
+
+    private static void createRefs(Git git, RevCommit target, int refCount) throws IOException {
+        BatchRefUpdate batch = git.getRepository().getRefDatabase().newBatchUpdate();
+        batch.setAtomic(false);
+        for (int i = 0; i < refCount; i++) {
+            String name = i % 2 == 0 ? "refs/heads/branch-" + i : "refs/tags/v" + i;
+            batch.addCommand(new ReceiveCommand(ObjectId.zeroId(), target, name));
+        }
+        try (RevWalk walk = new RevWalk(git.getRepository())) {
+            batch.execute(walk, NullProgressMonitor.INSTANCE);
+        }
+    }
+
+    static void delete(Path path) throws IOException {
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
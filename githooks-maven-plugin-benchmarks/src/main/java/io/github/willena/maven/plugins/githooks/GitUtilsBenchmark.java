@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Resolution of the references pointing at HEAD, as done by {@code <ref>} conditions. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GitUtilsBenchmark {
+    private static final Pattern FIRST_TAG = Pattern.compile("^refs/tags/v1$");
+    private static final Pattern NO_MATCH = Pattern.compile("^refs/heads/release/");
+
+    @Param({"10", "1000", "10000"})
+    public int refCount;
+
+    @Param({"true", "false"})
+    public boolean packed;
+
+    private Path repository;
+
+    @Setup(Level.Trial)
+    public void createRepository() throws Exception {
+        repository = BenchmarkRepositories.create(refCount, packed);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteRepository() throws Exception {
+        BenchmarkRepositories.delete(repository);
+    }
+
+    @Benchmark
+    public boolean headMatchesRefPattern() {
+        return GitUtils.headMatchesRefPattern(repository, FIRST_TAG);
+    }
+
+    @Benchmark
+    public boolean headMatchesNoRefPattern() {
+        return GitUtils.headMatchesRefPattern(repository, NO_MATCH);
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.transport.URIish;
+
+/**
+ * End-to-end latency of the installed hooks, Maven bootstrap included. For each execution mode, a
+ * synthetic project is generated, its hooks are installed by {@link InstallHooksMojo}, then real
+ * {@code git commit} and {@code git push} commands are run against a local bare repository. Each
+ * installed hook script is wrapped to record its own latency.
+ *
+ * <p>Modes are hook script templates: {@code mvn} is the default template, {@code mvnd} the same
+ * script started through the Maven daemon, {@code appcds} the default template with {@code
+ * classDataSharing}, and {@code baseline} installs no hook at all. The AppCDS archive is written
+ * by the first hook run, which needs at least one warmup iteration to stay out of the samples.
+ * Other templates can be compared with {@code --template=<mode>=<file>}. When {@code mvn} is
+ * measured, the median of the other modes is also reported against it.
+ *
+ * <pre>
+ * java -cp benchmarks.jar io.github.willena.maven.plugins.githooks.HookLatencyHarness \
+ *     --files=1000 --refs=100 --depth=50 --iterations=20 --modes=baseline,mvn,mvnd,appcds
+ * </pre>
+ */
+public class HookLatencyHarness {
+    static final String BASELINE = "baseline";
+    static final String MAVEN = "mvn";
+    static final String MAVEN_DAEMON = "mvnd";
+    static final String APP_CDS = "appcds";
+
+    private static final String MAVEN_DAEMON_TEMPLATE =
+            "#!/bin/sh\n"
+                    + "hookStart=$(date +%s%3N);\n"
+                    + "args=$(IFS=, ; echo \"$*\");\n"
+                    + "export JAVA_HOME=\"${javaHome}\";\n"
+                    + "mvnd -q githooks:run \"-Dhook.name=${hookName}\" \"-Dhook.args=${args}\""
+                    + " \"-Dhook.startTime=${hookStart}\" \"-Dhook.stdin=${hookStdin}\";";
+
+    private static final List<HookType> HOOKS =
+            List.of(
+                    HookType.PRE_COMMIT,
+                    HookType.COMMIT_MSG,
+                    HookType.PRE_PUSH,
+                    HookType.REFERENCE_TRANSACTION);
+
+    private final int files;
+    private final int refs;
+    private final int historyDepth;
+    private final int warmup;
+    private final int iterations;
+    private final Map<String, String> modes;
+    private final Path workDirectory;
+    private final String pluginVersion;
+    private final String mavenHome;
+    private final String javaHome;
+    private final Log log;
+
+    private HookLatencyHarness(Builder builder) {
+        this.files = builder.files;
+        this.refs = builder.refs;
+        this.historyDepth = builder.historyDepth;
+        this.warmup = builder.warmup;
+        this.iterations = builder.iterations;
+        this.modes = builder.modes;
+        this.workDirectory = builder.workDirectory;
+        this.pluginVersion = builder.pluginVersion;
+        this.mavenHome = builder.mavenHome;
+        this.javaHome = builder.javaHome;
+        this.log = builder.log;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Builder builder = new Builder();
+        Path csv = null;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --<option>=<value>, got " + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "files" -> builder.files(Integer.parseInt(value));
+                case "refs" -> builder.refs(Integer.parseInt(value));
+                case "depth" -> builder.historyDepth(Integer.parseInt(value));
+                case "warmup" -> builder.warmup(Integer.parseInt(value));
+                case "iterations" -> builder.iterations(Integer.parseInt(value));
+                case "modes" -> builder.modes(List.of(value.split(",")));
+                case "template" -> {
+                    String[] template = value.split("=", 2);
+                    builder.template(template[0], Files.readString(Path.of(template[1])));
+                }
+                case "work-dir" -> builder.workDirectory(Path.of(value));
+                case "plugin-version" -> builder.pluginVersion(value);
+                case "report" -> csv = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        HookLatencyHarness harness = builder.build();
+        LatencyReport report = harness.run();
+        report.toTable().forEach(System.out::println);
+        if (harness.modes.containsKey(MAVEN) && harness.modes.size() > 1) {
+            System.out.println();
+            report.toComparison(MAVEN).forEach(System.out::println);
+        }
+        if (csv != null) {
+            Files.write(csv, report.toCsv());
+        }
+    }
+
+    LatencyReport run() throws Exception {
+        LatencyReport report = new LatencyReport();
+        for (Map.Entry<String, String> mode : modes.entrySet()) {
+            runMode(mode.getKey(), mode.getValue(), report);
+        }
+        return report;
+    }
+
+    private void runMode(String mode, String template, LatencyReport report) throws Exception {
+        Path modeDirectory = workDirectory.resolve(mode);
+        Path worktree = modeDirectory.resolve("project");
+        Path remote = modeDirectory.resolve("remote.git");
+        Path latencyLog = modeDirectory.resolve("hooks.log");
+        log.info(
+                String.format(
+                        "Mode %s: %d files, %d refs, %d commits in %s",
+                        mode, files, refs, historyDepth, modeDirectory));
+
+        Git.init()
+                .setBare(true)
+                .setDirectory(remote.toFile())
+                .setInitialBranch("main")
+                .call()
+                .close();
+        try (Git git = BenchmarkRepositories.createProject(worktree, files, historyDepth, refs)) {
+            git.remoteAdd().setName("origin").setUri(new URIish(remote.toUri().toURL())).call();
+            git.push().setRemote("origin").add("main").call();
+        }
+        Files.writeString(worktree.resolve("pom.xml"), projectPom());
+        if (!BASELINE.equals(mode)) {
+            install(worktree, template, APP_CDS.equals(mode));
+            wrapHooks(worktree, latencyLog);
+        }
+
+        for (int i = 0; i < warmup + iterations; i++) {
+            String file = BenchmarkRepositories.sourceFile(i % files);
+            Files.writeString(
+                    worktree.resolve(file), "edit " + i + "\n", StandardOpenOption.APPEND);
+            git(worktree, "add", file);
+            Duration commit = git(worktree, "commit", "-q", "-m", "edit " + i);
+            Duration push = git(worktree, "push", "-q", "origin", "main");
+            if (i < warmup) {
+                Files.deleteIfExists(latencyLog);
+            } else {
+                report.record(mode, "git commit", commit);
+                report.record(mode, "git push", push);
+            }
+        }
+
+        if (Files.exists(latencyLog)) {
+            for (String line : Files.readAllLines(latencyLog)) {
+                String[] fields = line.split(" ");
+                report.record(
+                        mode,
+                        "hook " + fields[0],
+                        Duration.ofNanos(Long.parseLong(fields[2]) - Long.parseLong(fields[1])));
+            }
+        }
+    }
+
+    /** Installs the hooks as the {@code install} goal would, with the given script template. */
+    private void install(Path worktree, String template, boolean classDataSharing)
+            throws MojoExecutionException {
+        MavenProject project = new MavenProject();
+        project.setFile(worktree.resolve("pom.xml").toFile());
+
+        InstallHooksMojo mojo = new InstallHooksMojo();
+        mojo.setLog(log);
+        inject(mojo, "mavenProject", project);
+        inject(mojo, "mavenHome", mavenHome);
+        inject(mojo, "javaHome", javaHome);
+        inject(mojo, "hookScriptTemplate", template);
+        inject(mojo, "hooks", hookConfigs());
+        inject(mojo, "classDataSharing", classDataSharing);
+        mojo.execute();
+    }
+
+    private static List<HookConfig> hookConfigs() {
+        return HOOKS.stream()
+                .map(
+                        type ->
+                                new HookConfig()
+                                        .setType(type)
+                                        .setHookDefinitions(
+                                                List.of(
+                                                        new HookDefinitionConfig()
+                                                                .setName("noop")
+                                                                .setRunConfig(
+                                                                        new RunConfig()
+                                                                                .setCommand(
+                                                                                        "true")))))
+                .toList();
+    }
+
+    /** Sets a mojo parameter the way Maven does, bypassing the missing setters. */
+    private static void inject(Object mojo, String name, Object value) {
+        try {
+            Field field = mojo.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(mojo, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not set parameter " + name, e);
+        }
+    }
+
+    /**
+     * Moves every installed hook script aside and replaces it with a script appending {@code
+     * <hook> <start ns> <end ns>} to the latency log around the original one.
+     */
+    private static void wrapHooks(Path worktree, Path latencyLog) throws IOException {
+        Path hooks = GitUtils.getHooksPath(worktree);
+        for (HookType type : HOOKS) {
+            Path script = hooks.resolve(type.getFileName());
+            Path measured = hooks.resolve(type.getFileName() + ".measured");
+            Files.move(script, measured);
+            Files.writeString(
+                    script,
+                    "#!/bin/sh\n"
+                            + "start=$(date +%s%N)\n"
+                            + "'" + measured + "' \"$@\"\n"
+                            + "status=$?\n"
+                            + "echo \"" + type.getFileName() + " $start $(date +%s%N)\""
+                            + " >> '" + latencyLog + "'\n"
+                            + "exit $status\n");
+            if (!script.toFile().setExecutable(true) || !measured.toFile().setExecutable(true)) {
+                throw new IOException("Could not make " + script + " executable");
+            }
+        }
+    }
+
+    private static Duration git(Path worktree, String... args)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(args));
+        long start = System.nanoTime();
+        Process process =
+                new ProcessBuilder(command)
+                        .directory(worktree.toFile())
+                        .redirectErrorStream(true)
+                        .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        int status = process.waitFor();
+        Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        if (status != 0) {
+            throw new IllegalStateException(
+                    String.join(" ", command) + " failed with status " + status + ":\n" + output);
+        }
+        return latency;
+    }
+
+    /** Project declaring the same hooks as {@link #install}, for the run goal. */
+    private String projectPom() {
+        String hooks =
+                HOOKS.stream()
+                        .map(
+                                type ->
+                                        "<hook><type>"
+                                                + type.name()
+                                                + "</type><hookDefinitions><hookDefinition>"
+                                                + "<name>noop</name>"
+                                                + "<runConfig><command>true</command></runConfig>"
+                                                + "</hookDefinition></hookDefinitions></hook>")
+                        .collect(Collectors.joining());
+        return "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+                + "<modelVersion>4.0.0</modelVersion>"
+                + "<groupId>io.github.willena</groupId>"
+                + "<artifactId>githooks-latency-project</artifactId>"
+                + "<version>1.0.0-SNAPSHOT</version>"
+                + "<packaging>pom</packaging>"
+                + "<build><plugins><plugin>"
+                + "<groupId>io.github.willena.maven</groupId>"
+                + "<artifactId>githooks-maven-plugin</artifactId>"
+                + "<version>" + pluginVersion + "</version>"
+                + "<configuration><hooks>" + hooks + "</hooks></configuration>"
+                + "</plugin></plugins></build>"
+                + "</project>\n";
+    }
+
+    public static final class Builder {
+        private int files = 100;
+        private int refs = 100;
+        private int historyDepth = 50;
+        private int warmup = 2;
+        private int iterations = 20;
+        private final Map<String, String> modes = new LinkedHashMap<>();
+        private Path workDirectory;
+        private String pluginVersion;
+        private String mavenHome = System.getProperty("maven.home", System.getenv("MAVEN_HOME"));
+        private String javaHome = System.getProperty("java.home");
+        private Log log = new SystemStreamLog();
+
+        public Builder() {}
+
+        public Builder files(int val) {
+            files = val;
+            return this;
+        }
+
+        public Builder refs(int val) {
+            refs = val;
+            return this;
+        }
+
+        public Builder historyDepth(int val) {
+            historyDepth = val;
+            return this;
+        }
+
+        public Builder warmup(int val) {
+            warmup = val;
+            return this;
+        }
+
+        public Builder iterations(int val) {
+            iterations = val;
+            return this;
+        }
+
+        /**
+         * @param names built-in modes to measure: {@value #BASELINE}, {@value #MAVEN}, {@value
+         *     #MAVEN_DAEMON} or {@value #APP_CDS}
+         */
+        public Builder modes(List<String> names) {
+            for (String name : names) {
+                switch (name) {
+                    case BASELINE, MAVEN, APP_CDS -> modes.put(name, null);
+                    case MAVEN_DAEMON -> modes.put(name, MAVEN_DAEMON_TEMPLATE);
+                    default -> throw new IllegalArgumentException("Unknown mode " + name);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * @param name name of the mode in the report
+         * @param template hook script template installed for this mode
+         */
+        public Builder template(String name, String template) {
+            modes.put(name, template);
+            return this;
+        }
+
+        public Builder workDirectory(Path val) {
+            workDirectory = val;
+            return this;
+        }
+
+        public Builder pluginVersion(String val) {
+            pluginVersion = val;
+            return this;
+        }
+
+        public Builder mavenHome(String val) {
+            mavenHome = val;
+            return this;
+        }
+
+        public Builder javaHome(String val) {
+            javaHome = val;
+            return this;
+        }
+
+        public Builder log(Log val) {
+            log = val;
+            return this;
+        }
+
+        public HookLatencyHarness build() throws IOException {
+            if (files < 1 || historyDepth < 1 || iterations < 1 || warmup < 0) {
+                throw new IllegalArgumentException(
+                        "files, depth and iterations must be positive, warmup must not be"
+                                + " negative");
+            }
+            if (modes.isEmpty()) {
+                modes(List.of(BASELINE, MAVEN));
+            }
+            if (workDirectory == null) {
+                workDirectory = Files.createTempDirectory("githooks-latency");
+            }
+            if (pluginVersion == null) {
+                pluginVersion = defaultPluginVersion();
+            }
+            return new HookLatencyHarness(this);
+        }
+
+        /** Version of the plugin this module was built with, filtered in by Maven. */
+        private static String defaultPluginVersion() throws IOException {
+            Properties properties = new Properties();
+            try (InputStream in =
+                    HookLatencyHarness.class.getResourceAsStream(
+                            "/githooks-benchmarks.properties")) {
+                if (in != null) {
+                    properties.load(in);
+                }
+            }
+            String version = properties.getProperty("plugin.version");
+            if (version == null || version.startsWith("${")) {
+                throw new IllegalStateException(
+                        "Plugin version unknown, set it with --plugin-version=<version>");
+            }
+            return version;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Generation of the hook scripts by the {@code install} goal. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HookScriptWriterBenchmark {
+    private Path hooksDirectory;
+    private HookScriptWriter writer;
+    private List<HookDefinitionConfig> commands;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        hooksDirectory = Files.createTempDirectory("githooks-benchmark");
+        writer = new HookScriptWriter(null, "/opt/maven", "/opt/java", false);
+        commands =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("log")
+                                .setRunConfig(new RunConfig().setCommand("logger -t git")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkRepositories.delete(hooksDirectory);
+    }
+
+    @Benchmark
+    public Path writeTemplateHook() throws IOException {
+        return writer.writeHook(HookType.PRE_COMMIT, hooksDirectory);
+    }
+
+    @Benchmark
+    public Path writeNativeHook() throws IOException {
+        return writer.writeHook(HookType.REFERENCE_TRANSACTION, commands, hooksDirectory);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Selection of the definitions to run. Every definition is either skipped or guarded by a
+ * condition that never holds, so that only validation and condition evaluation are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HookSelectionBenchmark {
+    private static final String UNSET_VARIABLE = "GITHOOKS_BENCHMARK_UNSET_VARIABLE";
+
+    @Param({"10", "100", "1000"})
+    public int definitions;
+
+    private HookRunner runner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<HookDefinitionConfig> hooks = new ArrayList<>(definitions);
+        List<String> skipped = new ArrayList<>();
+        for (int i = 0; i < definitions; i++) {
+            String name = "definition-" + i;
+            HookDefinitionConfig hook =
+                    new HookDefinitionConfig()
+                            .setName(name)
+                            .setRunConfig(new RunConfig().setCommand("true"));
+            if (i % 2 == 0) {
+                skipped.add(name);
+            } else {
+                hook.setOnlyIf(new ConditionalRunConfig().setEnv(Map.of(UNSET_VARIABLE, "1")));
+            }
+            hooks.add(hook);
+        }
+        runner =
+                new HookRunner(
+                        hooks,
+                        new SilentLog(),
+                        new HookRunner.HookRunnerConfig.Builder().skipRuns(skipped).build());
+    }
+
+    @Benchmark
+    public void selectNothing() throws MojoExecutionException {
+        runner.run();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency distributions of the {@link HookLatencyHarness}, per operation (a git command or a
+ * hook) and execution mode. Rows of the same operation are adjacent so that modes can be compared.
+ */
+final class LatencyReport {
+    private final Map<String, Map<String, List<Duration>>> samples = new TreeMap<>();
+
+    void record(String mode, String operation, Duration latency) {
+        samples.computeIfAbsent(operation, o -> new TreeMap<>())
+                .computeIfAbsent(mode, m -> new ArrayList<>())
+                .add(latency);
+    }
+
+    List<Duration> get(String mode, String operation) {
+        return samples.getOrDefault(operation, Map.of()).getOrDefault(mode, List.of());
+    }
+
+    List<String> toTable() {
+        List<String> lines = new ArrayList<>();
+        lines.add(
+                String.format(
+                        Locale.ROOT,
+                        "%-28s %-12s %6s %9s %9s %9s %9s %9s",
+                        "operation",
+                        "mode",
+                        "count",
+                        "min ms",
+                        "p50 ms",
+                        "p90 ms",
+                        "p99 ms",
+                        "max ms"));
+        rows().forEach(r -> lines.add(r.format("%-28s %-12s %6d %9.1f %9.1f %9.1f %9.1f %9.1f")));
+        return lines;
+    }
+
+    List<String> toCsv() {
+        List<String> lines = new ArrayList<>();
+        lines.add("operation,mode,count,min_ms,p50_ms,p90_ms,p99_ms,max_ms");
+        rows().forEach(r -> lines.add(r.format("%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f")));
+        return lines;
+    }
+
+    /**
+     * Median latency of each mode next to the one of a reference mode, per operation measured in
+     * both.
+     */
+    List<String> toComparison(String reference) {
+        List<String> lines = new ArrayList<>();
+        lines.add(
+                String.format(
+                        Locale.ROOT,
+                        "%-28s %-12s %9s %9s %9s",
+                        "operation",
+                        "mode",
+                        "p50 ms",
+                        reference + " ms",
+                        "change"));
+        samples.forEach(
+                (operation, modes) -> {
+                    List<Duration> referenceLatencies = modes.get(reference);
+                    if (referenceLatencies == null) {
+                        return;
+                    }
+                    double referenceMedian = median(referenceLatencies);
+                    modes.forEach(
+                            (mode, latencies) -> {
+                                if (mode.equals(reference)) {
+                                    return;
+                                }
+                                double median = median(latencies);
+                                lines.add(
+                                        String.format(
+                                                Locale.ROOT,
+                                                "%-28s %-12s %9.1f %9.1f %+8.1f%%",
+                                                operation,
+                                                mode,
+                                                median,
+                                                referenceMedian,
+                                                (median / referenceMedian - 1) * 100));
+                            });
+                });
+        return lines;
+    }
+
+    private static double median(List<Duration> latencies) {
+        return millis(percentile(latencies.stream().sorted().toList(), 50));
+    }
+
+    private List<Row> rows() {
+        List<Row> rows = new ArrayList<>();
+        samples.forEach(
+                (operation, modes) ->
+                        modes.forEach(
+                                (mode, latencies) ->
+                                        rows.add(
+                                                new Row(
+                                                        operation,
+                                                        mode,
+                                                        latencies.stream().sorted().toList()))));
+        return rows;
+    }
+
+    /** Nearest-rank percentile of sorted latencies. */
+    static Duration percentile(List<Duration> sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1);
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    private static final class Row {
+        private final String operation;
+        private final String mode;
+        private final List<Duration> sorted;
+
+        private Row(String operation, String mode, List<Duration> sorted) {
+            this.operation = operation;
+            this.mode = mode;
+            this.sorted = sorted;
+        }
+
+        private String format(String format) {
+            return String.format(
+                    Locale.ROOT,
+                    format,
+                    operation,
+                    mode,
+                    sorted.size(),
+                    millis(sorted.get(0)),
+                    millis(percentile(sorted, 50)),
+                    millis(percentile(sorted, 90)),
+                    millis(percentile(sorted, 99)),
+                    millis(sorted.get(sorted.size() - 1)));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.util.concurrent.TimeUnit;
+import org.codehaus.plexus.configuration.DefaultPlexusConfiguration;
+import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversion of mojo default configurations, done each time a {@code <mojo>} definition runs, and
+ * access to the converted configuration of the definition, which is cached and only copied where
+ * the defaults are merged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToXpp3DomBenchmark {
+
+    /** Number of parameters of the mojo; each has a nested list of 3 values. */
+    @Param({"10", "100", "1000"})
+    public int parameters;
+
+    private PlexusConfiguration configuration;
+    private MojoConfig mojoConfig;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        configuration = new DefaultPlexusConfiguration("configuration");
+        for (int i = 0; i < parameters; i++) {
+            PlexusConfiguration parameter =
+                    configuration.addChild("parameter" + i, "${parameter" + i + "}");
+            parameter.setAttribute("implementation", "java.util.List");
+            parameter.setAttribute("default-value", "value" + i);
+            for (int v = 0; v < 3; v++) {
+                parameter.addChild("value", "item" + v);
+            }
+        }
+        mojoConfig = new MojoConfig().setConfiguration(configuration);
+    }
+
+    @Benchmark
+    public Xpp3Dom toXpp3Dom() {
+        return HookRunner.toXpp3Dom(configuration);
+    }
+
+    /** Each read of the definition configuration, by {@code runMojo} or the verification key. */
+    @Benchmark
+    public Xpp3Dom cachedDom() {
+        return mojoConfig.getConfigurationDom();
+    }
+
+    /** What each read cost when it returned a copy, now only paid once per mojo execution. */
+    @Benchmark
+    public Xpp3Dom copiedDom() {
+        return new Xpp3Dom(mojoConfig.getConfigurationDom());
+    }
+}
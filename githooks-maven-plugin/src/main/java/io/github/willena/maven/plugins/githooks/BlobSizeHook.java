@@ -0,0 +1,187 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.ObjectWalk;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+
+/**
+ * Rejects reference updates introducing blobs larger than a limit, for {@code pre-push}, {@code
+ * pre-receive} and {@code update}. Only the objects the update adds are walked: the walk stops at
+ * the previous value of each reference and at the commits already known to the other side.
+ * Sizes are read from the object headers, blobs are never inflated.
+ *
+ * <p>Use it with {@code <className>blobSize</className>} and an optional {@code
+ * --max-size=<size>} argument, where the size accepts the {@code k}, {@code m} and {@code g}
+ * suffixes. The limit defaults to 5m.
+ */
+@Named("blobSize")
+@Singleton
+public class BlobSizeHook implements RunnableGitHook {
+    static final String MAX_SIZE_ARG = "--max-size=";
+    static final long DEFAULT_MAX_SIZE = 5L * 1024 * 1024;
+
+    @Override
+    public void run(HookContext context, String[] args) throws Exception {
+        long maxSize = maxSize(args);
+        List<RefUpdate> updates = new ArrayList<>();
+        for (RefUpdate update : context.getRefUpdates()) {
+            if (!update.isDelete()) {
+                updates.add(update);
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        List<String> offenders;
+        try (Repository repository = GitUtils.openHookRepository(projectPath(context))) {
+            offenders = findLargeBlobs(repository, updates, maxSize);
+        }
+        if (!offenders.isEmpty()) {
+            offenders.forEach(context.getLogger()::error);
+            throw new IllegalStateException(
+                    offenders.size() + " file(s) exceed the maximum size of " + maxSize + " bytes");
+        }
+    }
+
+    /**
+     * @return {@code <path> (<abbreviated id>): <size> bytes} for each blob over the limit
+     */
+    static List<String> findLargeBlobs(Repository repository, List<RefUpdate> updates, long maxSize)
+            throws IOException {
+        List<String> offenders = new ArrayList<>();
+        try (ObjectReader reader = repository.newObjectReader();
+                ObjectWalk walk = new ObjectWalk(reader)) {
+            boolean started = false;
+            boolean bounded = true;
+            for (RefUpdate update : updates) {
+                RevObject tip = parse(walk, update.getNewId());
+                if (tip == null) {
+                    continue;
+                }
+                walk.markStart(tip);
+                started = true;
+                RevObject old = update.isCreate() ? null : parse(walk, update.getOldId());
+                if (old != null) {
+                    walk.markUninteresting(old);
+                } else {
+                    bounded = false;
+                }
+            }
+            if (!started) {
+                return offenders;
+            }
+            if (!bounded) {
+                for (ObjectId id : GitCommitWalker.existingTips(repository, updates)) {
+                    RevCommit known = GitCommitWalker.peelCommit(walk, id);
+                    if (known != null) {
+                        walk.markUninteresting(known);
+                    }
+                }
+            }
+
+            while (walk.next() != null) {
+                // Commits are only walked to reach their trees
+            }
+            RevObject object;
+            while ((object = walk.nextObject()) != null) {
+                if (object.getType() != Constants.OBJ_BLOB) {
+                    continue;
+                }
+                long size = reader.getObjectSize(object, Constants.OBJ_BLOB);
+                if (size > maxSize) {
+                    offenders.add(
+                            walk.getPathString()
+                                    + " ("
+                                    + object.abbreviate(7).name()
+                                    + "): "
+                                    + size
+                                    + " bytes");
+                }
+            }
+        }
+        return offenders;
+    }
+
+    private static RevObject parse(ObjectWalk walk, String id) throws IOException {
+        try {
+            return walk.parseAny(ObjectId.fromString(id));
+        } catch (MissingObjectException e) {
+            return null;
+        }
+    }
+
+    private static Path projectPath(HookContext context) {
+        return Optional.ofNullable(context.getProject())
+                .map(MavenProject::getBasedir)
+                .map(File::toPath)
+                .orElse(null);
+    }
+
+    static long maxSize(String[] args) {
+        long maxSize = DEFAULT_MAX_SIZE;
+        if (args != null) {
+            for (String arg : args) {
+                if (arg.startsWith(MAX_SIZE_ARG)) {
+                    maxSize = parseSize(arg.substring(MAX_SIZE_ARG.length()));
+                }
+            }
+        }
+        return maxSize;
+    }
+
+    static long parseSize(String value) {
+        String size = value.trim().toLowerCase(Locale.ROOT);
+        long unit = 1;
+        if (size.endsWith("k")) {
+            unit = 1024;
+        } else if (size.endsWith("m")) {
+            unit = 1024 * 1024;
+        } else if (size.endsWith("g")) {
+            unit = 1024 * 1024 * 1024;
+        }
+        if (unit != 1) {
+            size = size.substring(0, size.length() - 1);
+        }
+        try {
+            long parsed = Long.parseLong(size);
+            if (parsed < 0) {
+                throw new NumberFormatException();
+            }
+            return Math.multiplyExact(parsed, unit);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid size: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the files appended to a command into batches whose command line fits the limit of the
+ * operating system, the same way {@code xargs} does.
+ */
+public final class CommandBatches {
+    /** Conservative {@code ARG_MAX}, the actual value on Linux and macOS is larger. */
+    static final long POSIX_ARG_MAX = 128 * 1024;
+
+    /** Length limit of a whole command line on Windows, in characters. */
+    static final long WINDOWS_ARG_MAX = 32 * 1024 - 1;
+
+    /** Bytes used by the pointer to each argument and environment entry. */
+    private static final int POINTER_SIZE = 8;
+
+    private CommandBatches() {}
+
+    /**
+     * @param files the changed files, relative to the work tree
+     * @param globs glob patterns, as understood by {@link java.nio.file.FileSystem#getPathMatcher}
+     * @return the files matching at least one of the globs, in their original order
+     * @throws IllegalArgumentException if a glob is invalid
+     */
+    public static List<String> matching(Collection<String> files, List<String> globs) {
+        List<PathMatcher> matchers = new ArrayList<>(globs.size());
+        for (String glob : globs) {
+            matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+        }
+        return files.stream()
+                .filter(f -> matchers.stream().anyMatch(m -> m.matches(Path.of(f))))
+                .toList();
+    }
+
+    /**
+     * Splits files into consecutive batches. A file too long to fit any batch gets its own.
+     *
+     * @param files the files to append to the command
+     * @param fixedSize size already used by the command, its other arguments and the environment
+     * @param limit the maximum size of the command line, see {@link #argMax()}
+     * @return the batches, none of them empty
+     */
+    public static List<List<String>> split(List<String> files, long fixedSize, long limit) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+        long size = fixedSize;
+        for (String file : files) {
+            long fileSize = size(file);
+            if (!batch.isEmpty() && size + fileSize > limit) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                size = fixedSize;
+            }
+            batch.add(file);
+            size += fileSize;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * @return the size taken by the arguments and the environment of a new process
+     */
+    public static long size(Collection<String> args, Map<String, String> environment) {
+        long size = 0;
+        for (String arg : args) {
+            size += size(arg);
+        }
+        for (Map.Entry<String, String> variable : environment.entrySet()) {
+            size += size(variable.getKey() + "=" + variable.getValue());
+        }
+        return size;
+    }
+
+    /**
+     * @return the command line limit of the current operating system
+     */
+    public static long argMax() {
+        return System.getProperty("os.name", "").startsWith("Windows")
+                ? WINDOWS_ARG_MAX
+                : POSIX_ARG_MAX;
+    }
+
+    private static long size(String arg) {
+        // Terminated by a NUL byte, and referenced by argv or envp
+        return arg.getBytes(UTF_8).length + 1 + POINTER_SIZE;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Rules the message of a commit must follow, checked by the {@code commit-msg} script itself
+ * without starting Maven. Patterns are POSIX extended regular expressions, as understood by {@code
+ * awk}; comment lines and the part below the scissors line of {@code git commit -v} are ignored.
+ */
+public class CommitMessageConfig {
+    @Parameter(name = "subjectPattern")
+    private String subjectPattern;
+
+    @Parameter(name = "ignorePattern")
+    private String ignorePattern;
+
+    @Parameter(name = "maxSubjectLength")
+    private Integer maxSubjectLength;
+
+    @Parameter(name = "maxLineLength")
+    private Integer maxLineLength;
+
+    @Parameter(name = "requiredTrailers")
+    private List<String> requiredTrailers;
+
+    /**
+     * @return pattern the first non-empty line of the message must match, or {@code null}
+     */
+    public String getSubjectPattern() {
+        return subjectPattern;
+    }
+
+    public CommitMessageConfig setSubjectPattern(String subjectPattern) {
+        this.subjectPattern = subjectPattern;
+        return this;
+    }
+
+    /**
+     * @return pattern of the subjects whose message is not checked, such as merges, or {@code
+     *     null}
+     */
+    public String getIgnorePattern() {
+        return ignorePattern;
+    }
+
+    public CommitMessageConfig setIgnorePattern(String ignorePattern) {
+        this.ignorePattern = ignorePattern;
+        return this;
+    }
+
+    public Integer getMaxSubjectLength() {
+        return maxSubjectLength;
+    }
+
+    public CommitMessageConfig setMaxSubjectLength(Integer maxSubjectLength) {
+        this.maxSubjectLength = maxSubjectLength;
+        return this;
+    }
+
+    /**
+     * @return maximum length of the lines following the subject, or {@code null}
+     */
+    public Integer getMaxLineLength() {
+        return maxLineLength;
+    }
+
+    public CommitMessageConfig setMaxLineLength(Integer maxLineLength) {
+        this.maxLineLength = maxLineLength;
+        return this;
+    }
+
+    /**
+     * @return tokens of the trailers every message must have, such as {@code Signed-off-by}
+     */
+    public List<String> getRequiredTrailers() {
+        return requiredTrailers;
+    }
+
+    public CommitMessageConfig setRequiredTrailers(List<String> requiredTrailers) {
+        this.requiredTrailers = requiredTrailers;
+        return this;
+    }
+
+    /**
+     * Checks the rules can be compiled into the script, so that errors are reported at install
+     * time.
+     *
+     * @throws IllegalArgumentException if a rule is invalid
+     */
+    public void validate() {
+        pattern("subject", subjectPattern);
+        pattern("ignore", ignorePattern);
+        length("maxSubjectLength", maxSubjectLength);
+        length("maxLineLength", maxLineLength);
+        for (String trailer : Objects.requireNonNullElse(requiredTrailers, List.<String>of())) {
+            if (trailer == null || !trailer.matches("[A-Za-z0-9-]+")) {
+                throw new IllegalArgumentException("Invalid trailer token '" + trailer + "'");
+            }
+        }
+    }
+
+    /**
+     * Java and POSIX regular expressions share their basic syntax; the Java only constructs awk
+     * does not understand are rejected.
+     */
+    private static void pattern(String rule, String regex) {
+        if (regex == null) {
+            return;
+        }
+        try {
+            Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid " + rule + " pattern '" + regex + "'", e);
+        }
+        if (regex.contains("(?")
+                || regex.matches(".*[*+?}][?+].*")
+                || regex.matches(".*\\\\[A-Za-z].*")) {
+            throw new IllegalArgumentException(
+                    "The "
+                            + rule
+                            + " pattern '"
+                            + regex
+                            + "' is not a POSIX extended regular expression;"
+                            + " use classes such as [[:digit:]] instead of escapes");
+        }
+    }
+
+    private static void length(String rule, Integer value) {
+        if (value != null && value < 1) {
+            throw new IllegalArgumentException(rule + " must be positive, got " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CommitMessageConfig{"
+                + "subjectPattern='"
+                + subjectPattern
+                + '\''
+                + ", ignorePattern='"
+                + ignorePattern
+                + '\''
+                + ", maxSubjectLength="
+                + maxSubjectLength
+                + ", maxLineLength="
+                + maxLineLength
+                + ", requiredTrailers="
+                + requiredTrailers
+                + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        CommitMessageConfig that = (CommitMessageConfig) o;
+        return Objects.equals(subjectPattern, that.subjectPattern)
+                && Objects.equals(ignorePattern, that.ignorePattern)
+                && Objects.equals(maxSubjectLength, that.maxSubjectLength)
+                && Objects.equals(maxLineLength, that.maxLineLength)
+                && Objects.equals(requiredTrailers, that.requiredTrailers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                subjectPattern, ignorePattern, maxSubjectLength, maxLineLength, requiredTrailers);
+    }
+}
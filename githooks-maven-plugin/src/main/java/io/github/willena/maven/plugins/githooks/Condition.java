@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+/**
+ * A compiled predicate deciding whether a hook definition should run.
+ *
+ * <p>Each condition declares a relative cost so that composite conditions can evaluate the cheap
+ * ones first and stop as soon as the result is known. See {@link Conditions} for the available
+ * implementations.
+ */
+public interface Condition {
+    /** Cost of a condition that does not look at its context. */
+    int COST_CONSTANT = 0;
+
+    /** Cost of a condition reading environment variables. */
+    int COST_ENVIRONMENT = 1;
+
+    /** Cost of a condition reading git references. */
+    int COST_REFS = 10;
+
+    /** Cost of a condition parsing the HEAD commit. */
+    int COST_COMMIT = 20;
+
+    /** Cost of a condition walking the history to compare a branch with its upstream. */
+    int COST_TRACKING = 50;
+
+    /** Cost of a condition diffing the index with HEAD. */
+    int COST_DIFF = 100;
+
+    /**
+     * @param context facts about the current repository, computed on demand
+     * @return true if the condition holds
+     */
+    boolean test(ConditionContext context);
+
+    /**
+     * @return the relative cost of evaluating this condition on a fresh context
+     */
+    int cost();
+}
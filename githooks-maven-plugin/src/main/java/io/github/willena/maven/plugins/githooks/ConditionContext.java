@@ -0,0 +1,29 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+/**
+ * Facts a {@link Condition} can be evaluated against. Implementations compute each fact on first
+ * access only, so that unused facts cost nothing.
+ */
+public interface ConditionContext extends GitFacts {
+    /**
+     * @param name environment variable name
+     * @return the value of the variable or {@code null} when it is not defined
+     */
+    String getEnv(String name);
+}
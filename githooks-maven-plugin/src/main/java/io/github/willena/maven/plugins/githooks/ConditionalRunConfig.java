@@ -16,36 +16,354 @@
 
 package io.github.willena.maven.plugins.githooks;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import org.apache.maven.plugins.annotations.Parameter;
 
+/**
+ * Conditions of a hook definition. All the configured criteria must hold for the condition to be
+ * true. The configuration is compiled once into a {@link Condition} evaluating the cheapest
+ * criteria first.
+ */
 public class ConditionalRunConfig {
     @Parameter(name = "ref")
     private String ref;
 
+    @Parameter(name = "branch")
+    private String branch;
+
+    @Parameter(name = "env")
+    private Map<String, String> env;
+
+    @Parameter(name = "files")
+    private List<String> files;
+
+    @Parameter(name = "commitMessage")
+    private String commitMessage;
+
+    @Parameter(name = "author")
+    private String author;
+
+    @Parameter(name = "minAhead")
+    private Integer minAhead;
+
+    @Parameter(name = "minBehind")
+    private Integer minBehind;
+
+    @Parameter(name = "allOf")
+    private List<ConditionalRunConfig> allOf;
+
+    @Parameter(name = "anyOf")
+    private List<ConditionalRunConfig> anyOf;
+
+    @Parameter(name = "not")
+    private ConditionalRunConfig not;
+
+    /** Compiled form of {@link #ref}, computed once. */
+    private Pattern refPattern;
+
+    /** Compiled form of the whole configuration, computed once. */
+    private Condition condition;
+
     public String getRef() {
         return ref;
     }
 
     public ConditionalRunConfig setRef(String ref) {
         this.ref = ref;
+        this.refPattern = null;
+        this.condition = null;
+        return this;
+    }
+
+    public String getBranch() {
+        return branch;
+    }
+
+    public ConditionalRunConfig setBranch(String branch) {
+        this.branch = branch;
+        this.condition = null;
         return this;
     }
 
+    public Map<String, String> getEnv() {
+        return env;
+    }
+
+    public ConditionalRunConfig setEnv(Map<String, String> env) {
+        this.env = env;
+        this.condition = null;
+        return this;
+    }
+
+    public List<String> getFiles() {
+        return files;
+    }
+
+    public ConditionalRunConfig setFiles(List<String> files) {
+        this.files = files;
+        this.condition = null;
+        return this;
+    }
+
+    public String getCommitMessage() {
+        return commitMessage;
+    }
+
+    public ConditionalRunConfig setCommitMessage(String commitMessage) {
+        this.commitMessage = commitMessage;
+        this.condition = null;
+        return this;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public ConditionalRunConfig setAuthor(String author) {
+        this.author = author;
+        this.condition = null;
+        return this;
+    }
+
+    public Integer getMinAhead() {
+        return minAhead;
+    }
+
+    public ConditionalRunConfig setMinAhead(Integer minAhead) {
+        this.minAhead = minAhead;
+        this.condition = null;
+        return this;
+    }
+
+    public Integer getMinBehind() {
+        return minBehind;
+    }
+
+    public ConditionalRunConfig setMinBehind(Integer minBehind) {
+        this.minBehind = minBehind;
+        this.condition = null;
+        return this;
+    }
+
+    public List<ConditionalRunConfig> getAllOf() {
+        return allOf;
+    }
+
+    public ConditionalRunConfig setAllOf(List<ConditionalRunConfig> allOf) {
+        this.allOf = allOf;
+        this.condition = null;
+        return this;
+    }
+
+    public List<ConditionalRunConfig> getAnyOf() {
+        return anyOf;
+    }
+
+    public ConditionalRunConfig setAnyOf(List<ConditionalRunConfig> anyOf) {
+        this.anyOf = anyOf;
+        this.condition = null;
+        return this;
+    }
+
+    public ConditionalRunConfig getNot() {
+        return not;
+    }
+
+    public ConditionalRunConfig setNot(ConditionalRunConfig not) {
+        this.not = not;
+        this.condition = null;
+        return this;
+    }
+
+    /**
+     * Gets the compiled ref pattern. The pattern is compiled on first access and reused afterward.
+     *
+     * @return the compiled pattern or {@code null} if no ref is configured
+     * @throws PatternSyntaxException if the ref is not a valid regular expression
+     */
+    public Pattern getRefPattern() {
+        if (ref == null) {
+            return null;
+        }
+        Pattern pattern = refPattern;
+        if (pattern == null) {
+            pattern = Pattern.compile(ref);
+            refPattern = pattern;
+        }
+        return pattern;
+    }
+
+    /**
+     * @return true if no criterion is configured
+     */
+    public boolean isEmpty() {
+        return ref == null
+                && branch == null
+                && (env == null || env.isEmpty())
+                && (files == null || files.isEmpty())
+                && commitMessage == null
+                && author == null
+                && minAhead == null
+                && minBehind == null
+                && (allOf == null || allOf.isEmpty())
+                && (anyOf == null || anyOf.isEmpty())
+                && not == null;
+    }
+
+    /**
+     * Gets the compiled condition. It is compiled on first access and reused afterward.
+     *
+     * @return the condition; {@link Conditions#ALWAYS} if no criterion is configured
+     * @throws IllegalArgumentException if a criterion is invalid
+     */
+    public Condition getCondition() {
+        Condition compiled = condition;
+        if (compiled == null) {
+            compiled = compile();
+            condition = compiled;
+        }
+        return compiled;
+    }
+
+    private Condition compile() {
+        List<Condition> criteria = new ArrayList<>();
+        if (ref != null) {
+            try {
+                // Shares the compiled pattern with getRefPattern()
+                criteria.add(Conditions.ref(getRefPattern()));
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid ref pattern '" + ref + "'", e);
+            }
+        }
+        if (branch != null) {
+            criteria.add(Conditions.branch(pattern("branch", branch)));
+        }
+        if (env != null) {
+            env.forEach(
+                    (name, value) ->
+                            criteria.add(
+                                    Conditions.env(
+                                            name,
+                                            value == null || value.isEmpty()
+                                                    ? null
+                                                    : pattern("env." + name, value))));
+        }
+        if (commitMessage != null) {
+            criteria.add(Conditions.commitMessage(pattern("commitMessage", commitMessage)));
+        }
+        if (author != null) {
+            criteria.add(Conditions.author(pattern("author", author)));
+        }
+        if (minAhead != null) {
+            criteria.add(Conditions.minAhead(count("minAhead", minAhead)));
+        }
+        if (minBehind != null) {
+            criteria.add(Conditions.minBehind(count("minBehind", minBehind)));
+        }
+        if (files != null && !files.isEmpty()) {
+            try {
+                criteria.add(Conditions.files(files));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid files glob " + files, e);
+            }
+        }
+        if (allOf != null && !allOf.isEmpty()) {
+            criteria.add(
+                    Conditions.allOf(allOf.stream().map(ConditionalRunConfig::getCondition).toList()));
+        }
+        if (anyOf != null && !anyOf.isEmpty()) {
+            criteria.add(
+                    Conditions.anyOf(anyOf.stream().map(ConditionalRunConfig::getCondition).toList()));
+        }
+        if (not != null) {
+            criteria.add(Conditions.not(not.getCondition()));
+        }
+        return criteria.isEmpty() ? Conditions.ALWAYS : Conditions.allOf(criteria);
+    }
+
+    private static Pattern pattern(String criterion, String regex) {
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException(
+                    "Invalid " + criterion + " pattern '" + regex + "'", e);
+        }
+    }
+
+    private static int count(String criterion, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException(criterion + " must not be negative, got " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Compiles the configured criteria so that errors are reported before any hook runs.
+     *
+     * @throws IllegalArgumentException if a criterion is invalid
+     */
+    public void validate() {
+        getCondition();
+    }
+
     @Override
     public String toString() {
-        return "ConditionalRun{" + "ref='" + ref + '\'' + '}';
+        return "ConditionalRun{"
+                + "ref='"
+                + ref
+                + '\''
+                + ", branch='"
+                + branch
+                + '\''
+                + ", env="
+                + env
+                + ", files="
+                + files
+                + ", commitMessage='"
+                + commitMessage
+                + '\''
+                + ", author='"
+                + author
+                + '\''
+                + ", minAhead="
+                + minAhead
+                + ", minBehind="
+                + minBehind
+                + ", allOf="
+                + allOf
+                + ", anyOf="
+                + anyOf
+                + ", not="
+                + not
+                + '}';
     }
 
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         ConditionalRunConfig that = (ConditionalRunConfig) o;
-        return Objects.equals(ref, that.ref);
+        return Objects.equals(ref, that.ref)
+                && Objects.equals(branch, that.branch)
+                && Objects.equals(env, that.env)
+                && Objects.equals(files, that.files)
+                && Objects.equals(commitMessage, that.commitMessage)
+                && Objects.equals(author, that.author)
+                && Objects.equals(minAhead, that.minAhead)
+                && Objects.equals(minBehind, that.minBehind)
+                && Objects.equals(allOf, that.allOf)
+                && Objects.equals(anyOf, that.anyOf)
+                && Objects.equals(not, that.not);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(ref);
+        return Objects.hash(
+                ref, branch, env, files, commitMessage, author, minAhead, minBehind, allOf, anyOf,
+                not);
     }
 }
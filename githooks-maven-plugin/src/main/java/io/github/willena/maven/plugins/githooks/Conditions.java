@@ -0,0 +1,237 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/** Factories for the {@link Condition} implementations. */
+public final class Conditions {
+    public static final Condition ALWAYS = constant(true);
+    public static final Condition NEVER = constant(false);
+
+    private Conditions() {}
+
+    public static Condition of(int cost, String description, Predicate<ConditionContext> test) {
+        return new Leaf(cost, description, test);
+    }
+
+    /**
+     * @return a condition true if at least one HEAD reference matches the pattern
+     */
+    public static Condition ref(Pattern pattern) {
+        return of(
+                Condition.COST_REFS,
+                "ref~" + pattern,
+                c -> c.getHeadRefNames().stream().anyMatch(r -> pattern.matcher(r).find()));
+    }
+
+    /**
+     * @return a condition true if the checked out branch matches the pattern
+     */
+    public static Condition branch(Pattern pattern) {
+        return of(Condition.COST_REFS, "branch~" + pattern, c -> find(pattern, c.getBranch()));
+    }
+
+    /**
+     * @param pattern pattern the value must match, {@code null} to only require the variable
+     * @return a condition true if the environment variable is defined and matches the pattern
+     */
+    public static Condition env(String name, Pattern pattern) {
+        return of(
+                Condition.COST_ENVIRONMENT,
+                "env." + name + "~" + pattern,
+                c -> {
+                    String value = c.getEnv(name);
+                    return value != null && (pattern == null || pattern.matcher(value).find());
+                });
+    }
+
+    /**
+     * @param pattern pattern of the message
+     * @return a condition matching the message being written in {@code commit-msg} and {@code
+     *     prepare-commit-msg}, and the HEAD commit message in other hooks
+     */
+    public static Condition commitMessage(Pattern pattern) {
+        return of(
+                Condition.COST_COMMIT,
+                "commitMessage~" + pattern,
+                c -> {
+                    String message = c.getCommitMessage();
+                    return find(pattern, message != null ? message : c.getHeadCommitMessage());
+                });
+    }
+
+    public static Condition author(Pattern pattern) {
+        return of(Condition.COST_COMMIT, "author~" + pattern, c -> find(pattern, c.getHeadAuthor()));
+    }
+
+    public static Condition minAhead(int count) {
+        return of(Condition.COST_TRACKING, "ahead>=" + count, c -> c.getAheadCount() >= count);
+    }
+
+    public static Condition minBehind(int count) {
+        return of(Condition.COST_TRACKING, "behind>=" + count, c -> c.getBehindCount() >= count);
+    }
+
+    /**
+     * @param globs glob patterns, as understood by {@link java.nio.file.FileSystem#getPathMatcher}
+     * @return a condition true if at least one changed file matches one of the globs
+     * @throws IllegalArgumentException if a glob is invalid
+     */
+    public static Condition files(List<String> globs) {
+        List<PathMatcher> matchers = new ArrayList<>(globs.size());
+        for (String glob : globs) {
+            matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+        }
+        return of(
+                Condition.COST_DIFF,
+                "files~" + globs,
+                c ->
+                        c.getChangedFiles().stream()
+                                .map(Path::of)
+                                .anyMatch(p -> matchers.stream().anyMatch(m -> m.matches(p))));
+    }
+
+    /**
+     * @return a condition true if all the conditions are true; true when there is none
+     */
+    public static Condition allOf(List<Condition> conditions) {
+        if (conditions.size() == 1) {
+            return conditions.get(0);
+        }
+        return new Composite(true, conditions);
+    }
+
+    /**
+     * @return a condition true if at least one of the conditions is true; false when there is none
+     */
+    public static Condition anyOf(List<Condition> conditions) {
+        if (conditions.size() == 1) {
+            return conditions.get(0);
+        }
+        return new Composite(false, conditions);
+    }
+
+    public static Condition not(Condition condition) {
+        if (condition == ALWAYS) {
+            return NEVER;
+        }
+        if (condition == NEVER) {
+            return ALWAYS;
+        }
+        return new Not(condition);
+    }
+
+    private static Condition constant(boolean value) {
+        return new Leaf(Condition.COST_CONSTANT, String.valueOf(value), c -> value);
+    }
+
+    private static boolean find(Pattern pattern, String value) {
+        return value != null && pattern.matcher(value).find();
+    }
+
+    private static final class Leaf implements Condition {
+        private final int cost;
+        private final String description;
+        private final Predicate<ConditionContext> test;
+
+        private Leaf(int cost, String description, Predicate<ConditionContext> test) {
+            this.cost = cost;
+            this.description = description;
+            this.test = test;
+        }
+
+        @Override
+        public boolean test(ConditionContext context) {
+            return test.test(context);
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    /** Conjunction or disjunction of conditions, evaluated cheapest first. */
+    private static final class Composite implements Condition {
+        private final boolean all;
+        private final List<Condition> conditions;
+        private final int cost;
+
+        private Composite(boolean all, List<Condition> conditions) {
+            this.all = all;
+            this.conditions =
+                    conditions.stream().sorted(Comparator.comparingInt(Condition::cost)).toList();
+            this.cost = this.conditions.stream().mapToInt(Condition::cost).max().orElse(0);
+        }
+
+        @Override
+        public boolean test(ConditionContext context) {
+            for (Condition condition : conditions) {
+                if (condition.test(context) != all) {
+                    return !all;
+                }
+            }
+            return all;
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return (all ? "allOf" : "anyOf") + conditions;
+        }
+    }
+
+    private static final class Not implements Condition {
+        private final Condition condition;
+
+        private Not(Condition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public boolean test(ConditionContext context) {
+            return !condition.test(context);
+        }
+
+        @Override
+        public int cost() {
+            return condition.cost();
+        }
+
+        @Override
+        public String toString() {
+            return "not(" + condition + ")";
+        }
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Filesystem watcher backing the {@code fsmonitor-watchman} hook. Changes of the work tree are
+ * appended to a journal, as NUL terminated paths relative to the work tree, which the hook script
+ * reads to answer git without starting a JVM.
+ *
+ * <p>The state directory holds:
+ *
+ * <ul>
+ *   <li>{@code generation}: identifier of the current journal. Tokens given to git are {@code
+ *       <generation>:<journal size>}; a token of another generation makes git rescan everything.
+ *   <li>{@code journal-<generation>}: the changed paths.
+ *   <li>{@code pid}: the process id of the daemon, written as soon as it holds the lock.
+ *   <li>{@code heartbeat}: touched by the daemon every {@link #HEARTBEAT_INTERVAL}; with the pid,
+ *       tells the hook whether to start a daemon, as a pid alone may be reused.
+ *   <li>{@code starting}: touched by the hook when it starts a daemon, so that the git commands
+ *       running before the daemon holds the lock do not start others.
+ *   <li>{@code cookies}: files created by the hook and removed by the daemon once the changes
+ *       notified before them are journaled, so that the hook never answers from a journal missing
+ *       a change made before the git command.
+ *   <li>{@code lock}: held while a daemon runs, so that only one watches a work tree.
+ * </ul>
+ *
+ * A new generation starts when the journal grows over its maximum size or when events are lost.
+ */
+public class FsMonitorDaemon implements Closeable {
+    static final String GENERATION_FILE = "generation";
+    static final String JOURNAL_PREFIX = "journal-";
+    static final String PID_FILE = "pid";
+    static final String LOCK_FILE = "lock";
+    static final String HEARTBEAT_FILE = "heartbeat";
+    static final String STARTING_FILE = "starting";
+    static final String COOKIES_DIR = "cookies";
+    static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(10);
+
+    private final Path worktree;
+    private final Path stateDir;
+    private final long maxJournalBytes;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final Path cookies;
+    private WatchService watcher;
+    private String generation;
+    private Path journal;
+    private FileChannel journalChannel;
+    private long journalSize;
+    private int rotations;
+    private long lastBeat;
+
+    private FsMonitorDaemon(
+            Path worktree,
+            Path stateDir,
+            long maxJournalBytes,
+            FileChannel lockChannel,
+            FileLock lock) {
+        this.worktree = worktree;
+        this.stateDir = stateDir;
+        this.maxJournalBytes = maxJournalBytes;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.cookies = stateDir.resolve(COOKIES_DIR);
+    }
+
+    /**
+     * @param gitDir the git directory of the work tree
+     * @return the directory holding the daemon state
+     */
+    public static Path stateDir(Path gitDir) {
+        return gitDir.resolve("githooks").resolve("fsmonitor");
+    }
+
+    /**
+     * Registers the watches on the whole work tree, then publishes a first generation.
+     *
+     * @param worktree the work tree to watch
+     * @param stateDir the state directory
+     * @param maxJournalBytes size of the journal above which a new generation starts
+     * @return the daemon, or {@code null} if another daemon already watches the work tree
+     * @throws IOException if the watches or the state cannot be set up
+     */
+    public static FsMonitorDaemon start(Path worktree, Path stateDir, long maxJournalBytes)
+            throws IOException {
+        Files.createDirectories(stateDir);
+        FileChannel lockChannel =
+                FileChannel.open(
+                        stateDir.resolve(LOCK_FILE),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            return null;
+        }
+
+        FsMonitorDaemon daemon =
+                new FsMonitorDaemon(worktree, stateDir, maxJournalBytes, lockChannel, lock);
+        try {
+            // Published first: the hook waits for the generation instead of starting daemons
+            Files.deleteIfExists(stateDir.resolve(GENERATION_FILE));
+            Files.writeString(
+                    stateDir.resolve(PID_FILE), Long.toString(ProcessHandle.current().pid()));
+            daemon.beat();
+            Files.deleteIfExists(stateDir.resolve(STARTING_FILE));
+
+            daemon.watcher = worktree.getFileSystem().newWatchService();
+            Files.createDirectories(daemon.cookies);
+            try (Stream<Path> leftovers = Files.list(daemon.cookies)) {
+                for (Path cookie : (Iterable<Path>) leftovers::iterator) {
+                    Files.deleteIfExists(cookie);
+                }
+            }
+            daemon.directories.put(
+                    daemon.cookies.register(daemon.watcher, ENTRY_CREATE), daemon.cookies);
+            daemon.register(worktree, null);
+            daemon.newGeneration();
+        } catch (IOException e) {
+            daemon.close();
+            throw e;
+        }
+        return daemon;
+    }
+
+    public String getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Journals the changes until the daemon is closed.
+     *
+     * @throws IOException if the journal cannot be written
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public void run() throws IOException, InterruptedException {
+        try {
+            while (true) {
+                WatchKey key = watcher.poll(HEARTBEAT_INTERVAL.toMillis(), MILLISECONDS);
+                if (System.nanoTime() - lastBeat >= HEARTBEAT_INTERVAL.toNanos()) {
+                    beat();
+                }
+                Set<String> changed = new LinkedHashSet<>();
+                Set<Path> synced = new LinkedHashSet<>();
+                boolean overflow = false;
+                // Drain the pending events so that a burst of changes is written at once. Events
+                // are queued in the order they happened, so the changes made before a cookie are
+                // drained with it at the latest
+                while (key != null) {
+                    overflow |= process(key, changed, synced);
+                    key = watcher.poll();
+                }
+                if (overflow) {
+                    newGeneration();
+                } else {
+                    append(changed);
+                }
+                for (Path cookie : synced) {
+                    Files.deleteIfExists(cookie);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private boolean process(WatchKey key, Set<String> changed, Set<Path> synced)
+            throws IOException {
+        boolean overflow = false;
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            Path child = directory.resolve((Path) event.context());
+            if (directory.equals(cookies)) {
+                synced.add(child);
+                continue;
+            }
+            if (isGitDir(child)) {
+                continue;
+            }
+            changed.add(relative(child));
+            if (event.kind() == ENTRY_CREATE
+                    && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                // Files may have been created before the directory is watched
+                register(child, changed);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+        return overflow;
+    }
+
+    private void register(Path start, Set<String> changed) throws IOException {
+        Files.walkFileTree(
+                start,
+                new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(
+                            Path dir, BasicFileAttributes attrs) throws IOException {
+                        if (isGitDir(dir)) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        directories.put(
+                                dir.register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY),
+                                dir);
+                        if (changed != null && !dir.equals(start)) {
+                            changed.add(relative(dir));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (changed != null) {
+                            changed.add(relative(file));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        // Removed while walking; its deletion is reported by the parent watch
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+    }
+
+    private boolean isGitDir(Path path) {
+        return path.getFileName() != null
+                && path.getFileName().toString().equals(".git")
+                && !path.equals(worktree);
+    }
+
+    private String relative(Path path) {
+        return worktree.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private synchronized void append(Set<String> changed) throws IOException {
+        if (changed.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        for (String path : changed) {
+            entries.writeBytes(path.getBytes(StandardCharsets.UTF_8));
+            entries.write(0);
+        }
+        // Written at once so that readers never see a partial entry
+        ByteBuffer buffer = ByteBuffer.wrap(entries.toByteArray());
+        while (buffer.hasRemaining()) {
+            journalSize += journalChannel.write(buffer);
+        }
+        if (journalSize > maxJournalBytes) {
+            newGeneration();
+        }
+    }
+
+    /** Tells the hook the daemon is alive. */
+    private void beat() throws IOException {
+        Path heartbeat = stateDir.resolve(HEARTBEAT_FILE);
+        if (Files.exists(heartbeat)) {
+            Files.setLastModifiedTime(heartbeat, FileTime.from(Instant.now()));
+        } else {
+            Files.createFile(heartbeat);
+        }
+        lastBeat = System.nanoTime();
+    }
+
+    private synchronized void newGeneration() throws IOException {
+        String next = System.currentTimeMillis() + "." + rotations++;
+        Path nextJournal = stateDir.resolve(JOURNAL_PREFIX + next);
+        FileChannel nextChannel =
+                FileChannel.open(
+                        nextJournal,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE);
+
+        Path tmp = Files.createTempFile(stateDir, GENERATION_FILE, ".tmp");
+        Files.writeString(tmp, next);
+        Files.move(
+                tmp,
+                stateDir.resolve(GENERATION_FILE),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        FileChannel previousChannel = journalChannel;
+        Path previous = journal;
+        generation = next;
+        journal = nextJournal;
+        journalChannel = nextChannel;
+        journalSize = 0;
+        if (previousChannel != null) {
+            previousChannel.close();
+            Files.deleteIfExists(previous);
+        }
+    }
+
+    /** Stops watching and removes the state, so that the hook starts a new daemon. */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (watcher != null) {
+                watcher.close();
+            }
+            Files.deleteIfExists(stateDir.resolve(GENERATION_FILE));
+            Files.deleteIfExists(stateDir.resolve(PID_FILE));
+            Files.deleteIfExists(stateDir.resolve(HEARTBEAT_FILE));
+            if (journalChannel != null) {
+                journalChannel.close();
+                Files.deleteIfExists(journal);
+            }
+        } finally {
+            if (lockChannel.isOpen()) {
+                lock.release();
+                lockChannel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Runs the filesystem watcher answering the {@code fsmonitor-watchman} hook. The goal blocks until
+ * the process is stopped; the installed hook starts it in the background when it is not running.
+ */
+@Mojo(name = "fsmonitor", threadSafe = true)
+public class FsMonitorMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject mavenProject;
+
+    /** Journal size, in bytes, above which git is asked to rescan the work tree. */
+    @Parameter(
+            name = "maxJournalSize",
+            property = "fsmonitor.maxJournalSize",
+            defaultValue = "8388608")
+    protected long maxJournalSize = 8 * 1024 * 1024;
+
+    public void execute() throws MojoExecutionException {
+        Path worktree;
+        Path stateDir;
+        try (Repository repository =
+                GitUtils.openHookRepository(mavenProject.getBasedir().toPath())) {
+            if (repository.isBare()) {
+                throw new MojoExecutionException("Cannot monitor a bare repository");
+            }
+            worktree = repository.getWorkTree().toPath();
+            stateDir = FsMonitorDaemon.stateDir(repository.getDirectory().toPath());
+        } catch (IOException | IllegalStateException e) {
+            throw new MojoExecutionException("Could not open git repository", e);
+        }
+
+        try (FsMonitorDaemon daemon =
+                FsMonitorDaemon.start(worktree, stateDir, maxJournalSize)) {
+            if (daemon == null) {
+                getLog().info("A filesystem monitor is already running for " + worktree);
+                return;
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> closeQuietly(daemon)));
+            getLog().info("Watching " + worktree);
+            daemon.run();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Filesystem monitor failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(FsMonitorDaemon daemon) {
+        try {
+            daemon.close();
+        } catch (IOException e) {
+            // The JVM is exiting, the hook falls back to a full scan
+        }
+    }
+}
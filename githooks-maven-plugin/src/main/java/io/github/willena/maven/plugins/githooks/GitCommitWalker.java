@@ -0,0 +1,299 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * {@link CommitWalker} backed by JGit. The updated references are spread over a pool of workers;
+ * each worker keeps a single {@link RevWalk} and object reader for all the references it handles,
+ * so the commits they share are parsed once per worker. A commit is validated by the first worker
+ * reaching it, the others wait for its verdict.
+ *
+ * <p>The repository is opened with {@link GitUtils#openHookRepository(Path)}. When given {@link
+ * VerifiedCommits}, commits they hold are not validated again and accepted ones are added to
+ * them.
+ */
+public class GitCommitWalker implements CommitWalker {
+    private static final String ACCEPTED = "";
+
+    private final Path repositoryPath;
+    private final RefUpdates updates;
+    private final int parallelism;
+    private final VerifiedCommits verified;
+
+    /**
+     * @param repositoryPath path inside the git repository, may be {@code null} when {@code
+     *     GIT_DIR} is set
+     * @param updates the updates to walk
+     * @param parallelism maximum number of references walked at the same time
+     */
+    public GitCommitWalker(Path repositoryPath, RefUpdates updates, int parallelism) {
+        this(repositoryPath, updates, parallelism, null);
+    }
+
+    /**
+     * @param repositoryPath path inside the git repository, may be {@code null} when {@code
+     *     GIT_DIR} is set
+     * @param updates the updates to walk
+     * @param parallelism maximum number of references walked at the same time
+     * @param verified commits already accepted by the validator, or {@code null}
+     */
+    public GitCommitWalker(
+            Path repositoryPath, RefUpdates updates, int parallelism, VerifiedCommits verified) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism);
+        }
+        this.repositoryPath = repositoryPath;
+        this.updates = updates;
+        this.parallelism = parallelism;
+        this.verified = verified;
+    }
+
+    @Override
+    public List<String> validate(CommitValidator validator) throws Exception {
+        List<RefUpdate> toWalk = new ArrayList<>();
+        for (RefUpdate update : updates) {
+            if (!update.isDelete()) {
+                toWalk.add(update);
+            }
+        }
+        if (toWalk.isEmpty()) {
+            return List.of();
+        }
+
+        try (Repository repository = GitUtils.openHookRepository(repositoryPath)) {
+            List<String> rejected = walk(repository, toWalk, validator);
+            if (verified != null) {
+                verified.save();
+            }
+            return rejected;
+        }
+    }
+
+    private List<String> walk(
+            Repository repository, List<RefUpdate> toWalk, CommitValidator validator)
+            throws Exception {
+        List<ObjectId> existing = existingTips(repository, toWalk);
+        Map<ObjectId, CompletableFuture<String>> verdicts = new ConcurrentHashMap<>();
+        @SuppressWarnings("unchecked")
+        Map<ObjectId, String>[] rejected = new Map[toWalk.size()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        int workerCount = Math.min(parallelism, toWalk.size());
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+        try {
+            for (int w = 0; w < workerCount; w++) {
+                workers.execute(
+                        () -> {
+                            try (ObjectReader reader = repository.newObjectReader();
+                                    RevWalk walk = new RevWalk(reader)) {
+                                int i;
+                                while (failure.get() == null
+                                        && (i = next.getAndIncrement()) < toWalk.size()) {
+                                    rejected[i] =
+                                            walkOne(
+                                                    walk,
+                                                    toWalk.get(i),
+                                                    existing,
+                                                    verdicts,
+                                                    verified,
+                                                    validator);
+                                }
+                            } catch (Exception e) {
+                                failure.compareAndSet(null, e);
+                            }
+                        });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        Map<ObjectId, String> messages = new LinkedHashMap<>();
+        for (int i = 0; i < toWalk.size(); i++) {
+            String refName = toWalk.get(i).getRefName();
+            rejected[i].forEach(
+                    (id, reason) ->
+                            messages.putIfAbsent(
+                                    id, refName + " " + id.abbreviate(7).name() + ": " + reason));
+        }
+        return List.copyOf(messages.values());
+    }
+
+    /**
+     * @return the rejected commits of the update, by id, in walk order
+     */
+    private static Map<ObjectId, String> walkOne(
+            RevWalk walk,
+            RefUpdate update,
+            List<ObjectId> existing,
+            Map<ObjectId, CompletableFuture<String>> verdicts,
+            VerifiedCommits verified,
+            CommitValidator validator)
+            throws Exception {
+        Map<ObjectId, String> rejected = new LinkedHashMap<>();
+        walk.reset();
+        RevCommit tip = peelCommit(walk, ObjectId.fromString(update.getNewId()));
+        if (tip == null) {
+            return rejected;
+        }
+        walk.markStart(tip);
+
+        RevCommit old =
+                update.isCreate() ? null : peelCommit(walk, ObjectId.fromString(update.getOldId()));
+        if (old != null) {
+            walk.markUninteresting(old);
+        } else {
+            // Created, or its previous value is unknown locally: exclude what is already known
+            for (ObjectId id : existing) {
+                RevCommit known = peelCommit(walk, id);
+                if (known != null) {
+                    walk.markUninteresting(known);
+                }
+            }
+        }
+
+        for (RevCommit commit : walk) {
+            // The first worker reaching a commit validates it, the others wait for its verdict
+            CompletableFuture<String> pending = new CompletableFuture<>();
+            CompletableFuture<String> shared = verdicts.putIfAbsent(commit.copy(), pending);
+            String verdict;
+            if (shared != null) {
+                try {
+                    verdict = shared.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            } else {
+                try {
+                    verdict = validate(commit, verified, validator);
+                } catch (Exception | Error e) {
+                    pending.completeExceptionally(e);
+                    throw e;
+                }
+                pending.complete(verdict);
+            }
+            if (!ACCEPTED.equals(verdict)) {
+                rejected.put(commit.copy(), verdict);
+            }
+        }
+        return rejected;
+    }
+
+    private static String validate(
+            RevCommit commit, VerifiedCommits verified, CommitValidator validator)
+            throws Exception {
+        if (verified != null && verified.contains(commit.name())) {
+            return ACCEPTED;
+        }
+        String reason = validator.validate(toCommitInfo(commit));
+        if (reason != null) {
+            return reason;
+        }
+        if (verified != null) {
+            verified.add(commit.name());
+        }
+        return ACCEPTED;
+    }
+
+    /**
+     * Lists the tips new commits are compared with when the previous value of a reference is not
+     * known: the remote-tracking references for {@code pre-push}, every other reference otherwise.
+     */
+    static List<ObjectId> existingTips(Repository repository, List<RefUpdate> toWalk)
+            throws IOException {
+        boolean needed = false;
+        for (RefUpdate update : toWalk) {
+            if (update.isCreate()
+                    || !repository
+                            .getObjectDatabase()
+                            .has(ObjectId.fromString(update.getOldId()))) {
+                needed = true;
+                break;
+            }
+        }
+        if (!needed) {
+            return List.of();
+        }
+        boolean push = toWalk.stream().anyMatch(u -> u.getLocalRefName() != null);
+        List<Ref> refs =
+                push
+                        ? repository.getRefDatabase().getRefsByPrefix("refs/remotes/")
+                        : repository.getRefDatabase().getRefs();
+        List<String> updated = toWalk.stream().map(RefUpdate::getRefName).toList();
+        List<ObjectId> tips = new ArrayList<>();
+        for (Ref ref : refs) {
+            if (!ref.isSymbolic()
+                    && ref.getObjectId() != null
+                    && (push || !updated.contains(ref.getName()))) {
+                tips.add(ref.getObjectId());
+            }
+        }
+        return tips;
+    }
+
+    static RevCommit peelCommit(RevWalk walk, AnyObjectId id) throws IOException {
+        try {
+            RevObject object = walk.peel(walk.parseAny(id));
+            return object instanceof RevCommit commit ? commit : null;
+        } catch (MissingObjectException e) {
+            return null;
+        }
+    }
+
+    static CommitInfo toCommitInfo(RevCommit commit) {
+        return new CommitInfo.Builder()
+                .id(commit.name())
+                .parentIds(Arrays.stream(commit.getParents()).map(RevCommit::name).toList())
+                .authorName(commit.getAuthorIdent().getName())
+                .authorEmail(commit.getAuthorIdent().getEmailAddress())
+                .committerName(commit.getCommitterIdent().getName())
+                .committerEmail(commit.getCommitterIdent().getEmailAddress())
+                .commitTime(Instant.ofEpochSecond(commit.getCommitTime()))
+                .message(commit.getFullMessage())
+                .build();
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import org.eclipse.jgit.api.DiffCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.BranchConfig;
+import org.eclipse.jgit.lib.BranchTrackingStatus;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+
+/**
+ * {@link ConditionContext} backed by a git repository. The repository is opened on first access
+ * and every fact is computed at most once, so that one instance serves the conditions and the
+ * definitions of a whole run, possibly from several threads; HEAD is not expected to move during
+ * the run.
+ */
+public class GitConditionContext implements ConditionContext, AutoCloseable {
+    private final Path repositoryPath;
+    private final Function<String, String> environment;
+    private final Path commitMessageFile;
+
+    private Git git;
+    private Set<String> headRefNames;
+    private boolean headResolved;
+    private ObjectId head;
+    private boolean branchResolved;
+    private String branch;
+    private RevCommit headCommit;
+    private BranchTrackingStatus trackingStatus;
+    private boolean trackingResolved;
+    private List<String> changedFiles;
+    private boolean mergeBaseResolved;
+    private String mergeBase;
+    private String stagedDiff;
+    private boolean commitMessageResolved;
+    private String commitMessage;
+    private Boolean workTreeClean;
+
+    /**
+     * @param repositoryPath path inside the git repository
+     * @param environment environment variable lookup, usually {@code System::getenv}
+     */
+    public GitConditionContext(Path repositoryPath, Function<String, String> environment) {
+        this(repositoryPath, environment, null);
+    }
+
+    /**
+     * @param repositoryPath path inside the git repository
+     * @param environment environment variable lookup, usually {@code System::getenv}
+     * @param commitMessageFile file git passed to the hook with the message of the commit being
+     *     made, relative to the work tree, or {@code null}
+     */
+    public GitConditionContext(
+            Path repositoryPath, Function<String, String> environment, Path commitMessageFile) {
+        this.repositoryPath = repositoryPath;
+        this.environment = environment;
+        this.commitMessageFile = commitMessageFile;
+    }
+
+    @Override
+    public String getEnv(String name) {
+        return environment.apply(name);
+    }
+
+    @Override
+    public synchronized Set<String> getHeadRefNames() {
+        if (headRefNames == null) {
+            try {
+                headRefNames = GitUtils.getRefNames(repository(), getHead());
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not get current git state", e);
+            }
+        }
+        return headRefNames;
+    }
+
+    @Override
+    public synchronized String getBranch() {
+        if (!branchResolved) {
+            try {
+                String fullBranch = repository().getFullBranch();
+                branch =
+                        fullBranch != null && fullBranch.startsWith(Constants.R_HEADS)
+                                ? Repository.shortenRefName(fullBranch)
+                                : null;
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not get current git branch", e);
+            }
+            branchResolved = true;
+        }
+        return branch;
+    }
+
+    @Override
+    public synchronized String getHeadCommitMessage() {
+        RevCommit commit = getHeadCommit();
+        return commit == null ? null : commit.getFullMessage();
+    }
+
+    @Override
+    public synchronized String getHeadAuthor() {
+        RevCommit commit = getHeadCommit();
+        if (commit == null) {
+            return null;
+        }
+        PersonIdent author = commit.getAuthorIdent();
+        return author.getName() + " <" + author.getEmailAddress() + ">";
+    }
+
+    @Override
+    public synchronized int getAheadCount() {
+        BranchTrackingStatus status = getTrackingStatus();
+        return status == null ? 0 : status.getAheadCount();
+    }
+
+    @Override
+    public synchronized int getBehindCount() {
+        BranchTrackingStatus status = getTrackingStatus();
+        return status == null ? 0 : status.getBehindCount();
+    }
+
+    @Override
+    public synchronized List<String> getChangedFiles() {
+        if (changedFiles == null) {
+            try {
+                DiffCommand diff = git().diff().setCached(true).setShowNameAndStatusOnly(true);
+                if (getHead() == null) {
+                    // Nothing committed yet: everything in the index is new
+                    diff.setOldTree(new EmptyTreeIterator());
+                }
+                Set<String> paths = new LinkedHashSet<>();
+                for (DiffEntry entry : diff.call()) {
+                    if (!DiffEntry.DEV_NULL.equals(entry.getOldPath())) {
+                        paths.add(entry.getOldPath());
+                    }
+                    if (!DiffEntry.DEV_NULL.equals(entry.getNewPath())) {
+                        paths.add(entry.getNewPath());
+                    }
+                }
+                changedFiles = List.copyOf(paths);
+            } catch (GitAPIException | IOException e) {
+                throw new IllegalStateException("Could not list changed files", e);
+            }
+        }
+        return changedFiles;
+    }
+
+    @Override
+    public synchronized Path getWorkTree() {
+        return repository().getWorkTree().toPath();
+    }
+
+    @Override
+    public synchronized String getHeadId() {
+        try {
+            ObjectId id = getHead();
+            return id == null ? null : id.getName();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not resolve HEAD", e);
+        }
+    }
+
+    @Override
+    public synchronized String getUpstreamMergeBase() {
+        if (!mergeBaseResolved) {
+            try {
+                String currentBranch = getBranch();
+                String upstream =
+                        currentBranch == null
+                                ? null
+                                : new BranchConfig(repository().getConfig(), currentBranch)
+                                        .getTrackingBranch();
+                ObjectId upstreamId = upstream == null ? null : repository().resolve(upstream);
+                ObjectId headId = getHead();
+                if (upstreamId != null && headId != null) {
+                    try (RevWalk walk = new RevWalk(repository())) {
+                        walk.setRevFilter(RevFilter.MERGE_BASE);
+                        walk.markStart(walk.parseCommit(headId));
+                        walk.markStart(walk.parseCommit(upstreamId));
+                        RevCommit base = walk.next();
+                        mergeBase = base == null ? null : base.getName();
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not find the merge base with upstream", e);
+            }
+            mergeBaseResolved = true;
+        }
+        return mergeBase;
+    }
+
+    @Override
+    public synchronized String getStagedDiff() {
+        if (stagedDiff == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                DiffCommand diff = git().diff().setCached(true).setOutputStream(out);
+                if (getHead() == null) {
+                    diff.setOldTree(new EmptyTreeIterator());
+                }
+                diff.call();
+            } catch (GitAPIException | IOException e) {
+                throw new IllegalStateException("Could not diff the staged changes", e);
+            }
+            stagedDiff = out.toString(UTF_8);
+        }
+        return stagedDiff;
+    }
+
+    @Override
+    public synchronized String getCommitMessage() {
+        if (!commitMessageResolved) {
+            if (commitMessageFile != null) {
+                try {
+                    commitMessage =
+                            Files.readString(getWorkTree().resolve(commitMessageFile), UTF_8);
+                } catch (IOException e) {
+                    throw new IllegalStateException(
+                            "Could not read commit message " + commitMessageFile, e);
+                }
+            }
+            commitMessageResolved = true;
+        }
+        return commitMessage;
+    }
+
+    /**
+     * @return whether the index and the work tree match HEAD, with no untracked file
+     */
+    public synchronized boolean isWorkTreeClean() {
+        if (workTreeClean == null) {
+            try {
+                workTreeClean = git().status().call().isClean();
+            } catch (GitAPIException e) {
+                throw new IllegalStateException("Could not read the work tree status", e);
+            }
+        }
+        return workTreeClean;
+    }
+
+    private ObjectId getHead() throws IOException {
+        if (!headResolved) {
+            head = repository().resolve(Constants.HEAD);
+            headResolved = true;
+        }
+        return head;
+    }
+
+    private RevCommit getHeadCommit() {
+        if (headCommit == null) {
+            try {
+                ObjectId objectId = getHead();
+                if (objectId == null) {
+                    return null;
+                }
+                try (RevWalk walk = new RevWalk(repository())) {
+                    headCommit = walk.parseCommit(objectId);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read HEAD commit", e);
+            }
+        }
+        return headCommit;
+    }
+
+    private BranchTrackingStatus getTrackingStatus() {
+        if (!trackingResolved) {
+            String currentBranch = getBranch();
+            try {
+                trackingStatus =
+                        currentBranch == null
+                                ? null
+                                : BranchTrackingStatus.of(repository(), currentBranch);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not compare branch with its upstream", e);
+            }
+            trackingResolved = true;
+        }
+        return trackingStatus;
+    }
+
+    private Repository repository() {
+        return git().getRepository();
+    }
+
+    /**
+     * Opens the repository as the hook sees it, so that the changed files and the staged diff come
+     * from the index being committed ({@code GIT_INDEX_FILE} under {@code git commit -a}).
+     */
+    private Git git() {
+        if (git == null) {
+            if (repositoryPath == null) {
+                throw new IllegalStateException("No git repository to evaluate conditions on");
+            }
+            try {
+                git = Git.wrap(GitUtils.openHookRepository(repositoryPath));
+            } catch (IOException e) {
+                throw new IllegalStateException(
+                        "Could not open git repository from " + repositoryPath, e);
+            }
+        }
+        return git;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (git != null) {
+            // Wrapped repositories are not closed with their Git
+            git.getRepository().close();
+            git = null;
+        }
+    }
+}
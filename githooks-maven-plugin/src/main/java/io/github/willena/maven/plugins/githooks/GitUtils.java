@@ -25,10 +25,16 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheIterator;
 import org.eclipse.jgit.lib.*;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
 public final class GitUtils {
     public static boolean isValidGitRepository(Path repositoryPath) {
@@ -74,6 +80,53 @@ public final class GitUtils {
         return repoBuilder.getGitDir();
     }
 
+    /**
+     * Opens the repository of a running hook. The git environment variables are read first
+     * ({@code GIT_DIR}, and the {@code GIT_OBJECT_DIRECTORY} quarantine set by {@code
+     * pre-receive}), then the repository is searched from the given path.
+     *
+     * @param repositoryPath path inside the git repository, may be {@code null} when {@code
+     *     GIT_DIR} is set
+     * @return the repository, to be closed by the caller
+     * @throws IOException if the repository cannot be opened
+     */
+    public static Repository openHookRepository(Path repositoryPath) throws IOException {
+        FileRepositoryBuilder builder = new FileRepositoryBuilder().readEnvironment();
+        if (builder.getGitDir() == null && repositoryPath != null) {
+            builder.findGitDir(repositoryPath.toFile());
+        }
+        if (builder.getGitDir() == null) {
+            throw new IllegalStateException("Could not find git repository from " + repositoryPath);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a walk over the files whose index entry differs from {@code HEAD}: tree 0 is {@code
+     * HEAD}, empty before the first commit, and tree 1 is a {@link DirCacheIterator} of the
+     * index. Files deleted from the index have a {@link FileMode#MISSING} mode in tree 1.
+     *
+     * @param repository the repository
+     * @param reader reader used by the walk
+     * @param index the index
+     * @return the walk, to be closed by the caller
+     * @throws IOException if {@code HEAD} cannot be read
+     */
+    static TreeWalk newStagedWalk(Repository repository, ObjectReader reader, DirCache index)
+            throws IOException {
+        TreeWalk walk = new TreeWalk(repository, reader);
+        ObjectId head = repository.resolve(Constants.HEAD + "^{tree}");
+        if (head != null) {
+            walk.addTree(head);
+        } else {
+            walk.addTree(new EmptyTreeIterator());
+        }
+        walk.addTree(new DirCacheIterator(index));
+        walk.setRecursive(true);
+        walk.setFilter(TreeFilter.ANY_DIFF);
+        return walk;
+    }
+
     public static Path getHooksPath(Path repositoryPath) throws IOException {
         Path p = findHooksPath(repositoryPath);
         return Files.createDirectories(p);
@@ -101,13 +154,40 @@ public final class GitUtils {
         }
     }
 
-    public static boolean headMatchesRefPattern(Path repositoryPath, Pattern pattern) {
+    /**
+     * Lists the names of the references (branches, tags, ...) pointing at the current HEAD.
+     *
+     * @param repositoryPath path inside the git repository
+     * @return the reference names, empty if HEAD does not point to a commit yet
+     */
+    public static Set<String> getHeadRefNames(Path repositoryPath) {
         try (Git git = Git.open(getRepositoryPath(repositoryPath.toFile()))) {
-            ObjectId objectId = git.getRepository().resolve(Constants.HEAD);
-            Set<Ref> refs = git.getRepository().getAllRefsByPeeledObjectId().get(objectId);
-            return refs.stream().anyMatch(r -> pattern.matcher(r.getName()).find());
+            Repository repository = git.getRepository();
+            return getRefNames(repository, repository.resolve(Constants.HEAD));
         } catch (IOException e) {
             throw new IllegalStateException("Could not get current git state", e);
         }
     }
+
+    /**
+     * @param repository an opened repository
+     * @param objectId the target object, may be {@code null}
+     * @return names of the references pointing at the object, peeled tags included
+     * @throws IOException if the references cannot be read
+     */
+    static Set<String> getRefNames(Repository repository, ObjectId objectId) throws IOException {
+        if (objectId == null) {
+            return Collections.emptySet();
+        }
+        return repository.getAllRefsByPeeledObjectId()
+                .getOrDefault(objectId, Collections.emptySet())
+                .stream()
+                .map(Ref::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public static boolean headMatchesRefPattern(Path repositoryPath, Pattern pattern) {
+        return getHeadRefNames(repositoryPath).stream()
+                .anyMatch(name -> pattern.matcher(name).find());
+    }
 }
@@ -27,6 +27,9 @@ public class HookConfig {
     @Parameter(name = "hookDefinitions")
     private List<HookDefinitionConfig> hookDefinitionConfigs;
 
+    @Parameter(name = "commitMessage")
+    private CommitMessageConfig commitMessage;
+
     public HookType getType() {
         return type;
     }
@@ -45,9 +48,29 @@ public class HookConfig {
         return this;
     }
 
+    /**
+     * @return the rules checked by the {@code COMMIT_MSG} script before its definitions, or {@code
+     *     null}
+     */
+    public CommitMessageConfig getCommitMessage() {
+        return commitMessage;
+    }
+
+    public HookConfig setCommitMessage(CommitMessageConfig commitMessage) {
+        this.commitMessage = commitMessage;
+        return this;
+    }
+
     @Override
     public String toString() {
-        return "Hook{" + "type=" + type + ", hookDefinitions=" + hookDefinitionConfigs + '}';
+        return "Hook{"
+                + "type="
+                + type
+                + ", hookDefinitions="
+                + hookDefinitionConfigs
+                + ", commitMessage="
+                + commitMessage
+                + '}';
     }
 
     @Override
@@ -55,11 +78,12 @@ public class HookConfig {
         if (o == null || getClass() != o.getClass()) return false;
         HookConfig hookConfig = (HookConfig) o;
         return type == hookConfig.type
-                && Objects.equals(hookDefinitionConfigs, hookConfig.hookDefinitionConfigs);
+                && Objects.equals(hookDefinitionConfigs, hookConfig.hookDefinitionConfigs)
+                && Objects.equals(commitMessage, hookConfig.commitMessage);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(type, hookDefinitionConfigs);
+        return Objects.hash(type, hookDefinitionConfigs, commitMessage);
     }
 }
@@ -16,6 +16,7 @@
 
 package io.github.willena.maven.plugins.githooks;
 
+import java.util.List;
 import java.util.Objects;
 import org.apache.maven.plugins.annotations.Parameter;
 
@@ -92,6 +93,78 @@ public class HookDefinitionConfig {
         return this;
     }
 
+    /**
+     * Combines the conditions of this definition: it runs when its {@code onlyIf} condition holds
+     * and its {@code skipIf} condition does not. Empty conditions are ignored.
+     *
+     * @return the run condition
+     * @throws IllegalArgumentException if a condition is invalid
+     */
+    public Condition getRunCondition() {
+        Condition only =
+                onlyIf == null || onlyIf.isEmpty() ? Conditions.ALWAYS : onlyIf.getCondition();
+        Condition skip =
+                skipIf == null || skipIf.isEmpty() ? Conditions.NEVER : skipIf.getCondition();
+        if (skip == Conditions.NEVER) {
+            return only;
+        }
+        if (only == Conditions.ALWAYS) {
+            return Conditions.not(skip);
+        }
+        return Conditions.allOf(List.of(only, Conditions.not(skip)));
+    }
+
+    /**
+     * Checks the conditions of this definition, compiling their patterns.
+     *
+     * @throws IllegalArgumentException if a condition is invalid
+     */
+    public void validate() {
+        try {
+            if (skipIf != null) {
+                skipIf.validate();
+            }
+            if (onlyIf != null) {
+                onlyIf.validate();
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid condition in hook definition '" + name + "': " + e.getMessage(), e);
+        }
+        if (runConfig != null && runConfig.getModuleParallelism() < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid moduleParallelism in hook definition '"
+                            + name
+                            + "': "
+                            + runConfig.getModuleParallelism());
+        }
+        if (runConfig != null && runConfig.getBatchParallelism() < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid batchParallelism in hook definition '"
+                            + name
+                            + "': "
+                            + runConfig.getBatchParallelism());
+        }
+        if (runConfig != null && runConfig.getFiles() != null) {
+            if (runConfig.getCommand() == null) {
+                throw new IllegalArgumentException(
+                        "Files can only be appended to a command in hook definition '"
+                                + name
+                                + "'");
+            }
+            try {
+                CommandBatches.matching(List.of(), runConfig.getFiles());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "Invalid files glob in hook definition '"
+                                + name
+                                + "': "
+                                + runConfig.getFiles(),
+                        e);
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
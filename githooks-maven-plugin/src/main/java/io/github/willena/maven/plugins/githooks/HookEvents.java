@@ -0,0 +1,113 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR events emitted while running git hooks. They are only recorded when a flight recording is
+ * active, for example with {@code MAVEN_OPTS=-XX:StartFlightRecording}.
+ */
+public final class HookEvents {
+    private static final String CATEGORY = "Git Hooks";
+
+    private HookEvents() {}
+
+    /**
+     * @return the event matching the span kind, {@code null} for kinds without event
+     */
+    static HookEvent create(HookTracer.Kind kind, String name) {
+        HookEvent event =
+                switch (kind) {
+                    case RUN -> new RunEvent();
+                    case CONDITION -> new ConditionEvent();
+                    case DEFINITION -> new DefinitionEvent();
+                    case SPAWN -> new SpawnEvent();
+                    case MOJO_RESOLUTION -> new MojoResolutionEvent();
+                    case SNAPSHOT -> new SnapshotEvent();
+                    case UNSTAGED -> new UnstagedEvent();
+                    case OUTPUT -> new OutputEvent();
+                    case BOOTSTRAP -> null;
+                };
+        if (event != null) {
+            event.name = name;
+        }
+        return event;
+    }
+
+    @StackTrace(false)
+    abstract static class HookEvent extends Event {
+        @Label("Name")
+        String name;
+
+        @Label("Detail")
+        String detail;
+    }
+
+    @Name("io.github.willena.githooks.Run")
+    @Label("Hook Run")
+    @Description("Run of all the definitions of a git hook")
+    @Category(CATEGORY)
+    static final class RunEvent extends HookEvent {}
+
+    @Name("io.github.willena.githooks.Condition")
+    @Label("Condition Evaluation")
+    @Description("Evaluation of the skipIf/onlyIf conditions of a definition")
+    @Category(CATEGORY)
+    static final class ConditionEvent extends HookEvent {}
+
+    @Name("io.github.willena.githooks.Definition")
+    @Label("Hook Definition")
+    @Description("Run of a hook definition")
+    @Category(CATEGORY)
+    static final class DefinitionEvent extends HookEvent {}
+
+    @Name("io.github.willena.githooks.Spawn")
+    @Label("Process Spawn")
+    @Description("Start of the process of a command definition")
+    @Category(CATEGORY)
+    static final class SpawnEvent extends HookEvent {}
+
+    @Name("io.github.willena.githooks.MojoResolution")
+    @Label("Mojo Resolution")
+    @Description("Resolution of a plugin used by a mojo definition")
+    @Category(CATEGORY)
+    static final class MojoResolutionEvent extends HookEvent {}
+
+    @Name("io.github.willena.githooks.Snapshot")
+    @Label("Staged Snapshot")
+    @Description("Materialization of the staged files for staged definitions")
+    @Category(CATEGORY)
+    static final class SnapshotEvent extends HookEvent {}
+
+    @Name("io.github.willena.githooks.Unstaged")
+    @Label("Unstaged Changes")
+    @Description("Save or restore of the unstaged changes of the staged files")
+    @Category(CATEGORY)
+    static final class UnstagedEvent extends HookEvent {}
+
+    @Name("io.github.willena.githooks.Output")
+    @Label("Output Flush")
+    @Description("Wait for the output of a command to be fully logged")
+    @Category(CATEGORY)
+    static final class OutputEvent extends HookEvent {}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Input git wrote on the standard input of a hook. The input can only be read once, it is spooled
+ * to a temporary file so that every definition can read it again, and so that large pushes never
+ * need to fit in memory.
+ */
+public class HookInput implements AutoCloseable {
+    private static final HookInput NONE = new HookInput(null);
+
+    private final Path file;
+
+    private HookInput(Path file) {
+        this.file = file;
+    }
+
+    public static HookInput none() {
+        return NONE;
+    }
+
+    /**
+     * Copies a stream to a temporary file.
+     *
+     * @param in the hook standard input
+     * @return the spooled input, deleted when closed
+     * @throws IOException if the input cannot be copied
+     */
+    public static HookInput spool(InputStream in) throws IOException {
+        Path file = Files.createTempFile("githooks-stdin", ".txt");
+        try {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new HookInput(file);
+    }
+
+    /**
+     * @return the spooled input, {@code null} if there is none
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the reference updates of a hook. {@code update} receives its single update as arguments
+     * rather than on its standard input.
+     *
+     * @param hookType the hook
+     * @param args the hook arguments
+     * @return the updates, parsed lazily
+     */
+    public RefUpdates getRefUpdates(HookType hookType, List<String> args) {
+        if (hookType == HookType.UPDATE && args != null && args.size() >= 3) {
+            return RefUpdates.of(List.of(new RefUpdate(args.get(0), args.get(1), args.get(2))));
+        }
+        RefUpdate.Format format = hookType == null ? null : hookType.getRefUpdateFormat();
+        if (file == null || format == null) {
+            return RefUpdates.empty();
+        }
+        return RefUpdates.fromFile(file, format);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
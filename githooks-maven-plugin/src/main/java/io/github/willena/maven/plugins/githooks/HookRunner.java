@@ -17,15 +17,25 @@
 package io.github.willena.maven.plugins.githooks;
 
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.regex.Pattern;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.BuildPluginManager;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
@@ -41,51 +51,610 @@ public class HookRunner {
     private final List<HookDefinitionConfig> hooksToRun;
     private final Log log;
     private final HookRunnerConfig config;
+    private final RunnableHookIndex hookIndex;
+    private final MojoResolver mojoResolver;
     private final ExecutorService executor;
+    private final HookTimings timings;
+    private final HookTracer tracer;
+    private final HookInput hookInput;
+    private RefUpdates refUpdates;
+    private GitConditionContext gitFacts;
+    private StagedSnapshot stagedSnapshot;
+    private Path workTree;
+    private List<String> changedFiles;
+    private Map<MavenProject, List<String>> moduleFiles;
+    private List<String> pushedCommits;
+    private Boolean pushedHeadCheckedOut;
 
     public HookRunner(List<HookDefinitionConfig> hooksToRun, Log log, HookRunnerConfig config) {
         this.hooksToRun = hooksToRun;
         this.log = log;
         this.config = config;
-        this.executor = Executors.newSingleThreadExecutor();
+        this.hookIndex =
+                Optional.ofNullable(config.getHookIndex())
+                        .orElseGet(() -> new RunnableHookIndex(Collections.emptyMap()));
+        this.tracer = Optional.ofNullable(config.getTracer()).orElseGet(HookTracer::jfrOnly);
+        this.hookInput = Optional.ofNullable(config.getHookInput()).orElseGet(HookInput::none);
+        this.mojoResolver =
+                new MojoResolver(
+                        config.getPluginManager(),
+                        config.getMavenSession(),
+                        config.getMavenProject(),
+                        log,
+                        tracer);
+        // One output reader per running command, modules may run several commands at once
+        this.executor = Executors.newCachedThreadPool();
+        this.timings =
+                Optional.ofNullable(config.getTimings())
+                        .orElseGet(() -> new HookTimings(null, null));
     }
 
     public void run() throws MojoExecutionException {
-        List<HookDefinitionConfig> toRun = hooksToRun.stream().filter(this::keepRun).toList();
+        try (HookTracer.Span ignored = tracer.start(HookTracer.Kind.RUN, timings.getHookName())) {
+            runSelected();
+        } finally {
+            closeGitFacts();
+        }
+    }
+
+    private void runSelected() throws MojoExecutionException {
+        validate();
+
+        List<HookDefinitionConfig> toRun;
+        try {
+            toRun = hooksToRun.stream().filter(this::keepRun).toList();
+        } catch (IllegalStateException e) {
+            throw new MojoExecutionException("Could not evaluate hook conditions", e);
+        }
 
         log.debug(String.format("Runs: %s", toRun));
 
-        for (HookDefinitionConfig hookDefinitionConfig : toRun) {
-            log.info("Running " + hookDefinitionConfig.getName());
-            this.run(hookDefinitionConfig.getRunConfig());
+        mojoResolver.preResolve(
+                toRun.stream()
+                        .map(HookDefinitionConfig::getRunConfig)
+                        .map(RunConfig::getMojo)
+                        .filter(Objects::nonNull)
+                        .toList());
+
+        UnstagedChanges unstaged =
+                config.isProtectUnstaged() && !toRun.isEmpty() ? saveUnstaged() : null;
+        boolean success = false;
+        try {
+            for (HookDefinitionConfig hookDefinitionConfig : toRun) {
+                VerifiedCommits verified = getVerifiedCommits(hookDefinitionConfig);
+                if (verified != null && verified.containsAll(getPushedCommits())) {
+                    log.info(
+                            "Skipping "
+                                    + hookDefinitionConfig.getName()
+                                    + ", every pushed commit already passed it");
+                    continue;
+                }
+                // Read before the definition runs, it may change the work tree
+                boolean checksPushedCommits = verified != null && isPushedHeadCheckedOut();
+                log.info("Running " + hookDefinitionConfig.getName());
+                this.runTimed(hookDefinitionConfig);
+                if (checksPushedCommits) {
+                    verified.addAll(getPushedCommits());
+                    saveVerifiedCommits(verified);
+                }
+            }
+            success = true;
+        } finally {
+            if (!toRun.isEmpty()) {
+                timings.toTable().forEach(log::info);
+            }
+            closeStagedSnapshot();
+            if (unstaged != null) {
+                restoreUnstaged(unstaged, success);
+            }
         }
     }
 
-    private boolean keepRun(HookDefinitionConfig h) {
-        if (!h.isEnabled()) {
-            return false;
+    /**
+     * Java hooks are left out, their commit walker remembers the commits it validated.
+     *
+     * @return the commits a {@code pre-push} command or mojo already accepted, or {@code null}
+     *     when they are not remembered or no commit is pushed
+     */
+    private VerifiedCommits getVerifiedCommits(HookDefinitionConfig definition)
+            throws MojoExecutionException {
+        if (!remembersVerifiedCommits()
+                || definition.getRunConfig().getClassName() != null
+                || getPushedCommits().isEmpty()) {
+            return null;
+        }
+        String key = verificationKey(definition.getRunConfig());
+        return key == null ? null : loadVerifiedCommits("definition " + key);
+    }
+
+    /**
+     * Identifies what a definition checks, so that commits are checked again when the checker
+     * changes: its configuration, the resolved version of its plugin, the implementation version
+     * of its hook class and the content of its script.
+     *
+     * @return the key, or {@code null} when the checker cannot be identified
+     */
+    private String verificationKey(RunConfig runConfig) {
+        StringBuilder key = new StringBuilder(runConfig.toString());
+        MojoConfig mojo = runConfig.getMojo();
+        if (mojo != null) {
+            // Plugin.toString() leaves the version out
+            Plugin plugin =
+                    mojo.getPlugin() == null ? null : mojoResolver.withVersion(mojo.getPlugin());
+            if (plugin == null || plugin.getVersion() == null) {
+                return null;
+            }
+            key.append(" plugin=")
+                    .append(plugin.getGroupId())
+                    .append(':')
+                    .append(plugin.getArtifactId())
+                    .append(':')
+                    .append(plugin.getVersion())
+                    .append(" configuration=")
+                    .append(mojo.getConfigurationDom());
+        }
+        if (runConfig.getClassName() != null) {
+            Class<?> hookClass;
+            try {
+                hookClass = hookIndex.get(runConfig.getClassName()).getClass();
+            } catch (IllegalStateException e) {
+                return null;
+            }
+            key.append(" implementation=")
+                    .append(hookClass.getName())
+                    .append(' ')
+                    .append(hookClass.getPackage().getImplementationVersion());
+        }
+        if (runConfig.getCommand() != null) {
+            String script = scriptDigest(runConfig.getCommand());
+            if (script != null) {
+                key.append(" script=").append(script);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return the SHA-256 of the {@code classpath:} script or of the file the command starts, or
+     *     {@code null} for other commands
+     */
+    private String scriptDigest(String command) {
+        try {
+            byte[] content = null;
+            if (command.startsWith(CLASSPATH_PREFIX)) {
+                try (InputStream resource =
+                        getClass()
+                                .getClassLoader()
+                                .getResourceAsStream(
+                                        command.substring(CLASSPATH_PREFIX.length()))) {
+                    content = resource == null ? null : resource.readAllBytes();
+                }
+            } else if (getProjectPath() != null && !command.isBlank()) {
+                Path script = getProjectPath().resolve(command.trim().split("\\s+")[0]);
+                content = Files.isRegularFile(script) ? Files.readAllBytes(script) : null;
+            }
+            if (content == null) {
+                return null;
+            }
+            return HexFormat.of()
+                    .formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (IOException | InvalidPathException e) {
+            log.debug("Could not read the script of " + command, e);
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private boolean remembersVerifiedCommits() {
+        return config.isRememberVerifiedCommits()
+                && config.getHookType() == HookType.PRE_PUSH
+                && getProjectPath() != null;
+    }
+
+    /**
+     * The store only saves work, commits are checked again when it cannot be read.
+     */
+    private VerifiedCommits loadVerifiedCommits(String configuration) {
+        try {
+            return VerifiedCommits.load(getProjectPath(), configuration);
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Could not read the verified commits, checking all of them", e);
+            return null;
+        }
+    }
+
+    private void saveVerifiedCommits(VerifiedCommits verified) {
+        try {
+            verified.save();
+        } catch (IOException e) {
+            log.warn("Could not save the verified commits to " + verified.getFile(), e);
+        }
+    }
+
+    /**
+     * Commands and mojos check the work tree, which only holds the pushed commits when a single
+     * reference is pushed, from HEAD, with nothing left to commit.
+     */
+    private synchronized boolean isPushedHeadCheckedOut() {
+        if (pushedHeadCheckedOut == null) {
+            List<RefUpdate> updates =
+                    getRefUpdates().stream().filter(u -> !u.isDelete()).toList();
+            try {
+                pushedHeadCheckedOut =
+                        updates.size() == 1
+                                && updates.get(0).getNewId().equals(getGitFacts().getHeadId())
+                                && getGitFacts().isWorkTreeClean();
+            } catch (IllegalStateException e) {
+                log.warn("Could not compare the pushed commits with HEAD", e);
+                pushedHeadCheckedOut = false;
+            }
+        }
+        return pushedHeadCheckedOut;
+    }
+
+    /**
+     * The commits introduced by the pushed references, listed once per run.
+     */
+    private synchronized List<String> getPushedCommits() throws MojoExecutionException {
+        if (pushedCommits == null) {
+            Queue<String> ids = new ConcurrentLinkedQueue<>();
+            try {
+                new GitCommitWalker(
+                                getProjectPath(),
+                                getRefUpdates(),
+                                Runtime.getRuntime().availableProcessors())
+                        .validate(
+                                commit -> {
+                                    ids.add(commit.getId());
+                                    return null;
+                                });
+            } catch (Exception e) {
+                throw new MojoExecutionException("Could not list the pushed commits", e);
+            }
+            pushedCommits = List.copyOf(ids);
+        }
+        return pushedCommits;
+    }
+
+    private UnstagedChanges saveUnstaged() throws MojoExecutionException {
+        try (HookTracer.Span span = tracer.start(HookTracer.Kind.UNSTAGED, "save")) {
+            UnstagedChanges unstaged = UnstagedChanges.save(getProjectPath());
+            span.attribute("files", unstaged.getPaths().size())
+                    .attribute("bytes", unstaged.getPatchSize());
+            log.debug(
+                    String.format(
+                            "Set aside the unstaged changes of %s (%d bytes of patch)",
+                            unstaged.getPaths(), unstaged.getPatchSize()));
+            return unstaged;
+        } catch (IOException | IllegalStateException e) {
+            throw new MojoExecutionException("Could not set aside the unstaged changes", e);
+        }
+    }
+
+    /**
+     * Stages the fixes of the definitions when they all succeeded, and puts back the unstaged
+     * changes. A failure is only reported as an error when a definition already failed, so that
+     * the failure of the definition is the one reported.
+     */
+    private void restoreUnstaged(UnstagedChanges unstaged, boolean success)
+            throws MojoExecutionException {
+        try (HookTracer.Span ignored = tracer.start(HookTracer.Kind.UNSTAGED, "restore")) {
+            unstaged.restore(success);
+        } catch (IOException | IllegalStateException e) {
+            if (success) {
+                throw new MojoExecutionException(e.getMessage(), e);
+            }
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The staged files are only materialized when a definition asks for them, once per run.
+     */
+    private synchronized StagedSnapshot getStagedSnapshot() throws MojoExecutionException {
+        if (stagedSnapshot == null) {
+            try (HookTracer.Span span = tracer.start(HookTracer.Kind.SNAPSHOT, "staged")) {
+                stagedSnapshot = StagedSnapshot.create(getProjectPath());
+                span.attribute("files", stagedSnapshot.getFiles().size());
+            } catch (IOException | IllegalStateException e) {
+                throw new MojoExecutionException("Could not snapshot the staged files", e);
+            }
+            log.debug(
+                    String.format(
+                            "Staged snapshot of %d files in %s",
+                            stagedSnapshot.getFiles().size(), stagedSnapshot.getRoot()));
+        }
+        return stagedSnapshot;
+    }
+
+    private void closeStagedSnapshot() {
+        if (stagedSnapshot != null) {
+            try {
+                stagedSnapshot.close();
+            } catch (IOException e) {
+                log.warn("Could not remove staged snapshot " + stagedSnapshot.getRoot(), e);
+            }
+            stagedSnapshot = null;
+        }
+    }
+
+    public HookTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * Runs a definition and records its wall time, CPU time and, for commands, the process spawn
+     * latency and output volume, summed over the processes of the definition.
+     */
+    private void runTimed(HookDefinitionConfig definition) throws MojoExecutionException {
+        RunConfig runConfig = definition.getRunConfig();
+        CommandStats stats = null;
+        long cpuStart = threadCpuTime();
+        long start = System.nanoTime();
+        boolean success = false;
+        try (HookTracer.Span span =
+                tracer.start(HookTracer.Kind.DEFINITION, definition.getName())) {
+            span.attribute("type", runType(runConfig));
+            if (runConfig.isPerModule()) {
+                stats = runPerModule(runConfig);
+            } else {
+                stats = this.run(runConfig, null);
+            }
+            success = true;
+            span.attribute("success", true);
+        } finally {
+            HookTiming.Builder timing =
+                    new HookTiming.Builder()
+                            .name(definition.getName())
+                            .type(runType(runConfig))
+                            .wallTime(Duration.ofNanos(System.nanoTime() - start))
+                            .success(success);
+            if (stats != null) {
+                timing.cpuTime(stats.cpuTime)
+                        .spawnLatency(stats.spawnLatency)
+                        .outputBytes(stats.outputBytes);
+            } else if (cpuStart >= 0) {
+                timing.cpuTime(Duration.ofNanos(threadCpuTime() - cpuStart));
+            }
+            timings.record(timing.build());
+        }
+    }
+
+    /**
+     * Runs a definition once for each reactor module owning a changed file, up to {@link
+     * RunConfig#getModuleParallelism()} modules at a time.
+     *
+     * @return the statistics of the commands run for all modules, {@code null} for other runs
+     */
+    private CommandStats runPerModule(RunConfig runConfig) throws MojoExecutionException {
+        Map<MavenProject, List<String>> moduleFiles = getModuleFiles();
+        List<MavenProject> modules =
+                reactorProjects().stream().filter(moduleFiles::containsKey).toList();
+        if (modules.isEmpty()) {
+            log.info("No module owns a changed file, skipping");
+            return null;
+        }
+        log.info(
+                "Running for modules "
+                        + modules.stream().map(MavenProject::getArtifactId).toList());
+
+        Queue<CommandStats> stats = new ConcurrentLinkedQueue<>();
+        runAll(
+                modules,
+                runConfig.getModuleParallelism(),
+                m -> Optional.ofNullable(this.run(runConfig, m)).ifPresent(stats::add));
+        return CommandStats.sum(stats);
+    }
+
+    /**
+     * Runs a task for each item, up to {@code parallelism} at a time. Tasks that already started
+     * complete before the first failure is reported.
+     */
+    private <T> void runAll(List<T> items, int parallelism, Task<T> task)
+            throws MojoExecutionException {
+        if (Math.min(parallelism, items.size()) <= 1) {
+            for (T item : items) {
+                task.run(item);
+            }
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, items.size()));
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (T item : items) {
+                // Spans of the item belong to the definition span of this thread
+                runs.add(
+                        pool.submit(
+                                tracer.wrap(
+                                        () -> {
+                                            task.run(item);
+                                            return null;
+                                        })));
+            }
+            MojoExecutionException failure = null;
+            for (Future<?> run : runs) {
+                try {
+                    run.get();
+                } catch (ExecutionException e) {
+                    MojoExecutionException error = toMojoException(e.getCause());
+                    if (failure == null) {
+                        failure = error;
+                    } else {
+                        failure.addSuppressed(error);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for parallel runs", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static MojoExecutionException toMojoException(Throwable e) {
+        return e instanceof MojoExecutionException
+                ? (MojoExecutionException) e
+                : new MojoExecutionException(e.getMessage(), e);
+    }
+
+    /**
+     * The changed files are listed once per run, for both modules and command files.
+     */
+    private synchronized List<String> getChangedFiles() throws MojoExecutionException {
+        if (changedFiles == null) {
+            try {
+                workTree = getGitFacts().getWorkTree().toAbsolutePath().normalize();
+                changedFiles = getGitFacts().getChangedFiles();
+            } catch (IllegalStateException e) {
+                throw new MojoExecutionException("Could not list the changed files", e);
+            }
+        }
+        return changedFiles;
+    }
+
+    private synchronized Map<MavenProject, List<String>> getModuleFiles()
+            throws MojoExecutionException {
+        if (moduleFiles == null) {
+            List<String> files = getChangedFiles();
+            moduleFiles = ReactorModules.owned(reactorProjects(), workTree, files);
+        }
+        return moduleFiles;
+    }
+
+    private List<MavenProject> reactorProjects() {
+        MavenSession session = config.getMavenSession();
+        if (session != null && session.getProjects() != null) {
+            return session.getProjects();
+        }
+        return Optional.ofNullable(config.getMavenProject()).map(List::of).orElse(List.of());
+    }
+
+    private static String runType(RunConfig runConfig) {
+        if (runConfig.getCommand() != null && !runConfig.getCommand().isEmpty()) {
+            return "command";
+        } else if (runConfig.getClassName() != null) {
+            return "class";
+        } else if (runConfig.getMojo() != null) {
+            return "mojo";
+        }
+        return "none";
+    }
+
+    private static long threadCpuTime() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * Checks that every enabled definition references an available hook class and has valid
+     * conditions before anything runs, so that a misconfiguration does not surface after earlier
+     * definitions already ran.
+     *
+     * @throws MojoExecutionException if at least one definition is invalid
+     */
+    protected void validate() throws MojoExecutionException {
+        List<HookDefinitionConfig> selected = hooksToRun.stream().filter(this::isSelected).toList();
+
+        List<String> unresolved =
+                selected.stream()
+                        .map(HookDefinitionConfig::getRunConfig)
+                        .filter(Objects::nonNull)
+                        .map(RunConfig::getClassName)
+                        .filter(Objects::nonNull)
+                        .filter(className -> !hookIndex.contains(className))
+                        .distinct()
+                        .toList();
+
+        if (!unresolved.isEmpty()) {
+            throw new MojoExecutionException(
+                    "Could not find requested hook names: "
+                            + unresolved
+                            + "; Available hooks: "
+                            + hookIndex.getNames());
+        }
+
+        try {
+            selected.forEach(HookDefinitionConfig::validate);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
         }
+    }
+
+    private boolean isSelected(HookDefinitionConfig h) {
+        return h.isEnabled()
+                && !Optional.ofNullable(config.getSkipRuns())
+                        .orElse(Collections.emptyList())
+                        .contains(h.getName());
+    }
 
-        if (config.getSkipRuns().contains(h.getName())) {
+    private boolean keepRun(HookDefinitionConfig h) {
+        if (!isSelected(h)) {
             return false;
         }
+        Condition condition = h.getRunCondition();
+        boolean keep;
+        try (HookTracer.Span span = tracer.start(HookTracer.Kind.CONDITION, h.getName())) {
+            keep = condition.test(getGitFacts());
+            span.attribute("condition", condition).attribute("result", keep);
+        }
+        log.debug(String.format("Condition %s of %s: %s", condition, h.getName(), keep));
+        return keep;
+    }
 
-        if (h.getSkipIf() != null && h.getSkipIf().getRef() != null) {
-            return !GitUtils.headMatchesRefPattern(
-                    config.getMavenProject().getBasedir().toPath(),
-                    Pattern.compile(h.getSkipIf().getRef()));
+    /**
+     * Git facts are shared by the conditions and the definitions of a run, and only computed when
+     * one of them needs them.
+     */
+    private synchronized GitConditionContext getGitFacts() {
+        if (gitFacts == null) {
+            gitFacts =
+                    new GitConditionContext(
+                            getProjectPath(), System::getenv, getCommitMessageFile());
         }
+        return gitFacts;
+    }
 
-        if (h.getOnlyIf() != null && h.getOnlyIf().getRef() != null) {
-            return GitUtils.headMatchesRefPattern(
-                    config.getMavenProject().getBasedir().toPath(),
-                    Pattern.compile(h.getOnlyIf().getRef()));
+    private synchronized void closeGitFacts() {
+        if (gitFacts != null) {
+            gitFacts.close();
+            gitFacts = null;
         }
+    }
 
-        return true;
+    /**
+     * @return the message file git passes as first argument of the commit message hooks
+     */
+    private Path getCommitMessageFile() {
+        List<String> args = config.getArgs();
+        boolean messageHook =
+                config.getHookType() == HookType.COMMIT_MSG
+                        || config.getHookType() == HookType.PREPARE_COMMIT_MSG;
+        return messageHook && args != null && !args.isEmpty() ? Path.of(args.get(0)) : null;
+    }
+
+    private Path getProjectPath() {
+        return Optional.ofNullable(config.getMavenProject())
+                .map(MavenProject::getBasedir)
+                .map(File::toPath)
+                .orElse(null);
     }
 
     public void run(RunConfig runConfig) throws MojoExecutionException {
+        this.run(runConfig, null);
+    }
+
+    /**
+     * @param module the reactor module to run for, or {@code null} to run for the project
+     * @return the statistics of the commands, {@code null} for other runs
+     */
+    private CommandStats run(RunConfig runConfig, MavenProject module)
+            throws MojoExecutionException {
         if (Stream.of(runConfig.getCommand(), runConfig.getMojo(), runConfig.getClassName())
                 .filter(Objects::nonNull)
                 .toList()
@@ -96,28 +665,28 @@ public class HookRunner {
         }
 
         if (runConfig.getCommand() != null && !runConfig.getCommand().isEmpty()) {
-            this.runCommand(runConfig);
+            return this.runCommand(runConfig, module);
         } else if (runConfig.getClassName() != null) {
-            this.runClass(runConfig);
+            this.runClass(runConfig, module);
         } else if (runConfig.getMojo() != null) {
-            this.runMojo(runConfig);
+            this.runMojo(runConfig, module);
         } else {
             throw new IllegalArgumentException(
                     "Invalid run config: Must specify at least an action");
         }
+        return null;
     }
 
     protected void runMojo(RunConfig runConfig) throws MojoExecutionException {
-        MojoExecutor.executeMojo(
-                runConfig.getMojo().getPlugin(),
-                runConfig.getMojo().getGoal(),
-                Optional.ofNullable(runConfig.getMojo().getConfiguration())
-                        .map(HookRunner::toXpp3Dom)
+        runMojo(runConfig, null);
+    }
+
+    private void runMojo(RunConfig runConfig, MavenProject module) throws MojoExecutionException {
+        mojoResolver.execute(
+                runConfig.getMojo(),
+                Optional.ofNullable(runConfig.getMojo().getConfigurationDom())
                         .orElse(MojoExecutor.configuration()),
-                MojoExecutor.executionEnvironment(
-                        config.getMavenProject(),
-                        config.getMavenSession(),
-                        config.getPluginManager()));
+                module);
     }
 
     /**
@@ -126,7 +695,7 @@ public class HookRunner {
      * @param config the PlexusConfiguration. Must not be {@code null}.
      * @return the Xpp3Dom representation of the PlexusConfiguration
      */
-    private static Xpp3Dom toXpp3Dom(PlexusConfiguration config) {
+    static Xpp3Dom toXpp3Dom(PlexusConfiguration config) {
         Xpp3Dom result = new Xpp3Dom(config.getName());
         result.setValue(config.getValue(null));
         for (String name : config.getAttributeNames()) {
@@ -149,23 +718,49 @@ public class HookRunner {
     }
 
     protected void runClass(RunConfig runConfig) throws MojoExecutionException {
+        runClass(runConfig, null);
+    }
+
+    private void runClass(RunConfig runConfig, MavenProject module)
+            throws MojoExecutionException {
         try {
-            RunnableGitHook hook = this.config.getRunnableHooks()
-                    .entrySet()
-                    .stream()
-                    .filter(e -> e.getKey().equals(runConfig.getClassName()) || e.getValue().getClass().getName().equals(runConfig.getClassName()))
-                    .findFirst().map(Map.Entry::getValue)
-                    .orElseThrow(() -> new IllegalStateException("Could not find requested hook name: " + runConfig.getClassName() + "; Found hooks: " + this.config.getRunnableHooks().toString()));
+            RunnableGitHook hook = hookIndex.get(runConfig.getClassName());
 
             // Run the hook
             String[] args = computeArgs(runConfig).toArray(new String[0]);
+            Path snapshot = runConfig.isStaged() ? getStagedSnapshot().getRoot() : null;
+            // Accepted commits are remembered per hook implementation, on top of its configuration
+            String key = remembersVerifiedCommits() ? verificationKey(runConfig) : null;
+            VerifiedCommits verified = key == null ? null : loadVerifiedCommits("commits " + key);
             hook.run(
-                    new HookContext(config.getMavenProject(), config.getMavenSession(), log), args);
+                    new HookContext.Builder()
+                            .project(module != null ? module : config.getMavenProject())
+                            .session(config.getMavenSession())
+                            .logger(log)
+                            .timings(timings)
+                            .refUpdates(getRefUpdates())
+                            .commitWalker(
+                                    new GitCommitWalker(
+                                            getProjectPath(),
+                                            getRefUpdates(),
+                                            Runtime.getRuntime().availableProcessors(),
+                                            verified))
+                            .stagedSnapshot(snapshot)
+                            .gitFacts(getProjectPath() != null ? getGitFacts() : null)
+                            .build(),
+                    args);
         } catch (Exception e) {
             throw new MojoExecutionException("Error while running hook", e);
         }
     }
 
+    private synchronized RefUpdates getRefUpdates() {
+        if (refUpdates == null) {
+            refUpdates = hookInput.getRefUpdates(config.getHookType(), config.getArgs());
+        }
+        return refUpdates;
+    }
+
     private String getCommandAsPath(String command) throws MojoExecutionException {
         if (command.startsWith(CLASSPATH_PREFIX)) {
             try (InputStream resource = getClass().getClassLoader().getResourceAsStream(command.substring(CLASSPATH_PREFIX.length()))) {
@@ -189,6 +784,34 @@ public class HookRunner {
     }
 
     protected void runCommand(RunConfig runConfig) throws MojoExecutionException {
+        runCommand(runConfig, null);
+    }
+
+    /**
+     * Commands of a module run from its base directory, or from its copy in the staged snapshot.
+     */
+    private Path commandDirectory(RunConfig runConfig, MavenProject module)
+            throws MojoExecutionException, IOException {
+        if (!runConfig.isStaged()) {
+            return module != null ? module.getBasedir().toPath() : null;
+        }
+        Path root = getStagedSnapshot().getRoot();
+        if (module == null) {
+            return root;
+        }
+        Path directory =
+                root.resolve(
+                        workTree.relativize(
+                                module.getBasedir().toPath().toAbsolutePath().normalize()));
+        // Modules whose files are all deleted have no directory in the snapshot
+        return Files.createDirectories(directory);
+    }
+
+    /**
+     * @return the statistics of the processes of the command, {@code null} when none ran
+     */
+    private CommandStats runCommand(RunConfig runConfig, MavenProject module)
+            throws MojoExecutionException {
 
         String copiedScript = this.getCommandAsPath(runConfig.getCommand());
 
@@ -197,16 +820,135 @@ public class HookRunner {
         allArgs.addAll(computeArgs(runConfig));
 
         try {
-            log.info("Executing hook command `" + allArgs + "` ");
-            List<String> aa = List.of(System.getProperty("sh.path", "/bin/sh"), "-c", String.join(" ", allArgs));
-            Process process = Runtime.getRuntime().exec(aa.toArray(new String[0]));
-            executor.submit(
-                    () ->
-                            new BufferedReader(new InputStreamReader(process.getInputStream()))
-                                    .lines()
-                                    .forEach(log::info));
+            Path directory = commandDirectory(runConfig, module);
+            if (runConfig.getFiles() == null) {
+                log.info("Executing hook command `" + allArgs + "` ");
+                return runProcess(runConfig, allArgs, List.of(), directory);
+            }
+
+            List<String> files = commandFiles(runConfig, module, directory);
+            if (files.isEmpty()) {
+                log.info("No changed file matches " + runConfig.getFiles() + ", skipping");
+                return null;
+            }
+            long fixedSize = CommandBatches.size(shellArgs(allArgs, List.of()), System.getenv());
+            List<List<String>> batches =
+                    CommandBatches.split(files, fixedSize, CommandBatches.argMax());
+            log.info(
+                    String.format(
+                            "Executing hook command `%s` on %d files in %d batches",
+                            allArgs, files.size(), batches.size()));
+            Queue<CommandStats> stats = new ConcurrentLinkedQueue<>();
+            runAll(
+                    batches,
+                    runConfig.getBatchParallelism(),
+                    batch -> stats.add(runProcess(runConfig, allArgs, batch, directory)));
+            return CommandStats.sum(stats);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Could not run command: " + allArgs, e);
+        } finally {
+            if (copiedScript != null) {
+                try {
+                    Files.deleteIfExists(Path.of(copiedScript));
+                } catch (IOException e) {
+                    log.warn("Could not remove temporary copy " + copiedScript + " for command " + runConfig.getCommand());
+                }
+            }
+        }
+    }
+
+    /**
+     * Changed files matching {@link RunConfig#getFiles()}, relative to the directory of the
+     * command when they are inside of it. Files deleted by the commit are left out, and so are
+     * the files of other modules when running for a module.
+     */
+    private List<String> commandFiles(RunConfig runConfig, MavenProject module, Path directory)
+            throws MojoExecutionException {
+        List<String> changed =
+                module != null
+                        ? getModuleFiles().getOrDefault(module, List.of())
+                        : getChangedFiles();
+        Path base = runConfig.isStaged() ? getStagedSnapshot().getRoot() : workTree;
+        Path from = Optional.ofNullable(directory).orElseGet(() -> Path.of("")).toAbsolutePath();
+        List<String> files = new ArrayList<>();
+        for (String file : CommandBatches.matching(changed, runConfig.getFiles())) {
+            Path path = base.resolve(file);
+            if (Files.exists(path, LinkOption.NOFOLLOW_LINKS)
+                    && !Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                files.add((path.startsWith(from) ? from.relativize(path) : path).toString());
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Files are passed as positional parameters of the shell, so that they are neither split nor
+     * expanded.
+     */
+    private static List<String> shellArgs(List<String> allArgs, List<String> files) {
+        String script = String.join(" ", allArgs);
+        if (files.isEmpty()) {
+            return List.of(System.getProperty("sh.path", "/bin/sh"), "-c", script);
+        }
+        List<String> shellArgs = new ArrayList<>(files.size() + 4);
+        shellArgs.add(System.getProperty("sh.path", "/bin/sh"));
+        shellArgs.add("-c");
+        shellArgs.add(script + " \"$@\"");
+        shellArgs.add("sh");
+        shellArgs.addAll(files);
+        return shellArgs;
+    }
+
+    /**
+     * @return the statistics of the process, complete once its output is read
+     */
+    private CommandStats runProcess(
+            RunConfig runConfig, List<String> allArgs, List<String> files, Path directory)
+            throws MojoExecutionException {
+        try {
+            ProcessBuilder processBuilder = new ProcessBuilder(shellArgs(allArgs, files));
+            if (directory != null) {
+                // Relative paths of the command resolve to the module, or the staged content
+                processBuilder.directory(directory.toFile());
+            }
+            if (hookInput.getFile() != null) {
+                // Every command gets the full hook input, as if git ran it directly
+                processBuilder.redirectInput(hookInput.getFile().toFile());
+            }
+            if (tracer.isRecording()) {
+                // Let traced commands attach their own spans to the definition span
+                processBuilder.environment().put("TRACEPARENT", tracer.currentTraceParent());
+            }
+            long spawnStart = System.nanoTime();
+            Process process;
+            try (HookTracer.Span ignored =
+                    tracer.start(HookTracer.Kind.SPAWN, runConfig.getCommand())) {
+                process = processBuilder.start();
+            }
+            CommandStats stats = new CommandStats(Duration.ofNanos(System.nanoTime() - spawnStart));
+            Future<?> output =
+                    executor.submit(
+                            () -> {
+                                CountingInputStream in =
+                                        new CountingInputStream(process.getInputStream());
+                                new BufferedReader(new InputStreamReader(in))
+                                        .lines()
+                                        .forEach(log::info);
+                                stats.outputBytes = in.count;
+                                // The process closed its output, it is usually about to exit
+                                // and still reports its CPU usage
+                                stats.cpuTime =
+                                        process.info().totalCpuDuration().orElse(null);
+                            });
 
             int exitCode = process.waitFor();
+            try (HookTracer.Span span =
+                    tracer.start(HookTracer.Kind.OUTPUT, runConfig.getCommand())) {
+                output.get();
+                span.attribute("bytes", stats.outputBytes);
+            } catch (ExecutionException e) {
+                log.debug("Could not read command output", e.getCause());
+            }
             log.info("Exit code is " + exitCode);
             log.info(
                     " The command was finished with the status "
@@ -214,19 +956,75 @@ public class HookRunner {
             if (exitCode != 0) {
                 throw new MojoExecutionException("Command execution failed with code" + exitCode + "; Command was " + allArgs);
             }
+            return stats;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new MojoExecutionException("Could not run command: " + allArgs, e);
         } catch (IOException e) {
             throw new MojoExecutionException("Could not run command: " + allArgs, e);
-        } finally {
-            if (copiedScript != null) {
-                try {
-                    Files.deleteIfExists(Path.of(copiedScript));
-                } catch (IOException e) {
-                    log.warn("Could not remove temporary copy " + copiedScript + " for command " + runConfig.getCommand());
-                }
+        }
+    }
+
+    private interface Task<T> {
+        void run(T item) throws MojoExecutionException;
+    }
+
+    private static final class CommandStats {
+        private final Duration spawnLatency;
+        private volatile long outputBytes;
+        private volatile Duration cpuTime;
+
+        private CommandStats(Duration spawnLatency) {
+            this.spawnLatency = spawnLatency;
+        }
+
+        /**
+         * @return the statistics of several processes of a definition added up, {@code null} when
+         *     there are none
+         */
+        private static CommandStats sum(Collection<CommandStats> all) {
+            if (all.isEmpty()) {
+                return null;
             }
+            CommandStats total =
+                    new CommandStats(
+                            all.stream()
+                                    .map(s -> s.spawnLatency)
+                                    .reduce(Duration.ZERO, Duration::plus));
+            total.outputBytes = all.stream().mapToLong(s -> s.outputBytes).sum();
+            total.cpuTime =
+                    all.stream()
+                            .map(s -> s.cpuTime)
+                            .filter(Objects::nonNull)
+                            .reduce(Duration::plus)
+                            .orElse(null);
+            return total;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
         }
     }
 
@@ -236,7 +1034,13 @@ public class HookRunner {
         private final MavenProject mavenProject;
         private final MavenSession mavenSession;
         private final BuildPluginManager pluginManager;
-        private final Map<String, RunnableGitHook> runnableHooks;
+        private final RunnableHookIndex hookIndex;
+        private final HookTimings timings;
+        private final HookTracer tracer;
+        private final HookType hookType;
+        private final HookInput hookInput;
+        private final boolean protectUnstaged;
+        private final boolean rememberVerifiedCommits;
 
         private HookRunnerConfig(Builder builder) {
             args = builder.args;
@@ -244,7 +1048,13 @@ public class HookRunner {
             mavenProject = builder.mavenProject;
             mavenSession = builder.mavenSession;
             pluginManager = builder.pluginManager;
-            runnableHooks = builder.runnableHooks;
+            hookIndex = builder.hookIndex;
+            timings = builder.timings;
+            tracer = builder.tracer;
+            hookType = builder.hookType;
+            hookInput = builder.hookInput;
+            protectUnstaged = builder.protectUnstaged;
+            rememberVerifiedCommits = builder.rememberVerifiedCommits;
         }
 
         public List<String> getArgs() {
@@ -267,8 +1077,40 @@ public class HookRunner {
             return pluginManager;
         }
 
-        public Map<String, RunnableGitHook> getRunnableHooks() {
-            return runnableHooks;
+        public RunnableHookIndex getHookIndex() {
+            return hookIndex;
+        }
+
+        public HookTimings getTimings() {
+            return timings;
+        }
+
+        public HookTracer getTracer() {
+            return tracer;
+        }
+
+        public HookType getHookType() {
+            return hookType;
+        }
+
+        public HookInput getHookInput() {
+            return hookInput;
+        }
+
+        /**
+         * @return whether the unstaged changes of the staged files are set aside while the
+         *     definitions run, see {@link UnstagedChanges}
+         */
+        public boolean isProtectUnstaged() {
+            return protectUnstaged;
+        }
+
+        /**
+         * @return whether {@code pre-push} definitions remember the commits they accepted, see
+         *     {@link VerifiedCommits}
+         */
+        public boolean isRememberVerifiedCommits() {
+            return rememberVerifiedCommits;
         }
 
         public static final class Builder {
@@ -277,7 +1119,13 @@ public class HookRunner {
             private MavenProject mavenProject;
             private MavenSession mavenSession;
             private BuildPluginManager pluginManager;
-            private Map<String, RunnableGitHook> runnableHooks;
+            private RunnableHookIndex hookIndex;
+            private HookTimings timings;
+            private HookTracer tracer;
+            private HookType hookType;
+            private HookInput hookInput;
+            private boolean protectUnstaged;
+            private boolean rememberVerifiedCommits;
 
             public Builder() {
             }
@@ -308,7 +1156,42 @@ public class HookRunner {
             }
 
             public Builder runnableHooks(Map<String, RunnableGitHook> runnableHooks) {
-                this.runnableHooks = runnableHooks;
+                this.hookIndex = new RunnableHookIndex(runnableHooks);
+                return this;
+            }
+
+            public Builder hookIndex(RunnableHookIndex hookIndex) {
+                this.hookIndex = hookIndex;
+                return this;
+            }
+
+            public Builder timings(HookTimings timings) {
+                this.timings = timings;
+                return this;
+            }
+
+            public Builder tracer(HookTracer tracer) {
+                this.tracer = tracer;
+                return this;
+            }
+
+            public Builder hookType(HookType hookType) {
+                this.hookType = hookType;
+                return this;
+            }
+
+            public Builder hookInput(HookInput hookInput) {
+                this.hookInput = hookInput;
+                return this;
+            }
+
+            public Builder protectUnstaged(boolean protectUnstaged) {
+                this.protectUnstaged = protectUnstaged;
+                return this;
+            }
+
+            public Builder rememberVerifiedCommits(boolean rememberVerifiedCommits) {
+                this.rememberVerifiedCommits = rememberVerifiedCommits;
                 return this;
             }
 
@@ -16,16 +16,15 @@
 
 package io.github.willena.maven.plugins.githooks;
 
-import static java.nio.file.StandardOpenOption.CREATE;
-import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
-
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.Velocity;
 import org.apache.velocity.exception.ParseErrorException;
@@ -43,6 +42,7 @@ public class HookScriptWriter {
 
     private static final String DEFAULT_HOOK_SCRIPT_TEMPLATE =
             "\n" +
+                    "hookStart=$(date +%s%3N);\n" + // Milliseconds, used to measure the Maven bootstrap time
                     "args=$(IFS=, ; echo \"$*\");\n" +
                     "export PATH=\"${javaBin}:${mavenBin}:$PATH\";\n" +
                     "export JAVA_HOME=\"${javaHome}\";\n" +
@@ -50,39 +50,174 @@ public class HookScriptWriter {
                     "alias type='type -p';\n" + // Required to keep next line as a one-liner
                     "shPath=$($(command -v where || command -v type) sh);\n"+ // where is windows specific but available allows to get the windows based path; Type is bash native.
                     "unalias type;\n" + // But stay clean :)
-                    "mvn githooks:run \"-Dsh.path=${shPath}\" \"-Dhook.name=${hookName}\" \"-Dhook.args=${args}\";";
+                    "mvn githooks:run \"-Dsh.path=${shPath}\" \"-Dhook.name=${hookName}\" \"-Dhook.args=${args}\" \"-Dhook.startTime=${hookStart}\" \"-Dhook.stdin=${hookStdin}\";";
+
+    // Answers git from the journal of the FsMonitorDaemon, starting the daemon when needed. The
+    // daemon is alive when its pid runs and its heartbeat is recent, as the pid may be reused
+    private static final String FSMONITOR_SCRIPT_TEMPLATE =
+            "#!/bin/sh\n" +
+                    "[ \"$1\" = 2 ] || exit 1;\n" + // Only the token based protocol is supported
+                    "dir=\"$(git rev-parse --git-dir)/githooks/fsmonitor\";\n" +
+                    "pid=$(cat \"$dir/pid\" 2>/dev/null);\n" +
+                    "if [ -z \"$pid\" ] || ! kill -0 \"$pid\" 2>/dev/null" +
+                    " || [ -z \"$(find \"$dir/heartbeat\" -mmin -1 2>/dev/null)\" ]; then\n" +
+                    "  if [ -z \"$(find \"$dir/starting\" -mmin -1 2>/dev/null)\" ]; then\n" +
+                    "    mkdir -p \"$dir\" && : > \"$dir/starting\";\n" +
+                    "    export PATH=\"${javaBin}:${mavenBin}:$PATH\";\n" +
+                    "    export JAVA_HOME=\"${javaHome}\";\n" +
+                    "    export MAVEN_HOME=\"${mavenHome}\";\n" +
+                    "    (nohup mvn -q githooks:fsmonitor </dev/null >/dev/null 2>&1 &);\n" +
+                    "  fi\n" +
+                    "  printf '0:0\\0/\\0';\n" + // Unknown token and "everything changed"
+                    "  exit 0;\n" +
+                    "fi\n" +
+                    // The daemon is still walking the work tree
+                    "[ -s \"$dir/generation\" ] || { printf '0:0\\0/\\0'; exit 0; };\n" +
+                    // Wait for the daemon to journal the changes made so far, 1s at most
+                    "cookie=\"$dir/cookies/$$\";\n" +
+                    ": > \"$cookie\" 2>/dev/null;\n" +
+                    "i=0;\n" +
+                    "while [ -e \"$cookie\" ] && [ $i -lt 100 ]; do sleep 0.01; i=$((i + 1)); done;\n" +
+                    "if [ -e \"$cookie\" ]; then rm -f \"$cookie\"; printf '0:0\\0/\\0'; exit 0; fi\n" +
+                    "gen=$(cat \"$dir/generation\" 2>/dev/null);\n" +
+                    "journal=\"$dir/journal-$gen\";\n" +
+                    "size=$(($(wc -c < \"$journal\")));\n" +
+                    "printf '%s:%s\\0' \"$gen\" \"$size\";\n" +
+                    "IFS=:; set -- $2; unset IFS;\n" + // Token is <generation>:<journal offset>
+                    "if [ \"$1\" = \"$gen\" ] && [ \"$2\" -le \"$size\" ] 2>/dev/null; then\n" +
+                    "  tail -c +$(($2 + 1)) \"$journal\" | head -c $((size - $2));\n" +
+                    "else\n" +
+                    "  printf '/\\0';\n" +
+                    "fi\n";
+
+    // Checks the message file against the rules of a CommitMessageConfig. Patterns come from the
+    // environment, so that awk does not interpret their escapes
+    private static final String COMMIT_MESSAGE_PROGRAM =
+            "BEGIN {\n" +
+                    "  subjectPattern = ENVIRON[\"GITHOOKS_SUBJECT\"];\n" +
+                    "  ignorePattern = ENVIRON[\"GITHOOKS_IGNORE\"];\n" +
+                    "  t = split(ENVIRON[\"GITHOOKS_TRAILERS\"], trailers, \" \");\n" +
+                    "}\n" +
+                    "/^# -+ >8 -+$/ { exit }\n" + // Below the scissors line of git commit -v
+                    "/^#/ { next }\n" +
+                    "{ lines[++n] = $0 }\n" +
+                    "function fail(message) {\n" +
+                    "  print \"commit-msg: \" message > \"/dev/stderr\"; errors++;\n" +
+                    "}\n" +
+                    "END {\n" +
+                    "  while (n > 0 && lines[n] ~ /^[ \\t]*$/) n--;\n" +
+                    "  s = 1; while (s <= n && lines[s] ~ /^[ \\t]*$/) s++;\n" +
+                    "  if (s > n) exit 0;\n" + // Empty messages are rejected by git itself
+                    "  subject = lines[s];\n" +
+                    "  if (ignorePattern != \"\" && subject ~ ignorePattern) exit 0;\n" +
+                    "  if (subjectPattern != \"\" && subject !~ subjectPattern)\n" +
+                    "    fail(\"the subject does not match \" subjectPattern);\n" +
+                    "  if (maxSubject > 0 && length(subject) > maxSubject)\n" +
+                    "    fail(\"the subject is longer than \" maxSubject \" characters\");\n" +
+                    "  for (i = s + 1; i <= n; i++)\n" +
+                    "    if (maxLine > 0 && length(lines[i]) > maxLine)\n" +
+                    "      fail(\"line \" (i - s + 1) \" is over \" maxLine \" characters\");\n" +
+                    "  for (j = 1; j <= t; j++) {\n" +
+                    "    found = 0;\n" +
+                    "    for (i = s + 1; i <= n; i++)\n" +
+                    "      if (index(lines[i], trailers[j] \": \") == 1) found = 1;\n" +
+                    "    if (!found) fail(\"the \" trailers[j] \" trailer is missing\");\n" +
+                    "  }\n" +
+                    "  exit (errors > 0);\n" +
+                    "}\n";
 
     private final String template;
     private final String mavenHome;
     private final String javaHome;
+    private final boolean debug;
+    private final Path sharedArchive;
 
     protected HookScriptWriter(
             String hookTemplate, String mavenHome, String javaHome, boolean debug) {
+        this(hookTemplate, mavenHome, javaHome, debug, null);
+    }
+
+    /**
+     * @param sharedArchive class data sharing archive of the Maven started by the scripts, or
+     *     {@code null} to start it without one
+     */
+    protected HookScriptWriter(
+            String hookTemplate,
+            String mavenHome,
+            String javaHome,
+            boolean debug,
+            Path sharedArchive) {
         this.template =
                 Optional.ofNullable(hookTemplate)
                         .orElse((debug ? SHELL_DEBUG : SHELL) + DEFAULT_HOOK_SCRIPT_TEMPLATE);
         this.mavenHome = mavenHome;
         this.javaHome = javaHome;
+        this.debug = debug;
+        this.sharedArchive = sharedArchive;
     }
 
     public Path writeHook(HookType hookType, Path repositoryHooksPath) throws IOException {
-        VelocityContext velocityContext = new VelocityContext();
-        velocityContext.put("javaBin", javaHome != null ? Path.of(javaHome).resolve("bin") : null);
-        velocityContext.put(
-                "mavenBin", mavenHome != null ? Path.of(mavenHome).resolve("bin") : null);
-        velocityContext.put("mavenHome", mavenHome);
-        velocityContext.put("javaHome", javaHome);
-        velocityContext.put("hookName", hookType.name());
+        return writeHook(hookType, null, repositoryHooksPath);
+    }
 
-        Path hookScriptPath = Path.of(repositoryHooksPath.toString(), hookType.getFileName());
+    /**
+     * Writes the script of a hook. When {@link #canDispatchNatively(HookType, List)} allows it, the
+     * script runs the commands of the definitions itself instead of starting Maven.
+     *
+     * @param hookType the hook
+     * @param definitions the definitions of the hook, may be {@code null}
+     * @param repositoryHooksPath the git hooks directory
+     * @return the written script
+     * @throws IOException if the script cannot be written
+     */
+    public Path writeHook(
+            HookType hookType, List<HookDefinitionConfig> definitions, Path repositoryHooksPath)
+            throws IOException {
+        return writeHook(hookType, definitions, null, repositoryHooksPath);
+    }
 
-        try (BufferedWriter writer =
-                Files.newBufferedWriter(hookScriptPath, TRUNCATE_EXISTING, CREATE)) {
-            if (!Velocity.evaluate(velocityContext, writer, "script-template", template)) {
-                throw new IllegalStateException("Could not generate script");
+    /**
+     * Writes the script of a hook, checking the commit message rules first when given. A {@code
+     * commit-msg} script without enabled definitions then never starts Maven.
+     *
+     * @param hookType the hook
+     * @param definitions the definitions of the hook, may be {@code null}
+     * @param commitMessage the rules of the message, for {@code COMMIT_MSG} only, may be {@code
+     *     null}
+     * @param repositoryHooksPath the git hooks directory
+     * @return the written script
+     * @throws IOException if the script cannot be written
+     */
+    public Path writeHook(
+            HookType hookType,
+            List<HookDefinitionConfig> definitions,
+            CommitMessageConfig commitMessage,
+            Path repositoryHooksPath)
+            throws IOException {
+        Path hookScriptPath = Path.of(repositoryHooksPath.toString(), hookType.getFileName());
+        if (commitMessage != null) {
+            if (hookType != HookType.COMMIT_MSG) {
+                throw new IllegalArgumentException(
+                        "Commit message rules only apply to COMMIT_MSG, not " + hookType);
             }
-        } catch (ParseErrorException e) {
-            throw new IllegalArgumentException("Could not parse template string", e);
+            StringBuilder script =
+                    new StringBuilder(debug ? SHELL_DEBUG : SHELL)
+                            .append('\n')
+                            .append(commitMessageScript(commitMessage));
+            boolean hasDefinitions =
+                    definitions != null
+                            && definitions.stream().anyMatch(HookDefinitionConfig::isEnabled);
+            if (hasDefinitions) {
+                String maven = renderTemplate(hookType);
+                // The rules already started the script
+                script.append(
+                        maven.startsWith("#!") ? maven.substring(maven.indexOf('\n') + 1) : maven);
+            }
+            Files.writeString(hookScriptPath, script);
+        } else if (canDispatchNatively(hookType, definitions)) {
+            Files.writeString(hookScriptPath, nativeScript(hookType, definitions));
+        } else {
+            Files.writeString(hookScriptPath, renderTemplate(hookType));
         }
 
         if (repositoryHooksPath.getFileSystem().supportedFileAttributeViews().contains("posix")) {
@@ -94,4 +229,152 @@ public class HookScriptWriter {
 
         return hookScriptPath;
     }
+
+    /**
+     * Tells whether the script of a hook can run its definitions without Maven. This is only done
+     * for the hooks git runs many times per command, when every enabled definition is an
+     * unconditional command outside of the plugin classpath, running once on the working tree
+     * without changed files appended. Such scripts do not honor {@code hook.skipRuns} and do not record timings.
+     *
+     * @param hookType the hook
+     * @param definitions the definitions of the hook
+     * @return true if the hook can be dispatched by the shell
+     */
+    static boolean canDispatchNatively(HookType hookType, List<HookDefinitionConfig> definitions) {
+        if (!hookType.isHighFrequency() || definitions == null) {
+            return false;
+        }
+        return definitions.stream()
+                .filter(HookDefinitionConfig::isEnabled)
+                .allMatch(
+                        d -> {
+                            RunConfig run = d.getRunConfig();
+                            return run != null
+                                    && run.getCommand() != null
+                                    && !run.getCommand().isEmpty()
+                                    && !run.getCommand().startsWith(HookRunner.CLASSPATH_PREFIX)
+                                    && run.getClassName() == null
+                                    && run.getMojo() == null
+                                    && !run.isStaged()
+                                    && !run.isPerModule()
+                                    && run.getFiles() == null
+                                    && d.getRunCondition() == Conditions.ALWAYS;
+                        });
+    }
+
+    /**
+     * Builds a script running the enabled commands in order, each with its static arguments
+     * followed by the git ones, and stopping at the first failure like the {@code run} goal.
+     * Commands are interpreted by the shell, as with the {@code run} goal.
+     */
+    String nativeScript(HookType hookType, List<HookDefinitionConfig> definitions) {
+        List<String> commands =
+                definitions.stream()
+                        .filter(HookDefinitionConfig::isEnabled)
+                        .map(HookDefinitionConfig::getRunConfig)
+                        .map(
+                                run ->
+                                        String.join(
+                                                " ",
+                                                Stream.concat(
+                                                                Stream.of(run.getCommand()),
+                                                                Optional.ofNullable(run.getArgs())
+                                                                        .orElse(List.of())
+                                                                        .stream())
+                                                        .toList()))
+                        .toList();
+
+        StringBuilder script = new StringBuilder(debug ? SHELL_DEBUG : SHELL).append('\n');
+        boolean spool = hookType.readsStdin() && commands.size() > 1;
+        if (spool) {
+            // Every command gets the full hook input
+            script.append("input=$(mktemp) || exit 1;\n")
+                    .append("trap 'rm -f \"$input\"' EXIT;\n")
+                    .append("cat > \"$input\";\n");
+        }
+        for (String command : commands) {
+            // Grouped so that the whole command line gets the input, as with sh -c
+            script.append("{ ").append(command).append(" \"$@\"; }");
+            if (spool) {
+                script.append(" < \"$input\"");
+            }
+            script.append(" || exit $?;\n");
+        }
+        return script.toString();
+    }
+
+    /**
+     * Builds the lines checking the message file git passes as first argument against the rules,
+     * exiting with an error when one of them is not followed.
+     */
+    String commitMessageScript(CommitMessageConfig rules) {
+        return "GITHOOKS_SUBJECT="
+                + quote(rules.getSubjectPattern())
+                + " GITHOOKS_IGNORE="
+                + quote(rules.getIgnorePattern())
+                + " GITHOOKS_TRAILERS="
+                + quote(
+                        String.join(
+                                " ",
+                                Optional.ofNullable(rules.getRequiredTrailers())
+                                        .orElse(List.of())))
+                + " awk -v maxSubject="
+                + Optional.ofNullable(rules.getMaxSubjectLength()).orElse(0)
+                + " -v maxLine="
+                + Optional.ofNullable(rules.getMaxLineLength()).orElse(0)
+                + " "
+                + quote(COMMIT_MESSAGE_PROGRAM)
+                + " \"$1\" || exit 1;\n";
+    }
+
+    private static String quote(String value) {
+        return "'" + Optional.ofNullable(value).orElse("").replace("'", "'\\''") + "'";
+    }
+
+    /**
+     * Builds the line making the JVM of Maven map its classes from an AppCDS archive. The archive
+     * is written when the JVM exits, and written again when it no longer matches the JDK or the
+     * classpath (Java 19 or newer); otherwise, or when it is invalid, the JVM starts without it.
+     * Older JVMs ignore the options they do not know.
+     */
+    static String sharedArchiveOptions(Path archive) {
+        return "export MAVEN_OPTS=\"-XX:+IgnoreUnrecognizedVMOptions -Xshare:auto"
+                + " -XX:SharedArchiveFile="
+                + archive
+                + " -XX:+AutoCreateSharedArchive $MAVEN_OPTS\";\n";
+    }
+
+    private String renderTemplate(HookType hookType) throws IOException {
+        VelocityContext velocityContext = new VelocityContext();
+        velocityContext.put("javaBin", javaHome != null ? Path.of(javaHome).resolve("bin") : null);
+        velocityContext.put(
+                "mavenBin", mavenHome != null ? Path.of(mavenHome).resolve("bin") : null);
+        velocityContext.put("mavenHome", mavenHome);
+        velocityContext.put("javaHome", javaHome);
+        velocityContext.put("hookName", hookType.name());
+        velocityContext.put("hookStdin", hookType.readsStdin());
+
+        StringWriter writer = new StringWriter();
+        try {
+            String hookTemplate =
+                    hookType == HookType.FSMONITOR_WATCHMAN ? FSMONITOR_SCRIPT_TEMPLATE : template;
+            if (!Velocity.evaluate(velocityContext, writer, "script-template", hookTemplate)) {
+                throw new IllegalStateException("Could not generate script");
+            }
+            String script = writer.toString();
+            if (sharedArchive == null || hookType == HookType.FSMONITOR_WATCHMAN) {
+                return script;
+            }
+            // Right after the shebang line, before Maven is started
+            int start = script.startsWith("#!") ? script.indexOf('\n') + 1 : 0;
+            if (start == 0 && script.startsWith("#!")) {
+                return script;
+            }
+            return script.substring(0, start)
+                    + sharedArchiveOptions(sharedArchive)
+                    + script.substring(start);
+        } catch (ParseErrorException e) {
+            throw new IllegalArgumentException("Could not parse template string", e);
+        }
+    }
 }
@@ -0,0 +1,434 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records the spans of a hook run. Every span is emitted as a JFR event and, when a trace file is
+ * configured, kept to be written as a Chrome trace-event JSON file that can be opened in {@code
+ * chrome://tracing} or Perfetto.
+ *
+ * <p>Spans carry W3C trace context identifiers, so that they can also be exported by {@link
+ * OtlpJsonExporter} and continue a trace started by the caller.
+ */
+public class HookTracer {
+    private static final Pattern TRACE_PARENT =
+            Pattern.compile("[0-9a-f]{2}-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}");
+
+    private final Path traceFile;
+    private final boolean keepSpans;
+    private final String traceId;
+    private final String remoteParentSpanId;
+    private final long originEpochNanos;
+    private final long originNanos;
+    private final List<TraceEvent> events = new ArrayList<>();
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private volatile Span root;
+
+    /**
+     * @param traceFile Chrome trace file to write, {@code null} to only emit JFR events
+     */
+    public HookTracer(Path traceFile) {
+        this(traceFile, false, null);
+    }
+
+    /**
+     * @param traceFile Chrome trace file to write, {@code null} for none
+     * @param keepSpans keep the spans for an exporter even without trace file
+     * @param traceParent W3C {@code traceparent} of the caller, {@code null} to start a new trace
+     */
+    public HookTracer(Path traceFile, boolean keepSpans, String traceParent) {
+        this.traceFile = traceFile;
+        this.keepSpans = keepSpans || traceFile != null;
+        Matcher parent =
+                TRACE_PARENT.matcher(traceParent == null ? "" : traceParent.trim());
+        if (parent.matches()) {
+            this.traceId = parent.group(1);
+            this.remoteParentSpanId = parent.group(2);
+        } else {
+            this.traceId = randomHex(16);
+            this.remoteParentSpanId = null;
+        }
+        this.originEpochNanos = System.currentTimeMillis() * 1_000_000L;
+        this.originNanos = System.nanoTime();
+    }
+
+    /**
+     * @return a tracer only emitting JFR events
+     */
+    public static HookTracer jfrOnly() {
+        return new HookTracer(null);
+    }
+
+    public Path getTraceFile() {
+        return traceFile;
+    }
+
+    /**
+     * @return true if spans are kept for the trace file or an exporter
+     */
+    public boolean isRecording() {
+        return keepSpans;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * @return the W3C {@code traceparent} of the innermost span open on the current thread, to
+     *     propagate to child processes
+     */
+    public String currentTraceParent() {
+        Span span = current.get();
+        String spanId = span != null ? span.spanId : parentSpanId();
+        return "00-" + traceId + "-" + (spanId != null ? spanId : randomHex(8)) + "-01";
+    }
+
+    /**
+     * Starts a span, ended when closed.
+     *
+     * @param kind kind of span
+     * @param name name of the span, for example the definition name
+     * @return the span
+     */
+    public Span start(Kind kind, String name) {
+        return new Span(kind, name);
+    }
+
+    /**
+     * Wraps a task handed to another thread, so that the spans it starts are children of the span
+     * open on the calling thread, which the other thread does not see.
+     *
+     * @param task the task
+     * @return the task, run under the current span of the calling thread
+     */
+    public Runnable wrap(Runnable task) {
+        Span parent = current.get();
+        return () -> {
+            Span previous = setCurrent(parent);
+            try {
+                task.run();
+            } finally {
+                setCurrent(previous);
+            }
+        };
+    }
+
+    /**
+     * @param task the task
+     * @return the task, run under the current span of the calling thread
+     * @see #wrap(Runnable)
+     */
+    public <V> Callable<V> wrap(Callable<V> task) {
+        Span parent = current.get();
+        return () -> {
+            Span previous = setCurrent(parent);
+            try {
+                return task.call();
+            } finally {
+                setCurrent(previous);
+            }
+        };
+    }
+
+    private Span setCurrent(Span span) {
+        Span previous = current.get();
+        if (span != null) {
+            current.set(span);
+        } else {
+            current.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * Records a span that started before the tracer existed and ends now, such as the Maven
+     * bootstrap. It is only written to the trace file.
+     *
+     * @param kind kind of span
+     * @param name name of the span
+     * @param duration duration of the span
+     */
+    public void recordEndingNow(Kind kind, String name, Duration duration) {
+        if (keepSpans) {
+            long end = System.nanoTime();
+            add(
+                    new TraceEvent(
+                            kind,
+                            name,
+                            randomHex(8),
+                            remoteParentSpanId,
+                            end - duration.toNanos(),
+                            end,
+                            Map.of()));
+        }
+    }
+
+    /**
+     * Writes the recorded spans to the trace file, if any.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void write() throws IOException {
+        if (traceFile == null) {
+            return;
+        }
+        List<TraceEvent> snapshot;
+        synchronized (events) {
+            snapshot = List.copyOf(events);
+        }
+        Path parent = traceFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(traceFile, StandardCharsets.UTF_8)) {
+            writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write('\n');
+                writeEvent(writer, snapshot.get(i));
+            }
+            writer.write("\n]}\n");
+        }
+    }
+
+    List<TraceEvent> getEvents() {
+        synchronized (events) {
+            return List.copyOf(events);
+        }
+    }
+
+    private void writeEvent(BufferedWriter writer, TraceEvent event) throws IOException {
+        writer.write("{\"name\":");
+        writer.write(json(event.name));
+        writer.write(",\"cat\":");
+        writer.write(json(event.kind.getCategory()));
+        writer.write(",\"ph\":\"X\",\"ts\":");
+        writer.write(Long.toString(toEpochMicros(event.startNanos)));
+        writer.write(",\"dur\":");
+        writer.write(Long.toString(Math.max(0, (event.endNanos - event.startNanos) / 1000)));
+        writer.write(",\"pid\":");
+        writer.write(Long.toString(ProcessHandle.current().pid()));
+        writer.write(",\"tid\":");
+        writer.write(Long.toString(event.threadId));
+        writer.write(",\"args\":{");
+        boolean first = true;
+        for (Map.Entry<String, String> arg : event.args.entrySet()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writer.write(json(arg.getKey()));
+            writer.write(':');
+            writer.write(json(arg.getValue()));
+        }
+        writer.write("}}");
+    }
+
+    private long toEpochMicros(long nanos) {
+        return toEpochNanos(nanos) / 1000;
+    }
+
+    /**
+     * @param nanos a {@link System#nanoTime()} value
+     * @return the matching time in nanoseconds since the epoch
+     */
+    long toEpochNanos(long nanos) {
+        return originEpochNanos + (nanos - originNanos);
+    }
+
+    /** Parent of spans started outside of any other span of their thread. */
+    private String parentSpanId() {
+        Span run = root;
+        return run != null ? run.spanId : remoteParentSpanId;
+    }
+
+    private static String randomHex(int bytes) {
+        StringBuilder sb = new StringBuilder(bytes * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < bytes; i++) {
+            sb.append(String.format(Locale.ROOT, "%02x", random.nextInt(256)));
+        }
+        return sb.toString();
+    }
+
+    private void add(TraceEvent event) {
+        synchronized (events) {
+            events.add(event);
+        }
+    }
+
+    static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    public enum Kind {
+        BOOTSTRAP("bootstrap"),
+        RUN("run"),
+        CONDITION("condition"),
+        DEFINITION("definition"),
+        SPAWN("process"),
+        MOJO_RESOLUTION("mojo"),
+        SNAPSHOT("snapshot"),
+        UNSTAGED("unstaged"),
+        OUTPUT("output");
+
+        private final String category;
+
+        Kind(String category) {
+            this.category = category;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+    }
+
+    /** A running span. Attributes are only kept for the trace file and the JFR detail field. */
+    public final class Span implements AutoCloseable {
+        private final Kind kind;
+        private final String name;
+        private final String spanId;
+        private final String parentSpanId;
+        private final Span previous;
+        private final long startNanos;
+        private final HookEvents.HookEvent event;
+        private Map<String, String> args;
+
+        private Span(Kind kind, String name) {
+            this.kind = kind;
+            this.name = name;
+            this.previous = current.get();
+            this.parentSpanId = previous != null ? previous.spanId : parentSpanId();
+            this.spanId = randomHex(8);
+            current.set(this);
+            if (kind == Kind.RUN && root == null) {
+                root = this;
+            }
+            HookEvents.HookEvent jfrEvent = HookEvents.create(kind, name);
+            this.event = jfrEvent != null && jfrEvent.isEnabled() ? jfrEvent : null;
+            if (event != null) {
+                event.begin();
+            }
+            this.startNanos = System.nanoTime();
+        }
+
+        public Span attribute(String key, Object value) {
+            if (args == null) {
+                args = new LinkedHashMap<>();
+            }
+            args.put(key, String.valueOf(value));
+            return this;
+        }
+
+        public String getSpanId() {
+            return spanId;
+        }
+
+        @Override
+        public void close() {
+            long endNanos = System.nanoTime();
+            setCurrent(previous);
+            Map<String, String> attributes = args == null ? Map.of() : args;
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.detail = attributes.isEmpty() ? null : attributes.toString();
+                    event.commit();
+                }
+            }
+            if (keepSpans) {
+                add(
+                        new TraceEvent(
+                                kind,
+                                name,
+                                spanId,
+                                parentSpanId,
+                                startNanos,
+                                endNanos,
+                                attributes));
+            }
+        }
+    }
+
+    static final class TraceEvent {
+        final Kind kind;
+        final String name;
+        final String spanId;
+        final String parentSpanId;
+        final long startNanos;
+        final long endNanos;
+        final long threadId;
+        final Map<String, String> args;
+
+        private TraceEvent(
+                Kind kind,
+                String name,
+                String spanId,
+                String parentSpanId,
+                long startNanos,
+                long endNanos,
+                Map<String, String> args) {
+            this.kind = kind;
+            this.name = name;
+            this.spanId = spanId;
+            this.parentSpanId = parentSpanId;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.threadId = Thread.currentThread().getId();
+            this.args = args;
+        }
+    }
+}
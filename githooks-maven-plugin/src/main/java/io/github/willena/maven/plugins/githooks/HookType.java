@@ -127,6 +127,41 @@ public enum HookType {
         return filename;
     }
 
+    /**
+     * Tells whether git writes data on the standard input of this hook. {@code proc-receive} is
+     * left out: it talks with git over its standard input and output, both ways.
+     *
+     * @return true if the hook input must be read
+     */
+    public boolean readsStdin() {
+        return switch (this) {
+            case PRE_PUSH, PRE_RECEIVE, POST_RECEIVE, REFERENCE_TRANSACTION, POST_REWRITE -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Tells whether git runs this hook many times per command, so that starting Maven for each
+     * call slows down every git operation.
+     *
+     * @return true for {@code reference-transaction} and {@code post-index-change}
+     */
+    public boolean isHighFrequency() {
+        return this == REFERENCE_TRANSACTION || this == POST_INDEX_CHANGE;
+    }
+
+    /**
+     * @return the format of the reference updates written on the standard input of this hook, or
+     *     {@code null} if it does not receive any
+     */
+    public RefUpdate.Format getRefUpdateFormat() {
+        return switch (this) {
+            case PRE_PUSH -> RefUpdate.Format.PUSH;
+            case PRE_RECEIVE, POST_RECEIVE, REFERENCE_TRANSACTION -> RefUpdate.Format.RECEIVE;
+            default -> null;
+        };
+    }
+
     public static final Set<String> ALL_HOOKS_FILENAMES =
             Arrays.stream(HookType.values()).map(HookType::getFileName).collect(Collectors.toSet());
 }
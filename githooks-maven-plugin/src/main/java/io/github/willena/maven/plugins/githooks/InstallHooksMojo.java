@@ -20,9 +20,13 @@ import static io.github.willena.maven.plugins.githooks.HookType.ALL_HOOKS_FILENA
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -62,6 +66,13 @@ public class InstallHooksMojo extends AbstractMojo {
     @Parameter(name = "skip", property = "hook.skip")
     private boolean skip;
 
+    /**
+     * Start the Maven of the hooks with an AppCDS archive of its classes, kept in {@code
+     * .git/githooks/hooks.jsa}.
+     */
+    @Parameter(name = "classDataSharing", property = "hook.classDataSharing")
+    private boolean classDataSharing;
+
     public boolean isSkip() {
         return skip;
     }
@@ -76,6 +87,8 @@ public class InstallHooksMojo extends AbstractMojo {
             return;
         }
 
+        validateHooks();
+
         Path currentProjectPath = mavenProject.getBasedir().toPath();
 
         applyGitConfiguration(currentProjectPath);
@@ -94,11 +107,39 @@ public class InstallHooksMojo extends AbstractMojo {
 
             getLog().info(String.format("Installing hooks into %s", hooksPaths));
             HookScriptWriter hookWriter =
-                    new HookScriptWriter(hookScriptTemplate, mavenHome, javaHome, debug);
+                    new HookScriptWriter(
+                            hookScriptTemplate,
+                            mavenHome,
+                            javaHome,
+                            debug,
+                            refreshSharedArchive(currentProjectPath));
 
             for (HookConfig hookConfig : hooks) {
                 getLog().debug(String.format("Installing %s", hookConfig.getType().getFileName()));
-                Path p = hookWriter.writeHook(hookConfig.getType(), hooksPaths);
+                if (hookConfig.getType() == HookType.FSMONITOR_WATCHMAN
+                        && hookConfig.getHookDefinitions() != null
+                        && !hookConfig.getHookDefinitions().isEmpty()) {
+                    getLog().warn(
+                            "FSMONITOR_WATCHMAN is answered by the built-in filesystem monitor,"
+                                    + " its hook definitions are ignored");
+                }
+                HookType type = hookConfig.getType();
+                List<HookDefinitionConfig> definitions = hookConfig.getHookDefinitions();
+                if (hookConfig.getCommitMessage() != null) {
+                    getLog().info(type + " checks the commit message without starting Maven");
+                }
+                if (HookScriptWriter.canDispatchNatively(type, definitions)) {
+                    getLog().info(type + " runs its commands without starting Maven");
+                } else if (type.isHighFrequency()) {
+                    getLog().warn(
+                            type
+                                    + " is called many times per git command and starts Maven each"
+                                    + " time; use unconditional commands only to run it from the"
+                                    + " shell");
+                }
+                Path p =
+                        hookWriter.writeHook(
+                                type, definitions, hookConfig.getCommitMessage(), hooksPaths);
                 getLog().debug(String.format("Installed %s", p));
             }
         } catch (IOException e) {
@@ -106,6 +147,68 @@ public class InstallHooksMojo extends AbstractMojo {
         }
     }
 
+    /**
+     * Removes the class data sharing archive of the previous installation, so that the first hook
+     * run writes one matching the current plugin and JDK. Whether the JVM of the hooks can write it
+     * is only known when they run, older JVMs ignore the options.
+     *
+     * @return the archive the hooks should use, or {@code null} when they start without one
+     */
+    protected Path refreshSharedArchive(Path currentProjectPath) throws IOException {
+        File gitDir = GitUtils.getRepositoryPath(currentProjectPath.toFile());
+        if (gitDir == null) {
+            return null;
+        }
+        Path archive = gitDir.toPath().toAbsolutePath().resolve("githooks").resolve("hooks.jsa");
+        Files.deleteIfExists(archive);
+        if (!classDataSharing) {
+            return null;
+        }
+        if (archive.toString().chars().anyMatch(Character::isWhitespace)) {
+            // MAVEN_OPTS is split on whitespace by the mvn launcher
+            getLog().warn("Class data sharing is disabled, " + archive + " contains whitespace");
+            return null;
+        }
+        Files.createDirectories(archive.getParent());
+        getLog().info("Hooks start Maven with the class data sharing archive " + archive);
+        return archive;
+    }
+
+    /**
+     * Validates the hook definitions so that configuration errors are reported at install time
+     * rather than when git triggers the hook.
+     *
+     * @throws MojoExecutionException if a hook definition is invalid
+     */
+    protected void validateHooks() throws MojoExecutionException {
+        for (HookConfig hookConfig : Optional.ofNullable(hooks).orElse(Collections.emptyList())) {
+            CommitMessageConfig commitMessage = hookConfig.getCommitMessage();
+            if (commitMessage != null) {
+                if (hookConfig.getType() != HookType.COMMIT_MSG) {
+                    throw new MojoExecutionException(
+                            hookConfig.getType()
+                                    + ": commitMessage rules only apply to COMMIT_MSG hooks");
+                }
+                try {
+                    commitMessage.validate();
+                } catch (IllegalArgumentException e) {
+                    throw new MojoExecutionException(
+                            hookConfig.getType() + ": " + e.getMessage(), e);
+                }
+            }
+            for (HookDefinitionConfig definition :
+                    Optional.ofNullable(hookConfig.getHookDefinitions())
+                            .orElse(Collections.emptyList())) {
+                try {
+                    definition.validate();
+                } catch (IllegalArgumentException e) {
+                    throw new MojoExecutionException(
+                            hookConfig.getType() + ": " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
     protected void applyGitConfiguration(Path currentProjectPath) throws MojoExecutionException {
         if (!GitUtils.isValidGitRepository(currentProjectPath)) {
             throw new MojoExecutionException(
@@ -113,10 +216,37 @@ public class InstallHooksMojo extends AbstractMojo {
         }
 
         getLog().info("Will apply git configuration to repository");
-        GitUtils.writeGitConfig(currentProjectPath, gitConfig);
+        GitUtils.writeGitConfig(currentProjectPath, effectiveGitConfig(currentProjectPath));
         getLog().info("Applied git configuration to repository");
     }
 
+    /**
+     * Adds the git configuration required by the installed hooks: the {@code fsmonitor-watchman}
+     * hook is only called by git when {@code core.fsmonitor} points to it. Explicit {@code
+     * gitConfig} entries take precedence.
+     */
+    protected Map<String, String> effectiveGitConfig(Path currentProjectPath)
+            throws MojoExecutionException {
+        Map<String, String> config = new LinkedHashMap<>();
+        boolean fsmonitor =
+                Optional.ofNullable(hooks).orElse(Collections.emptyList()).stream()
+                        .anyMatch(h -> h.getType() == HookType.FSMONITOR_WATCHMAN);
+        if (fsmonitor) {
+            try {
+                Path hookPath =
+                        GitUtils.getHooksPath(currentProjectPath)
+                                .resolve(HookType.FSMONITOR_WATCHMAN.getFileName())
+                                .toAbsolutePath();
+                config.put("core.fsmonitor", hookPath.toString());
+                config.put("core.fsmonitorHookVersion", "2");
+            } catch (IOException e) {
+                throw new MojoExecutionException("Could not locate git hooks directory", e);
+            }
+        }
+        config.putAll(Optional.ofNullable(gitConfig).orElse(Collections.emptyMap()));
+        return config;
+    }
+
     public List<HookConfig> getHooks() {
         return hooks;
     }
@@ -20,6 +20,7 @@ import java.util.Objects;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 
 public class MojoConfig {
     @Parameter(name = "plugin")
@@ -31,6 +32,9 @@ public class MojoConfig {
     @Parameter(name = "configuration")
     private PlexusConfiguration configuration;
 
+    /** Converted form of {@link #configuration}, computed once. */
+    private Xpp3Dom configurationDom;
+
     public Plugin getPlugin() {
         return plugin;
     }
@@ -55,9 +59,30 @@ public class MojoConfig {
 
     public MojoConfig setConfiguration(PlexusConfiguration configuration) {
         this.configuration = configuration;
+        this.configurationDom = configuration != null ? HookRunner.toXpp3Dom(configuration) : null;
         return this;
     }
 
+    /**
+     * Gets the configuration as a {@link Xpp3Dom}. The conversion happens once per configuration
+     * and every call returns the same tree, which must not be modified: {@link
+     * MojoResolver#execute} merges the mojo defaults into a copy of it.
+     *
+     * @return the converted configuration, or {@code null} when there is none
+     */
+    public Xpp3Dom getConfigurationDom() {
+        if (configuration == null) {
+            return null;
+        }
+        Xpp3Dom dom = configurationDom;
+        if (dom == null) {
+            // The configuration was injected without going through the setter
+            dom = HookRunner.toXpp3Dom(configuration);
+            configurationDom = dom;
+        }
+        return dom;
+    }
+
     @Override
     public String toString() {
         return "Mojo{"
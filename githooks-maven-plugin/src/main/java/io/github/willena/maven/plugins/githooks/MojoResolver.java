@@ -0,0 +1,227 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.twdata.maven.mojoexecutor.MojoExecutor;
+
+/**
+ * Resolves the plugins referenced by {@link MojoConfig} definitions once per run. Plugin
+ * descriptors and their class realms are loaded up front, in parallel, and shared by every
+ * definition using the same plugin.
+ */
+public class MojoResolver {
+    private final BuildPluginManager pluginManager;
+    private final MavenSession session;
+    private final MavenProject project;
+    private final Log log;
+    private final HookTracer tracer;
+    private final Map<String, CompletableFuture<PluginDescriptor>> descriptors =
+            new ConcurrentHashMap<>();
+
+    public MojoResolver(
+            BuildPluginManager pluginManager, MavenSession session, MavenProject project, Log log) {
+        this(pluginManager, session, project, log, HookTracer.jfrOnly());
+    }
+
+    public MojoResolver(
+            BuildPluginManager pluginManager,
+            MavenSession session,
+            MavenProject project,
+            Log log,
+            HookTracer tracer) {
+        this.pluginManager = pluginManager;
+        this.session = session;
+        this.project = project;
+        this.log = log;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Start resolving all the plugins referenced by the given mojo definitions. Resolution errors
+     * are kept and reported when the matching definition is executed.
+     *
+     * @param mojos mojo definitions that are about to run
+     */
+    public void preResolve(Collection<MojoConfig> mojos) {
+        List<Plugin> plugins =
+                mojos.stream()
+                        .map(MojoConfig::getPlugin)
+                        .filter(Objects::nonNull)
+                        .map(this::withVersion)
+                        .filter(p -> p.getVersion() != null)
+                        .filter(p -> !descriptors.containsKey(key(p)))
+                        .toList();
+        if (plugins.isEmpty()) {
+            return;
+        }
+
+        ExecutorService resolvers =
+                Executors.newFixedThreadPool(
+                        Math.min(plugins.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            // Resolution spans belong to the span of the caller, not to the run
+            plugins.forEach(p -> descriptor(p, task -> resolvers.execute(tracer.wrap(task))));
+            CompletableFuture.allOf(descriptors.values().toArray(new CompletableFuture[0]))
+                    .exceptionally(e -> null)
+                    .join();
+        } finally {
+            resolvers.shutdown();
+        }
+    }
+
+    /**
+     * Execute the goal of a mojo definition, reusing the already resolved plugin when possible.
+     *
+     * @param mojoConfig the mojo definition
+     * @param configuration the mojo configuration, merged with the mojo defaults before execution
+     * @throws MojoExecutionException when the plugin cannot be resolved or the mojo fails
+     */
+    public void execute(MojoConfig mojoConfig, Xpp3Dom configuration)
+            throws MojoExecutionException {
+        execute(mojoConfig, configuration, null);
+    }
+
+    /**
+     * Execute the goal of a mojo definition against a given reactor module. The module is the
+     * current project of the session, which is thread-local, for the time of the execution.
+     *
+     * @param mojoConfig the mojo definition
+     * @param configuration the mojo configuration, left unchanged: the mojo defaults are merged
+     *     into a copy of it
+     * @param module the module to execute for, or {@code null} for the project of this resolver
+     * @throws MojoExecutionException when the plugin cannot be resolved or the mojo fails
+     */
+    public void execute(MojoConfig mojoConfig, Xpp3Dom configuration, MavenProject module)
+            throws MojoExecutionException {
+        MavenProject target = module != null ? module : project;
+        Plugin plugin = withVersion(mojoConfig.getPlugin());
+        // Both paths merge the defaults into the tree they are given, the cached one is shared
+        Xpp3Dom ownConfiguration = new Xpp3Dom(configuration);
+        // Both paths execute against the current project of the session, not the given one
+        MavenProject previous = module != null ? session.getCurrentProject() : null;
+        try {
+            if (module != null) {
+                session.setCurrentProject(module);
+            }
+            if (plugin.getVersion() == null) {
+                // Let mojo-executor deal with version resolution
+                MojoExecutor.executeMojo(
+                        plugin,
+                        mojoConfig.getGoal(),
+                        ownConfiguration,
+                        MojoExecutor.executionEnvironment(target, session, pluginManager));
+                return;
+            }
+
+            MojoDescriptor mojoDescriptor = getMojoDescriptor(plugin, mojoConfig.getGoal());
+            Xpp3Dom mergedConfiguration =
+                    Xpp3Dom.mergeXpp3Dom(
+                            ownConfiguration,
+                            HookRunner.toXpp3Dom(mojoDescriptor.getMojoConfiguration()));
+            try {
+                pluginManager.executeMojo(
+                        session, new MojoExecution(mojoDescriptor, mergedConfiguration));
+            } catch (Exception e) {
+                throw new MojoExecutionException(
+                        "Could not execute " + plugin.getId() + ":" + mojoConfig.getGoal(), e);
+            }
+        } finally {
+            if (module != null) {
+                session.setCurrentProject(previous);
+            }
+        }
+    }
+
+    public MojoDescriptor getMojoDescriptor(Plugin plugin, String goal)
+            throws MojoExecutionException {
+        PluginDescriptor pluginDescriptor;
+        try {
+            pluginDescriptor = descriptor(plugin, Runnable::run).join();
+        } catch (CompletionException e) {
+            throw new MojoExecutionException(
+                    "Could not resolve plugin " + plugin.getId(), e.getCause());
+        }
+
+        MojoDescriptor mojoDescriptor = pluginDescriptor.getMojo(goal);
+        if (mojoDescriptor == null) {
+            throw new MojoExecutionException(
+                    "Could not find goal '" + goal + "' in plugin " + plugin.getId());
+        }
+        return mojoDescriptor;
+    }
+
+    private CompletableFuture<PluginDescriptor> descriptor(Plugin plugin, Executor resolver) {
+        return descriptors.computeIfAbsent(
+                key(plugin), k -> CompletableFuture.supplyAsync(() -> load(plugin), resolver));
+    }
+
+    private PluginDescriptor load(Plugin plugin) {
+        try (HookTracer.Span ignored =
+                tracer.start(HookTracer.Kind.MOJO_RESOLUTION, plugin.getId())) {
+            log.debug("Resolving plugin " + plugin.getId());
+            PluginDescriptor descriptor =
+                    pluginManager.loadPlugin(
+                            plugin,
+                            project.getRemotePluginRepositories(),
+                            session.getRepositorySession());
+            pluginManager.getPluginRealm(session, descriptor);
+            return descriptor;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Fill the plugin version from the project build plugins when the definition omits it.
+     */
+    Plugin withVersion(Plugin plugin) {
+        if (plugin.getVersion() != null || project == null) {
+            return plugin;
+        }
+        Plugin projectPlugin = project.getPlugin(plugin.getKey());
+        if (projectPlugin == null || projectPlugin.getVersion() == null) {
+            return plugin;
+        }
+        Plugin versioned = plugin.clone();
+        versioned.setVersion(projectPlugin.getVersion());
+        return versioned;
+    }
+
+    private static String key(Plugin plugin) {
+        return plugin.getKey() + ":" + plugin.getVersion();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static io.github.willena.maven.plugins.githooks.HookTracer.json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports the spans of a {@link HookTracer} in the OTLP/JSON format, either to a file or to an
+ * OTLP/HTTP endpoint such as a local OpenTelemetry collector ({@code
+ * http://localhost:4318/v1/traces}).
+ */
+public class OtlpJsonExporter {
+    static final String SCOPE_NAME = "io.github.willena.maven.plugins.githooks";
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int STATUS_CODE_ERROR = 2;
+
+    private final Map<String, String> resourceAttributes;
+    private final Duration timeout;
+
+    /**
+     * @param resourceAttributes attributes of the resource producing the spans, at least {@code
+     *     service.name}
+     * @param timeout timeout of the export to an endpoint
+     */
+    public OtlpJsonExporter(Map<String, String> resourceAttributes, Duration timeout) {
+        this.resourceAttributes = new LinkedHashMap<>(resourceAttributes);
+        this.timeout = timeout;
+    }
+
+    public void writeTo(HookTracer tracer, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, toJson(tracer), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Posts the spans to an OTLP/HTTP traces endpoint.
+     *
+     * @param tracer the tracer holding the spans
+     * @param endpoint the endpoint, including its path
+     * @throws IOException if the endpoint cannot be reached or rejects the spans
+     */
+    public void postTo(HookTracer tracer, URI endpoint) throws IOException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(timeout).build();
+        HttpRequest request =
+                HttpRequest.newBuilder(endpoint)
+                        .timeout(timeout)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(toJson(tracer)))
+                        .build();
+        try {
+            HttpResponse<String> response =
+                    client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException(
+                        "OTLP endpoint "
+                                + endpoint
+                                + " answered "
+                                + response.statusCode()
+                                + ": "
+                                + response.body());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while exporting spans to " + endpoint, e);
+        }
+    }
+
+    /**
+     * @return an OTLP {@code ExportTraceServiceRequest} in its JSON encoding
+     */
+    String toJson(HookTracer tracer) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":");
+        appendAttributes(sb, resourceAttributes);
+        sb.append("},\"scopeSpans\":[{\"scope\":{\"name\":")
+                .append(json(SCOPE_NAME))
+                .append("},\"spans\":[");
+        List<HookTracer.TraceEvent> events = tracer.getEvents();
+        for (int i = 0; i < events.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendSpan(sb, tracer, events.get(i));
+        }
+        sb.append("]}]}]}");
+        return sb.toString();
+    }
+
+    private static void appendSpan(
+            StringBuilder sb, HookTracer tracer, HookTracer.TraceEvent event) {
+        sb.append("{\"traceId\":").append(json(tracer.getTraceId()));
+        sb.append(",\"spanId\":").append(json(event.spanId));
+        if (event.parentSpanId != null) {
+            sb.append(",\"parentSpanId\":").append(json(event.parentSpanId));
+        }
+        sb.append(",\"name\":").append(json(event.kind.getCategory() + " " + event.name));
+        sb.append(",\"kind\":").append(SPAN_KIND_INTERNAL);
+        sb.append(",\"startTimeUnixNano\":\"")
+                .append(tracer.toEpochNanos(event.startNanos))
+                .append('"');
+        sb.append(",\"endTimeUnixNano\":\"")
+                .append(tracer.toEpochNanos(event.endNanos))
+                .append('"');
+
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("githooks.kind", event.kind.getCategory());
+        attributes.put("githooks.name", event.name);
+        attributes.put("thread.id", Long.toString(event.threadId));
+        event.args.forEach((k, v) -> attributes.put("githooks." + k, v));
+        sb.append(",\"attributes\":");
+        appendAttributes(sb, attributes);
+
+        if (event.kind == HookTracer.Kind.DEFINITION && !"true".equals(event.args.get("success"))) {
+            sb.append(",\"status\":{\"code\":").append(STATUS_CODE_ERROR).append('}');
+        }
+        sb.append('}');
+    }
+
+    private static void appendAttributes(StringBuilder sb, Map<String, String> attributes) {
+        sb.append('[');
+        boolean first = true;
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"key\":")
+                    .append(json(attribute.getKey()))
+                    .append(",\"value\":{\"stringValue\":")
+                    .append(json(attribute.getValue()))
+                    .append("}}");
+        }
+        sb.append(']');
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.maven.project.MavenProject;
+
+/** Maps the files changed in the repository to the reactor modules owning them. */
+public final class ReactorModules {
+
+    private ReactorModules() {}
+
+    /**
+     * Finds the modules owning at least one of the given files. A file belongs to the module with
+     * the deepest base directory containing it, so that the files of a child module do not
+     * affect its parent.
+     *
+     * @param projects the reactor projects
+     * @param workTree the git work tree the files are relative to
+     * @param files the changed files, relative to the work tree
+     * @return the affected modules, in reactor order
+     */
+    public static List<MavenProject> affected(
+            List<MavenProject> projects, Path workTree, Collection<String> files) {
+        Map<MavenProject, List<String>> owned = owned(projects, workTree, files);
+        return projects.stream().filter(owned::containsKey).toList();
+    }
+
+    /**
+     * Groups the given files by owning module, as {@link #affected} does. Files outside of every
+     * module are left out.
+     *
+     * @param projects the reactor projects
+     * @param workTree the git work tree the files are relative to
+     * @param files the changed files, relative to the work tree
+     * @return the files of each affected module, in their original order
+     */
+    public static Map<MavenProject, List<String>> owned(
+            List<MavenProject> projects, Path workTree, Collection<String> files) {
+        Map<Path, MavenProject> byBasedir = new HashMap<>();
+        for (MavenProject project : projects) {
+            if (project.getBasedir() != null) {
+                byBasedir.put(normalize(project.getBasedir().toPath()), project);
+            }
+        }
+
+        Path root = normalize(workTree);
+        // Projects compare by coordinates, which are not unique before the model is built
+        Map<MavenProject, List<String>> owned = new IdentityHashMap<>();
+        for (String file : files) {
+            // Walking up the parents costs the depth of the file, whatever the module count
+            for (Path dir = root.resolve(file).getParent(); dir != null; dir = dir.getParent()) {
+                MavenProject owner = byBasedir.get(dir);
+                if (owner != null) {
+                    owned.computeIfAbsent(owner, p -> new ArrayList<>()).add(file);
+                    break;
+                }
+            }
+        }
+        return owned;
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
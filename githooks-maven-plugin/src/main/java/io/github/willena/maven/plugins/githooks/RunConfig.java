@@ -33,6 +33,21 @@ public class RunConfig {
     @Parameter(name = "mojo")
     private MojoConfig mojoConfig;
 
+    @Parameter(name = "staged")
+    private boolean staged;
+
+    @Parameter(name = "perModule")
+    private boolean perModule;
+
+    @Parameter(name = "moduleParallelism")
+    private int moduleParallelism = 1;
+
+    @Parameter(name = "files")
+    private List<String> files;
+
+    @Parameter(name = "batchParallelism")
+    private int batchParallelism = 1;
+
     @Parameter(name = "script")
 
     public String getClassName() {
@@ -71,6 +86,69 @@ public class RunConfig {
         return this;
     }
 
+    /**
+     * @return whether the command or class runs against a {@link StagedSnapshot} instead of the
+     *     working tree
+     */
+    public boolean isStaged() {
+        return staged;
+    }
+
+    public RunConfig setStaged(boolean staged) {
+        this.staged = staged;
+        return this;
+    }
+
+    /**
+     * @return whether the run is repeated for each reactor module owning a changed file, instead
+     *     of running once for the current project
+     */
+    public boolean isPerModule() {
+        return perModule;
+    }
+
+    public RunConfig setPerModule(boolean perModule) {
+        this.perModule = perModule;
+        return this;
+    }
+
+    /**
+     * @return the number of modules run at the same time when {@link #isPerModule()}
+     */
+    public int getModuleParallelism() {
+        return moduleParallelism;
+    }
+
+    public RunConfig setModuleParallelism(int moduleParallelism) {
+        this.moduleParallelism = moduleParallelism;
+        return this;
+    }
+
+    /**
+     * @return globs selecting the changed files appended to the command, or {@code null} to
+     *     append none
+     */
+    public List<String> getFiles() {
+        return files;
+    }
+
+    public RunConfig setFiles(List<String> files) {
+        this.files = files;
+        return this;
+    }
+
+    /**
+     * @return the number of batches of {@link #getFiles()} run at the same time
+     */
+    public int getBatchParallelism() {
+        return batchParallelism;
+    }
+
+    public RunConfig setBatchParallelism(int batchParallelism) {
+        this.batchParallelism = batchParallelism;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "RunConfig{"
@@ -83,6 +161,16 @@ public class RunConfig {
                 + args
                 + ", mojo="
                 + mojoConfig
+                + ", staged="
+                + staged
+                + ", perModule="
+                + perModule
+                + ", moduleParallelism="
+                + moduleParallelism
+                + ", files="
+                + files
+                + ", batchParallelism="
+                + batchParallelism
                 + '}';
     }
 
@@ -93,11 +181,25 @@ public class RunConfig {
         return Objects.equals(className, runConfig.className)
                 && Objects.equals(command, runConfig.command)
                 && Objects.equals(args, runConfig.args)
-                && Objects.equals(mojoConfig, runConfig.mojoConfig);
+                && Objects.equals(mojoConfig, runConfig.mojoConfig)
+                && staged == runConfig.staged
+                && perModule == runConfig.perModule
+                && moduleParallelism == runConfig.moduleParallelism
+                && Objects.equals(files, runConfig.files)
+                && batchParallelism == runConfig.batchParallelism;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(className, command, args, mojoConfig);
+        return Objects.hash(
+                className,
+                command,
+                args,
+                mojoConfig,
+                staged,
+                perModule,
+                moduleParallelism,
+                files,
+                batchParallelism);
     }
 }
@@ -16,7 +16,15 @@
 
 package io.github.willena.maven.plugins.githooks;
 
+import java.io.Console;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -29,8 +37,10 @@ import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.eclipse.sisu.BeanEntry;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 /**
  * Run all defined hooks scripts for a git hook type
@@ -38,7 +48,7 @@ import javax.inject.Inject;
 @Mojo(name = "run")
 public class RunHooksMojo extends AbstractMojo {
 
-    private final Map<String, RunnableGitHook> runnableHooks;
+    private final RunnableHookIndex hookIndex;
 
     @Parameter(name = "hook", property = "hook.name", required = true)
     protected HookType hook;
@@ -55,6 +65,77 @@ public class RunHooksMojo extends AbstractMojo {
     @Parameter(name = "skip", property = "hook.skip")
     protected boolean skip;
 
+    /**
+     * Start of the hook script, in milliseconds since the epoch, set by the generated scripts to
+     * measure the Maven bootstrap time.
+     */
+    @Parameter(name = "startTime", property = "hook.startTime")
+    protected String startTime;
+
+    /** Keep a local history of the definition durations and warn when one gets slower. */
+    @Parameter(name = "timingHistory", property = "hook.timingHistory", defaultValue = "true")
+    protected boolean timingHistory = true;
+
+    /** Number of runs kept in the timing history for each definition. */
+    @Parameter(name = "timingHistorySize", property = "hook.timingHistorySize", defaultValue = "50")
+    protected int timingHistorySize = 50;
+
+    /** Ratio between the recent and the historical median durations reported as a regression. */
+    @Parameter(
+            name = "regressionThreshold",
+            property = "hook.regressionThreshold",
+            defaultValue = "1.5")
+    protected double regressionThreshold = 1.5;
+
+    /**
+     * Chrome trace-event file to write, for example {@code target/hook-trace.json}. JFR events are
+     * emitted regardless.
+     */
+    @Parameter(name = "traceFile", property = "hook.traceFile")
+    protected File traceFile;
+
+    /** OTLP/JSON file receiving the spans of the run. */
+    @Parameter(name = "otlpFile", property = "hook.otlpFile")
+    protected File otlpFile;
+
+    /**
+     * OTLP/HTTP traces endpoint receiving the spans of the run, for example {@code
+     * http://localhost:4318/v1/traces}.
+     */
+    @Parameter(name = "otlpEndpoint", property = "hook.otlpEndpoint")
+    protected String otlpEndpoint;
+
+    /**
+     * Read the input git provides on the standard input of some hooks (pre-push, pre-receive,
+     * post-receive, reference-transaction, post-rewrite) and pass it to the definitions.
+     */
+    @Parameter(name = "readStdin", property = "hook.readStdin", defaultValue = "true")
+    protected boolean readStdin = true;
+
+    /**
+     * Whether git attached its input to the standard input, passed by the generated scripts. When
+     * unset, the input is read unless the standard input is a terminal.
+     */
+    @Parameter(name = "stdin", property = "hook.stdin")
+    protected Boolean stdin;
+
+    /**
+     * Set aside the unstaged changes of the staged files while the definitions run, then stage
+     * the changes made by the definitions to the staged files and put back the unstaged ones. Meant
+     * for {@code PRE_COMMIT} definitions fixing the files, such as formatters.
+     */
+    @Parameter(name = "protectUnstaged", property = "hook.protectUnstaged")
+    protected boolean protectUnstaged;
+
+    /**
+     * Remember the commits that passed the {@code pre-push} definitions, in {@code
+     * .git/githooks/verified}, so that pushing them again only checks the new commits. Commands
+     * and mojos only vouch for the pushed commits when HEAD alone is pushed from a clean work
+     * tree.
+     */
+    @Parameter(name = "rememberVerifiedCommits", property = "hook.rememberVerifiedCommits")
+    protected boolean rememberVerifiedCommits;
+
     @Parameter(defaultValue = "${project}", readonly = true, required = true)
     private MavenProject mavenProject;
 
@@ -65,12 +146,14 @@ public class RunHooksMojo extends AbstractMojo {
     private BuildPluginManager pluginManager;
 
     @Inject
-    public RunHooksMojo(Map<String, RunnableGitHook> availableCodeHooks) {
-        this.runnableHooks = availableCodeHooks;
-        getLog().debug("Registered hook classes and names: " + availableCodeHooks.toString());
+    public RunHooksMojo(Iterable<BeanEntry<Named, RunnableGitHook>> availableCodeHooks) {
+        // Bean entries are lazy: hooks are only instantiated when a definition requests them
+        this.hookIndex = RunnableHookIndex.of(availableCodeHooks);
+        getLog().debug("Registered hook names: " + hookIndex.getNames());
     }
 
     public void execute() throws MojoExecutionException {
+        Duration bootstrap = bootstrapDuration(startTime, System.currentTimeMillis());
         if (skip) {
             getLog().warn("Hooks run skipped by configuration");
             return;
@@ -85,18 +168,139 @@ public class RunHooksMojo extends AbstractMojo {
                         .map(e -> Map.entry(e.getType(), e.getHookDefinitions()))
                         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-        new HookRunner(
-                hooksByType.getOrDefault(hook, Collections.emptyList()),
-                getLog(),
-                new HookRunner.HookRunnerConfig.Builder()
-                        .skipRuns(skipRuns)
-                        .args(args)
-                        .pluginManager(pluginManager)
-                        .mavenProject(mavenProject)
-                        .mavenSession(mavenSession)
-                        .runnableHooks(this.runnableHooks)
-                        .build())
-                .run();
+        HookTimings timings = new HookTimings(hook.name(), bootstrap);
+        HookTracer tracer =
+                new HookTracer(
+                        traceFile != null ? traceFile.toPath() : null,
+                        otlpFile != null || otlpEndpoint != null,
+                        System.getenv("TRACEPARENT"));
+        if (bootstrap != null) {
+            tracer.recordEndingNow(HookTracer.Kind.BOOTSTRAP, "maven", bootstrap);
+        }
+        try (HookInput input = readInput(System.in)) {
+            new HookRunner(
+                    hooksByType.getOrDefault(hook, Collections.emptyList()),
+                    getLog(),
+                    new HookRunner.HookRunnerConfig.Builder()
+                            .skipRuns(skipRuns)
+                            .args(args)
+                            .pluginManager(pluginManager)
+                            .mavenProject(mavenProject)
+                            .mavenSession(mavenSession)
+                            .hookIndex(this.hookIndex)
+                            .timings(timings)
+                            .tracer(tracer)
+                            .hookType(hook)
+                            .hookInput(input)
+                            .protectUnstaged(protectUnstaged)
+                            .rememberVerifiedCommits(rememberVerifiedCommits)
+                            .build())
+                    .run();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Could not read the hook input", e);
+        } finally {
+            writeTrace(tracer);
+            if (timingHistory && !timings.getDefinitions().isEmpty()) {
+                recordTimings(timings);
+            }
+        }
+    }
+
+    /**
+     * Spools the standard input when git provides one. Without {@link #stdin}, it is left alone
+     * when attached to a terminal, which happens when the goal is run by hand.
+     */
+    HookInput readInput(InputStream in) throws IOException {
+        boolean attached = stdin != null ? stdin : !isTerminal();
+        if (readStdin && hook.readsStdin() && attached) {
+            return HookInput.spool(in);
+        }
+        return HookInput.none();
+    }
+
+    /**
+     * Since Java 22 {@link System#console()} is returned even when the standard streams are
+     * redirected, {@code Console#isTerminal()} tells them apart.
+     */
+    private static boolean isTerminal() {
+        Console console = System.console();
+        if (console == null) {
+            return false;
+        }
+        try {
+            return (Boolean) Console.class.getMethod("isTerminal").invoke(console);
+        } catch (ReflectiveOperationException e) {
+            return true;
+        }
+    }
+
+    private void writeTrace(HookTracer tracer) {
+        try {
+            tracer.write();
+            if (tracer.getTraceFile() != null) {
+                getLog().info("Hook trace written to " + tracer.getTraceFile());
+            }
+        } catch (IOException e) {
+            getLog().warn(
+                    "Could not write hook trace " + tracer.getTraceFile() + ": " + e.getMessage());
+        }
+
+        if (otlpFile == null && otlpEndpoint == null) {
+            return;
+        }
+        Map<String, String> resource = new LinkedHashMap<>();
+        resource.put("service.name", "githooks-maven-plugin");
+        if (mavenProject != null) {
+            resource.put("maven.project", mavenProject.getId());
+        }
+        OtlpJsonExporter exporter = new OtlpJsonExporter(resource, Duration.ofSeconds(5));
+        try {
+            if (otlpFile != null) {
+                exporter.writeTo(tracer, otlpFile.toPath());
+            }
+            if (otlpEndpoint != null) {
+                exporter.postTo(tracer, URI.create(otlpEndpoint));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            getLog().warn("Could not export hook spans: " + e.getMessage());
+        }
+    }
+
+    private void recordTimings(HookTimings timings) {
+        File gitDir = GitUtils.getRepositoryPath(mavenProject.getBasedir());
+        if (gitDir == null) {
+            return;
+        }
+        Path historyFile = gitDir.toPath().resolve("githooks").resolve("timings.bin");
+        try {
+            TimingHistory history = TimingHistory.load(historyFile, timingHistorySize);
+            history.addAll(timings, System.currentTimeMillis(), regressionThreshold)
+                    .forEach(r -> getLog().warn(r.toString()));
+            history.save();
+        } catch (IOException | IllegalArgumentException e) {
+            getLog().warn("Could not update timing history " + historyFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param startTime script start time as printed by {@code date +%s%3N}; BSD date does not
+     *     support {@code %N} and prints the seconds followed by {@code 3N}
+     * @param now current time in milliseconds since the epoch
+     * @return the elapsed time or {@code null} if the start time is missing or invalid
+     */
+    static Duration bootstrapDuration(String startTime, long now) {
+        if (startTime == null || startTime.isBlank()) {
+            return null;
+        }
+        try {
+            long start =
+                    startTime.endsWith("3N")
+                            ? Long.parseLong(startTime.substring(0, startTime.length() - 2)) * 1000
+                            : Long.parseLong(startTime.trim());
+            return start > now ? null : Duration.ofMillis(now - start);
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     public boolean isSkip() {
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.inject.Named;
+import javax.inject.Provider;
+import org.eclipse.sisu.BeanEntry;
+
+/**
+ * Lookup table of the available {@link RunnableGitHook} components. Hooks can be referenced either
+ * by their component name or by the fully qualified name of their implementation class. Component
+ * names take precedence over class names.
+ *
+ * <p>Hooks are only instantiated when first requested, and at most once per index.
+ */
+public class RunnableHookIndex {
+    private final Map<String, Provider<RunnableGitHook>> providersByKey;
+    private final Set<String> names;
+
+    public RunnableHookIndex(Map<String, RunnableGitHook> runnableHooks) {
+        this(fromInstances(runnableHooks));
+    }
+
+    private RunnableHookIndex(Builder builder) {
+        Map<String, Provider<RunnableGitHook>> index = new HashMap<>(builder.providersByClassName);
+        index.putAll(builder.providersByName);
+
+        this.providersByKey = index;
+        this.names = Collections.unmodifiableSet(new TreeSet<>(builder.providersByName.keySet()));
+    }
+
+    /**
+     * Index Sisu bean entries without instantiating them; implementation classes are read from
+     * the bean metadata.
+     *
+     * @param entries the {@link RunnableGitHook} components known to the container
+     * @return the index
+     */
+    public static RunnableHookIndex of(
+            Iterable<? extends BeanEntry<Named, RunnableGitHook>> entries) {
+        Builder builder = new Builder();
+        for (BeanEntry<Named, RunnableGitHook> entry : entries) {
+            Class<RunnableGitHook> implementation = entry.getImplementationClass();
+            builder.add(
+                    entry.getKey().value(),
+                    implementation != null ? implementation.getName() : null,
+                    entry.getProvider());
+        }
+        return builder.build();
+    }
+
+    private static Builder fromInstances(Map<String, RunnableGitHook> runnableHooks) {
+        Builder builder = new Builder();
+        Optional.ofNullable(runnableHooks)
+                .orElse(Collections.emptyMap())
+                .forEach((name, hook) -> builder.add(name, hook.getClass().getName(), () -> hook));
+        return builder;
+    }
+
+    public boolean contains(String nameOrClassName) {
+        return nameOrClassName != null && providersByKey.containsKey(nameOrClassName);
+    }
+
+    public Optional<RunnableGitHook> find(String nameOrClassName) {
+        return Optional.ofNullable(nameOrClassName).map(providersByKey::get).map(Provider::get);
+    }
+
+    public RunnableGitHook get(String nameOrClassName) {
+        return find(nameOrClassName)
+                .orElseThrow(
+                        () ->
+                                new IllegalStateException(
+                                        "Could not find requested hook name: "
+                                                + nameOrClassName
+                                                + "; Available hooks: "
+                                                + names));
+    }
+
+    /**
+     * @return the sorted component names of all indexed hooks
+     */
+    public Set<String> getNames() {
+        return names;
+    }
+
+    public static final class Builder {
+        private final Map<String, Provider<RunnableGitHook>> providersByName = new HashMap<>();
+        private final Map<String, Provider<RunnableGitHook>> providersByClassName =
+                new HashMap<>();
+
+        public Builder() {}
+
+        /**
+         * Register a hook component.
+         *
+         * @param name the component name
+         * @param implementationClassName the implementation class name, or {@code null} when not
+         *     known without instantiating the hook
+         * @param provider provider of the hook instance, only called when the hook is requested
+         * @return this builder
+         */
+        public Builder add(
+                String name, String implementationClassName, Provider<RunnableGitHook> provider) {
+            Provider<RunnableGitHook> memoized = new MemoizingProvider(provider);
+            providersByName.put(name, memoized);
+            if (implementationClassName != null) {
+                providersByClassName.putIfAbsent(implementationClassName, memoized);
+            }
+            return this;
+        }
+
+        public RunnableHookIndex build() {
+            return new RunnableHookIndex(this);
+        }
+    }
+
+    private static final class MemoizingProvider implements Provider<RunnableGitHook> {
+        private final Provider<RunnableGitHook> delegate;
+        private volatile RunnableGitHook instance;
+
+        private MemoizingProvider(Provider<RunnableGitHook> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public RunnableGitHook get() {
+            RunnableGitHook hook = instance;
+            if (hook == null) {
+                synchronized (this) {
+                    if (instance == null) {
+                        instance = delegate.get();
+                    }
+                    hook = instance;
+                }
+            }
+            return hook;
+        }
+    }
+}
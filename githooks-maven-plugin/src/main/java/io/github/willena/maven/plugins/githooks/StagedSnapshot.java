@@ -0,0 +1,178 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+/**
+ * Copy of the staged version of the files changed by the commit being prepared, so that checks see
+ * exactly the content that is committed rather than the working tree. Only the files whose index
+ * entry differs from {@code HEAD} are materialized.
+ *
+ * <p>Files whose working tree content matches the index are hard-linked when the file system
+ * allows it, other ones are streamed from the object database. Files of the snapshot must
+ * therefore be treated as read-only.
+ */
+public class StagedSnapshot implements Closeable {
+    private final Path root;
+    private final List<String> files;
+
+    private StagedSnapshot(Path root, List<String> files) {
+        this.root = root;
+        this.files = Collections.unmodifiableList(files);
+    }
+
+    /**
+     * Materializes the staged changes of the repository containing the given path. The index
+     * named by {@code GIT_INDEX_FILE} is used when git sets it, as for {@code git commit -a}.
+     *
+     * @param repositoryPath a path inside the repository
+     * @return the snapshot, to be closed to delete its files
+     * @throws IOException if the index or an object cannot be read, or a file cannot be written
+     */
+    public static StagedSnapshot create(Path repositoryPath) throws IOException {
+        Path root = Files.createTempDirectory("githooks-staged");
+        try (Repository repository = GitUtils.openHookRepository(repositoryPath);
+                ObjectReader reader = repository.newObjectReader();
+                TreeWalk walk =
+                        GitUtils.newStagedWalk(repository, reader, repository.readDirCache())) {
+            Path worktree = repository.isBare() ? null : repository.getWorkTree().toPath();
+            Path indexFile = repository.getIndexFile().toPath();
+            long indexTime =
+                    Files.exists(indexFile) ? Files.getLastModifiedTime(indexFile).toMillis() : 0;
+            List<String> files = new ArrayList<>();
+            while (walk.next()) {
+                FileMode mode = walk.getFileMode(1);
+                if (mode == FileMode.MISSING || mode == FileMode.GITLINK) {
+                    // Deleted by the commit, or a submodule
+                    continue;
+                }
+                String path = walk.getPathString();
+                DirCacheEntry entry = walk.getTree(1, DirCacheIterator.class).getDirCacheEntry();
+                Path target = root.resolve(path);
+                Files.createDirectories(target.getParent());
+                if (mode == FileMode.SYMLINK) {
+                    byte[] link = reader.open(entry.getObjectId()).getBytes();
+                    Files.createSymbolicLink(target, Path.of(new String(link, UTF_8)));
+                } else if (worktree == null
+                        || !link(worktree.resolve(path), target, entry, indexTime, reader)) {
+                    try (OutputStream out = Files.newOutputStream(target)) {
+                        reader.open(entry.getObjectId(), Constants.OBJ_BLOB).copyTo(out);
+                    }
+                    if (mode == FileMode.EXECUTABLE_FILE) {
+                        target.toFile().setExecutable(true);
+                    }
+                }
+                files.add(path);
+            }
+            return new StagedSnapshot(root, files);
+        } catch (IOException | RuntimeException e) {
+            delete(root);
+            throw e;
+        }
+    }
+
+    /**
+     * Hard-links the working tree file when it holds the staged content. As git does, the file
+     * metadata are trusted when they match the index entry and the file is older than the index;
+     * the content is hashed otherwise.
+     *
+     * @return whether the link was created
+     */
+    static boolean link(
+            Path source, Path target, DirCacheEntry entry, long indexTime, ObjectReader reader)
+            throws IOException {
+        if (!Files.isRegularFile(source) || Files.size(source) != entry.getLength()) {
+            return false;
+        }
+        long modified = Files.getLastModifiedTime(source).toMillis();
+        boolean clean =
+                modified == entry.getLastModifiedInstant().toEpochMilli()
+                        && modified < indexTime
+                        && !entry.isSmudged();
+        if (!clean) {
+            try (InputStream in = Files.newInputStream(source)) {
+                ObjectId id =
+                        new ObjectInserter.Formatter()
+                                .idFor(Constants.OBJ_BLOB, entry.getLength(), in);
+                if (!id.equals(entry.getObjectId())) {
+                    return false;
+                }
+            }
+        }
+        try {
+            Files.createLink(target, source);
+            return true;
+        } catch (FileSystemException | UnsupportedOperationException e) {
+            // Other file system, or links not supported
+            return false;
+        }
+    }
+
+    /**
+     * @return the directory holding the staged files, laid out as in the working tree
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * @return the paths of the materialized files, relative to {@link #getRoot()} and using
+     *     {@code /} as separator
+     */
+    public List<String> getFiles() {
+        return files;
+    }
+
+    @Override
+    public void close() throws IOException {
+        delete(root);
+    }
+
+    private static void delete(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
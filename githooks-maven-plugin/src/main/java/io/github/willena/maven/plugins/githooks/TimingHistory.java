@@ -0,0 +1,286 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Local history of hook definition durations, used to detect slow-downs without an external
+ * metrics system.
+ *
+ * <p>The history keeps at most {@code capacity} samples per definition, dropping the oldest ones,
+ * and at most {@link #MAX_DEFINITIONS} definitions, dropping the least recently run ones. It is
+ * stored as a small binary file, written atomically.
+ */
+public class TimingHistory {
+    public static final int MAX_DEFINITIONS = 256;
+    public static final int MAX_SAMPLES = 0xFFFF;
+
+    /** Number of most recent samples compared with the older ones. */
+    static final int RECENT_SAMPLES = 5;
+
+    /** Minimal number of older samples required before reporting a regression. */
+    static final int MIN_BASELINE_SAMPLES = 5;
+
+    /** Differences below this value are considered noise. */
+    static final long MIN_REGRESSION_MILLIS = 50;
+
+    private static final int MAGIC = 0x47485448; // GHTH
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final int capacity;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private TimingHistory(Path file, int capacity) {
+        this.file = file;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Loads a history file. A missing or unreadable file gives an empty history.
+     *
+     * @param file the history file
+     * @param capacity maximum number of samples kept per definition
+     * @return the history
+     */
+    public static TimingHistory load(Path file, int capacity) {
+        if (capacity < 1 || capacity > MAX_SAMPLES) {
+            throw new IllegalArgumentException(
+                    "History capacity must be between 1 and " + MAX_SAMPLES + ", got " + capacity);
+        }
+        TimingHistory history = new TimingHistory(file, capacity);
+        if (Files.isRegularFile(file)) {
+            try (DataInputStream in =
+                    new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                history.read(in);
+            } catch (IOException e) {
+                // Corrupted or from an incompatible version: start over
+                history.entries.clear();
+            }
+        }
+        return history;
+    }
+
+    private void read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Unsupported timing history format");
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            Entry entry = new Entry(in.readLong());
+            int samples = in.readUnsignedShort();
+            for (int j = 0; j < samples; j++) {
+                entry.add(in.readInt(), capacity);
+            }
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Adds a sample, dropping the oldest one of the definition when it is full.
+     *
+     * @param key definition key, see {@link #key(String, String)}
+     * @param duration duration of the run
+     * @param timestamp time of the run, in milliseconds since the epoch
+     */
+    public void add(String key, Duration duration, long timestamp) {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry(timestamp));
+        entry.lastRun = timestamp;
+        entry.add((int) Math.min(Integer.MAX_VALUE, duration.toMillis()), capacity);
+    }
+
+    /**
+     * Adds the successful definitions of a hook run, failed runs not being representative, and
+     * checks them for regressions.
+     *
+     * @param timings timings of the hook run
+     * @param timestamp time of the run, in milliseconds since the epoch
+     * @param threshold see {@link #findRegression(String, double)}
+     * @return the regressions found
+     */
+    public List<Regression> addAll(HookTimings timings, long timestamp, double threshold) {
+        List<Regression> regressions = new ArrayList<>();
+        for (HookTiming timing : timings.getDefinitions()) {
+            if (!timing.isSuccess()) {
+                continue;
+            }
+            String key = key(timings.getHookName(), timing.getName());
+            add(key, timing.getWallTime(), timestamp);
+            findRegression(key, threshold).ifPresent(regressions::add);
+        }
+        return regressions;
+    }
+
+    /**
+     * @return the samples of a definition in milliseconds, oldest first
+     */
+    public int[] getSamples(String key) {
+        Entry entry = entries.get(key);
+        return entry == null
+                ? new int[0]
+                : entry.samples.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Compares the median of the most recent samples of a definition with the median of the older
+     * ones.
+     *
+     * @param key definition key
+     * @param threshold ratio above which the recent median is a regression, for example 1.5
+     * @return the regression, if any
+     */
+    public Optional<Regression> findRegression(String key, double threshold) {
+        int[] samples = getSamples(key);
+        if (samples.length < RECENT_SAMPLES + MIN_BASELINE_SAMPLES) {
+            return Optional.empty();
+        }
+        int split = samples.length - RECENT_SAMPLES;
+        long baseline = median(Arrays.copyOfRange(samples, 0, split));
+        long recent = median(Arrays.copyOfRange(samples, split, samples.length));
+        if (recent > baseline * threshold && recent - baseline >= MIN_REGRESSION_MILLIS) {
+            return Optional.of(new Regression(key, baseline, recent, threshold));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Writes the history, keeping the {@link #MAX_DEFINITIONS} most recently run definitions.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        List<Map.Entry<String, Entry>> kept =
+                entries.entrySet().stream()
+                        .sorted(
+                                Comparator.comparingLong(
+                                        (Map.Entry<String, Entry> e) -> -e.getValue().lastRun))
+                        .limit(MAX_DEFINITIONS)
+                        .toList();
+
+        Path directory = Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(kept.size());
+                for (Map.Entry<String, Entry> e : kept) {
+                    out.writeUTF(e.getKey());
+                    out.writeLong(e.getValue().lastRun);
+                    out.writeShort(e.getValue().samples.size());
+                    for (int sample : e.getValue().samples) {
+                        out.writeInt(sample);
+                    }
+                }
+            }
+            Files.move(
+                    tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static String key(String hookName, String definitionName) {
+        return hookName + "/" + definitionName;
+    }
+
+    static long median(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1
+                ? sorted[middle]
+                : ((long) sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static final class Entry {
+        private final Deque<Integer> samples = new ArrayDeque<>();
+        private long lastRun;
+
+        private Entry(long lastRun) {
+            this.lastRun = lastRun;
+        }
+
+        private void add(int sample, int capacity) {
+            samples.addLast(sample);
+            while (samples.size() > capacity) {
+                samples.removeFirst();
+            }
+        }
+    }
+
+    /** A definition whose recent median duration exceeds its historical one. */
+    public static final class Regression {
+        private final String key;
+        private final long baselineMillis;
+        private final long recentMillis;
+        private final double threshold;
+
+        private Regression(String key, long baselineMillis, long recentMillis, double threshold) {
+            this.key = key;
+            this.baselineMillis = baselineMillis;
+            this.recentMillis = recentMillis;
+            this.threshold = threshold;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getBaselineMillis() {
+            return baselineMillis;
+        }
+
+        public long getRecentMillis() {
+            return recentMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    Locale.ROOT,
+                    "Hook definition %s got slower: median of the last %d runs is %d ms,"
+                            + " it was %d ms before (threshold x%.2f)",
+                    key,
+                    RECENT_SAMPLES,
+                    recentMillis,
+                    baselineMillis,
+                    threshold);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.eclipse.jgit.api.AddCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEditor;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+
+/**
+ * Unstaged changes of the staged files, set aside while fixers run. The changes are saved as a
+ * patch, plus a copy of the binary files, under {@code .git/githooks/unstaged}, and the files are
+ * reset to their staged content. Only the files that are both staged and modified in the working
+ * tree are touched, so the cost depends on the size of the diff rather than the size of the tree.
+ *
+ * <p>Once the definitions ran, {@link #restore(boolean)} stages what the fixers changed and
+ * re-applies the saved changes. When they cannot be re-applied, the saved patch is kept for the
+ * user to apply it by hand.
+ */
+public class UnstagedChanges {
+    private static final String PATCH = "unstaged.patch";
+
+    private final Path repositoryPath;
+    private final Path backupDirectory;
+    private final List<String> stagedPaths;
+    private final List<String> paths;
+    private final long patchSize;
+
+    private UnstagedChanges(
+            Path repositoryPath,
+            Path backupDirectory,
+            List<String> stagedPaths,
+            List<String> paths,
+            long patchSize) {
+        this.repositoryPath = repositoryPath;
+        this.backupDirectory = backupDirectory;
+        this.stagedPaths = stagedPaths;
+        this.paths = Collections.unmodifiableList(paths);
+        this.patchSize = patchSize;
+    }
+
+    /**
+     * Saves the unstaged changes of the staged files and resets these files to their staged
+     * content.
+     *
+     * @param repositoryPath a path inside the repository
+     * @return the saved changes
+     * @throws IOException if the changes cannot be saved, or a previous run left unrestored ones
+     */
+    public static UnstagedChanges save(Path repositoryPath) throws IOException {
+        try (Repository repository = GitUtils.openHookRepository(repositoryPath);
+                Git git = new Git(repository)) {
+            Path backupDirectory = backupDirectory(repository);
+            if (Files.exists(backupDirectory)) {
+                throw new IOException(
+                        "Unstaged changes of a previous run were not restored, see "
+                                + backupDirectory);
+            }
+
+            DirCache index = repository.readDirCache();
+            List<String> stagedPaths = stagedPaths(repository, index);
+            if (stagedPaths.isEmpty()) {
+                return new UnstagedChanges(
+                        repositoryPath, backupDirectory, stagedPaths, new ArrayList<>(), 0);
+            }
+
+            Path worktree = repository.getWorkTree().toPath();
+            List<String> paths = new ArrayList<>();
+            ByteArrayOutputStream patch = new ByteArrayOutputStream();
+            // The formatter reads the working tree side through the iterators it scanned
+            try (DiffFormatter formatter = new DiffFormatter(patch)) {
+                formatter.setRepository(repository);
+                formatter.setPathFilter(PathFilterGroup.createFromStrings(stagedPaths));
+                List<DiffEntry> text = new ArrayList<>();
+                for (DiffEntry entry :
+                        formatter.scan(
+                                new DirCacheIterator(index), new FileTreeIterator(repository))) {
+                    String path = entry.getOldPath();
+                    paths.add(path);
+                    if (isBinary(worktree.resolve(path))) {
+                        Path copy = backupDirectory.resolve("files").resolve(path);
+                        Files.createDirectories(copy.getParent());
+                        Files.copy(worktree.resolve(path), copy);
+                    } else {
+                        text.add(entry);
+                    }
+                }
+                formatter.format(text);
+            }
+            if (paths.isEmpty()) {
+                return new UnstagedChanges(
+                        repositoryPath, backupDirectory, stagedPaths, paths, 0);
+            }
+
+            Files.createDirectories(backupDirectory);
+            Files.write(backupDirectory.resolve(PATCH), patch.toByteArray());
+            git.checkout().addPaths(paths).call();
+            return new UnstagedChanges(
+                    repositoryPath, backupDirectory, stagedPaths, paths, patch.size());
+        } catch (GitAPIException e) {
+            throw new IOException("Could not reset the partially staged files", e);
+        }
+    }
+
+    /**
+     * Stages the changes made to the staged files, if asked to, then puts back the saved
+     * unstaged changes.
+     *
+     * @param restage whether the current content of the staged files must be staged
+     * @throws IOException if the saved changes cannot be re-applied; they are then kept
+     */
+    public void restore(boolean restage) throws IOException {
+        if (stagedPaths.isEmpty() || (!restage && paths.isEmpty())) {
+            return;
+        }
+        try (Repository repository = GitUtils.openHookRepository(repositoryPath);
+                Git git = new Git(repository)) {
+            if (restage) {
+                AddCommand add = git.add();
+                stagedPaths.forEach(add::addFilepattern);
+                add.call();
+            }
+            if (paths.isEmpty()) {
+                return;
+            }
+
+            Path patch = backupDirectory.resolve(PATCH);
+            if (Files.size(patch) > 0) {
+                DirCache staged = repository.readDirCache();
+                try (InputStream in = Files.newInputStream(patch)) {
+                    git.apply().setPatch(in).call();
+                    // Unlike git apply, the apply command also updates the index
+                    restoreIndex(repository, staged);
+                } catch (GitAPIException e) {
+                    throw new IOException(
+                            "Could not re-apply the unstaged changes, apply "
+                                    + patch
+                                    + " and remove "
+                                    + backupDirectory
+                                    + " by hand",
+                            e);
+                }
+            }
+            Path files = backupDirectory.resolve("files");
+            Path worktree = repository.getWorkTree().toPath();
+            for (String path : paths) {
+                Path copy = files.resolve(path);
+                if (Files.exists(copy)) {
+                    Files.copy(copy, worktree.resolve(path), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            delete(backupDirectory);
+        } catch (GitAPIException e) {
+            throw new IOException("Could not stage the fixed files", e);
+        }
+    }
+
+    /** Puts back the index entries of the patched files, marking them as changed. */
+    private void restoreIndex(Repository repository, DirCache staged) throws IOException {
+        DirCache index = repository.lockDirCache();
+        try {
+            DirCacheEditor editor = index.editor();
+            for (String path : paths) {
+                DirCacheEntry entry = staged.getEntry(path);
+                if (entry == null) {
+                    continue;
+                }
+                editor.add(
+                        new DirCacheEditor.PathEdit(entry) {
+                            @Override
+                            public void apply(DirCacheEntry ent) {
+                                ent.copyMetaData(entry);
+                                ent.smudgeRacilyClean();
+                            }
+                        });
+            }
+            editor.finish();
+            index.write();
+            index.commit();
+        } finally {
+            index.unlock();
+        }
+    }
+
+    /**
+     * @return the staged files that also had unstaged changes
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @return the size of the saved patch, in bytes
+     */
+    public long getPatchSize() {
+        return patchSize;
+    }
+
+    static Path backupDirectory(Repository repository) {
+        return repository.getDirectory().toPath().resolve("githooks").resolve("unstaged");
+    }
+
+    /** Files present in the index with a content or mode different from {@code HEAD}. */
+    private static List<String> stagedPaths(Repository repository, DirCache index)
+            throws IOException {
+        List<String> paths = new ArrayList<>();
+        try (ObjectReader reader = repository.newObjectReader();
+                TreeWalk walk = GitUtils.newStagedWalk(repository, reader, index)) {
+            while (walk.next()) {
+                FileMode mode = walk.getFileMode(1);
+                if (mode != FileMode.MISSING && mode != FileMode.GITLINK) {
+                    paths.add(walk.getPathString());
+                }
+            }
+        }
+        return paths;
+    }
+
+    private static boolean isBinary(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return RawText.isBinary(in);
+        }
+    }
+
+    private static void delete(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Commits that already passed the {@code pre-push} checks of a given configuration, so that
+ * pushing again, for instance after amending only the last commit, only checks the new commits.
+ * Each configuration has its own file of commit ids in {@code .git/githooks/verified}, keyed by a
+ * hash of the configuration; only the {@value #MAX_COMMITS} most recent ids are kept.
+ */
+public class VerifiedCommits {
+    static final int MAX_COMMITS = 10_000;
+
+    private final Path file;
+    private final Set<String> ids;
+    private boolean changed;
+
+    private VerifiedCommits(Path file, Set<String> ids) {
+        this.file = file;
+        this.ids = ids;
+    }
+
+    /**
+     * @param repositoryPath a path inside the repository
+     * @param configuration description of the checks, any change of it starts a new store
+     * @return the commits already verified with the configuration
+     * @throws IOException if the store exists but cannot be read
+     */
+    public static VerifiedCommits load(Path repositoryPath, String configuration)
+            throws IOException {
+        try (Repository repository = GitUtils.openHookRepository(repositoryPath)) {
+            Path file = directory(repository).resolve(key(configuration));
+            Set<String> ids = new LinkedHashSet<>();
+            if (Files.exists(file)) {
+                for (String line : Files.readAllLines(file, US_ASCII)) {
+                    if (!line.isBlank()) {
+                        ids.add(line.trim());
+                    }
+                }
+            }
+            return new VerifiedCommits(file, ids);
+        }
+    }
+
+    static Path directory(Repository repository) {
+        return repository.getDirectory().toPath().resolve("githooks").resolve("verified");
+    }
+
+    static String key(String configuration) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(configuration.getBytes(UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public synchronized boolean contains(String id) {
+        return ids.contains(id);
+    }
+
+    public synchronized boolean containsAll(Collection<String> commitIds) {
+        return ids.containsAll(commitIds);
+    }
+
+    public synchronized void add(String id) {
+        // Re-inserted so that recently verified commits are kept the longest
+        ids.remove(id);
+        ids.add(id);
+        changed = true;
+    }
+
+    public synchronized void addAll(Collection<String> commitIds) {
+        commitIds.forEach(this::add);
+    }
+
+    /**
+     * @return the file holding the commit ids
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Writes the commit ids, when some were added, replacing the previous file atomically.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void save() throws IOException {
+        if (!changed) {
+            return;
+        }
+        for (Iterator<String> it = ids.iterator(); ids.size() > MAX_COMMITS; ) {
+            it.next();
+            it.remove();
+        }
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, ids, US_ASCII);
+            Files.move(temp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        changed = false;
+    }
+}
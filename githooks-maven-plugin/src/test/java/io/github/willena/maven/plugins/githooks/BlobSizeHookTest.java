@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+
+class BlobSizeHookTest {
+
+    private static final Path TARGET = Path.of("target");
+    private static final String ZERO = ObjectId.zeroId().name();
+
+    @Test
+    void rejectsOnlyNewLargeBlobs() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        RevCommit base;
+        RevCommit tip;
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("old-large.bin"), "x".repeat(4096));
+            git.add().addFilepattern(".").call();
+            base = git.commit().setMessage("base").call();
+
+            Files.createDirectories(repo.resolve("lib"));
+            Files.writeString(repo.resolve("lib/new-large.bin"), "y".repeat(4096));
+            Files.writeString(repo.resolve("small.txt"), "small");
+            git.add().addFilepattern(".").call();
+            tip = git.commit().setMessage("tip").call();
+        }
+
+        MavenProject project = new MavenProject();
+        project.setFile(repo.resolve("pom.xml").toFile());
+        FakeLogger logger = new FakeLogger();
+        HookContext context =
+                new HookContext.Builder()
+                        .project(project)
+                        .logger(logger)
+                        .refUpdates(
+                                RefUpdates.of(
+                                        List.of(
+                                                new RefUpdate(
+                                                        "refs/heads/main",
+                                                        base.name(),
+                                                        tip.name()))))
+                        .build();
+
+        BlobSizeHook hook = new BlobSizeHook();
+        assertThrows(
+                IllegalStateException.class,
+                () -> hook.run(context, new String[] {"--max-size=1k", "origin"}));
+        assertEquals(1, logger.errorMessages.size());
+        assertTrue(logger.errorMessages.get(0).startsWith("lib/new-large.bin ("));
+        assertTrue(logger.errorMessages.get(0).endsWith("): 4096 bytes"));
+
+        assertDoesNotThrow(() -> hook.run(context, new String[] {"--max-size=4k"}));
+    }
+
+    @Test
+    void createdRefWithoutOtherRefsWalksEverything() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        RevCommit tip;
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("large.bin"), "x".repeat(2048));
+            git.add().addFilepattern(".").call();
+            tip = git.commit().setMessage("tip").call();
+
+            List<String> offenders =
+                    BlobSizeHook.findLargeBlobs(
+                            git.getRepository(),
+                            List.of(new RefUpdate("refs/heads/main", ZERO, tip.name())),
+                            1024);
+            assertEquals(1, offenders.size());
+            assertTrue(offenders.get(0).startsWith("large.bin ("));
+        }
+    }
+
+    @Test
+    void noUpdatesDoesNotOpenRepository() {
+        assertDoesNotThrow(
+                () -> new BlobSizeHook().run(new HookContext(null, null, null), new String[0]));
+    }
+
+    @Test
+    void parseSize() {
+        assertEquals(BlobSizeHook.DEFAULT_MAX_SIZE, BlobSizeHook.maxSize(new String[] {"origin"}));
+        assertEquals(100, BlobSizeHook.parseSize("100"));
+        assertEquals(2048, BlobSizeHook.parseSize("2k"));
+        assertEquals(3L * 1024 * 1024, BlobSizeHook.parseSize("3M"));
+        assertEquals(1024L * 1024 * 1024, BlobSizeHook.parseSize("1g"));
+        assertThrows(IllegalArgumentException.class, () -> BlobSizeHook.parseSize("big"));
+        assertThrows(IllegalArgumentException.class, () -> BlobSizeHook.parseSize("-1"));
+    }
+}
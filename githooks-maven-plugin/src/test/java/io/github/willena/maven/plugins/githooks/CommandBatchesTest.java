@@ -0,0 +1,67 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CommandBatchesTest {
+
+    @Test
+    void matching() {
+        assertEquals(
+                List.of("A.java", "src/B.java"),
+                CommandBatches.matching(
+                        List.of("A.java", "README.md", "src/B.java"),
+                        List.of("*.java", "src/**.java")));
+        assertEquals(List.of(), CommandBatches.matching(List.of("A.java"), List.of()));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> CommandBatches.matching(List.of(), List.of("[invalid")));
+    }
+
+    @Test
+    void splitKeepsBatchesUnderLimit() {
+        // Each file takes its length, a NUL byte and a pointer
+        List<String> files = List.of("a", "b", "c", "d", "e");
+
+        assertEquals(
+                List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")),
+                CommandBatches.split(files, 100, 100 + 2 * 10));
+        assertEquals(List.of(files), CommandBatches.split(files, 0, 1000));
+        assertEquals(List.of(), CommandBatches.split(List.of(), 0, 1000));
+    }
+
+    @Test
+    void splitGivesOversizedFilesTheirOwnBatch() {
+        assertEquals(
+                List.of(List.of("a"), List.of("too-long"), List.of("b")),
+                CommandBatches.split(List.of("a", "too-long", "b"), 0, 10));
+    }
+
+    @Test
+    void size() {
+        assertEquals(
+                (2 + 9) + (2 + 9) + (2 + 9),
+                CommandBatches.size(List.of("sh", "-c"), Map.of("A", "")));
+        assertEquals(0, CommandBatches.size(List.of(), Map.of()));
+    }
+}
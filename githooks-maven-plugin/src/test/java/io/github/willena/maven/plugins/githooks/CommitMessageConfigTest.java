@@ -0,0 +1,68 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CommitMessageConfigTest {
+    @Test
+    void getterAndSetter() {
+        CommitMessageConfig config =
+                new CommitMessageConfig()
+                        .setSubjectPattern("^feat: ")
+                        .setIgnorePattern("^Merge ")
+                        .setMaxSubjectLength(72)
+                        .setMaxLineLength(100)
+                        .setRequiredTrailers(List.of("Signed-off-by"));
+
+        assertEquals("^feat: ", config.getSubjectPattern());
+        assertEquals("^Merge ", config.getIgnorePattern());
+        assertEquals(Integer.valueOf(72), config.getMaxSubjectLength());
+        assertEquals(Integer.valueOf(100), config.getMaxLineLength());
+        assertEquals(List.of("Signed-off-by"), config.getRequiredTrailers());
+        assertEquals(
+                config,
+                new CommitMessageConfig()
+                        .setSubjectPattern("^feat: ")
+                        .setIgnorePattern("^Merge ")
+                        .setMaxSubjectLength(72)
+                        .setMaxLineLength(100)
+                        .setRequiredTrailers(List.of("Signed-off-by")));
+        config.validate();
+        new CommitMessageConfig().validate();
+    }
+
+    @Test
+    void validateRejectsRulesAwkCannotCheck() {
+        for (CommitMessageConfig invalid :
+                List.of(
+                        new CommitMessageConfig().setSubjectPattern("^[0-9]+("),
+                        new CommitMessageConfig().setSubjectPattern("^\\d+: "),
+                        new CommitMessageConfig().setSubjectPattern("^(?i)fix"),
+                        new CommitMessageConfig().setIgnorePattern("^Merge .+?"),
+                        new CommitMessageConfig().setMaxSubjectLength(0),
+                        new CommitMessageConfig().setMaxLineLength(-1),
+                        new CommitMessageConfig().setRequiredTrailers(List.of("Signed off")))) {
+            assertThrows(IllegalArgumentException.class, invalid::validate, invalid.toString());
+        }
+        new CommitMessageConfig().setSubjectPattern("^[[:digit:]]+\\.[a-z]+: ").validate();
+    }
+}
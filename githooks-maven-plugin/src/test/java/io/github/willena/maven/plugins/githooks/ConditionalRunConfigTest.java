@@ -16,9 +16,12 @@
 
 package io.github.willena.maven.plugins.githooks;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 import org.junit.jupiter.api.Test;
 
 class ConditionalRunConfigTest {
@@ -46,4 +49,105 @@ class ConditionalRunConfigTest {
         assertEquals(r3.hashCode(), r.hashCode());
         assertNotEquals(r3.hashCode(), r2.hashCode());
     }
+
+    @Test
+    void refPatternIsCompiledOnce() {
+        ConditionalRunConfig r = new ConditionalRunConfig().setRef("refs/heads/.*");
+
+        assertSame(r.getRefPattern(), r.getRefPattern());
+        assertEquals("refs/heads/.*", r.getRefPattern().pattern());
+
+        r.setRef("refs/tags/.*");
+        assertEquals("refs/tags/.*", r.getRefPattern().pattern());
+
+        assertNull(new ConditionalRunConfig().getRefPattern());
+    }
+
+    @Test
+    void conditionUsesCachedRefPattern() {
+        ConditionalRunConfig r = new ConditionalRunConfig().setRef("refs/heads/.*");
+        Pattern pattern = r.getRefPattern();
+
+        FakeConditionContext context = new FakeConditionContext();
+        context.headRefNames = Set.of("refs/heads/a");
+        assertTrue(r.getCondition().test(context));
+        assertSame(pattern, r.getRefPattern());
+    }
+
+    @Test
+    void validate() {
+        assertDoesNotThrow(() -> new ConditionalRunConfig().validate());
+        assertDoesNotThrow(() -> new ConditionalRunConfig().setRef("a.*").validate());
+
+        IllegalArgumentException e =
+                assertThrows(
+                        IllegalArgumentException.class,
+                        () -> new ConditionalRunConfig().setRef("refs/(heads").validate());
+        assertTrue(e.getMessage().contains("refs/(heads"));
+    }
+
+    @Test
+    void conditionIsCompiledOnce() {
+        ConditionalRunConfig r = new ConditionalRunConfig().setBranch("main");
+
+        assertSame(r.getCondition(), r.getCondition());
+        Condition before = r.getCondition();
+        r.setAuthor("john");
+        assertNotSame(before, r.getCondition());
+
+        assertTrue(new ConditionalRunConfig().isEmpty());
+        assertSame(Conditions.ALWAYS, new ConditionalRunConfig().getCondition());
+    }
+
+    @Test
+    void criteriaAreCombined() {
+        FakeConditionContext context = new FakeConditionContext();
+        context.branch = "main";
+        context.env = Map.of("CI", "true");
+        context.changedFiles = List.of("pom.xml");
+
+        ConditionalRunConfig r =
+                new ConditionalRunConfig()
+                        .setBranch("main")
+                        .setEnv(Map.of("CI", ""))
+                        .setFiles(List.of("src/**"));
+        assertFalse(r.isEmpty());
+        assertFalse(r.getCondition().test(context));
+
+        r.setFiles(null)
+                .setAnyOf(
+                        List.of(
+                                new ConditionalRunConfig().setMinAhead(1),
+                                new ConditionalRunConfig().setFiles(List.of("pom.xml"))))
+                .setNot(new ConditionalRunConfig().setCommitMessage("^WIP"));
+        context.headCommitMessage = "feat: x";
+        assertTrue(r.getCondition().test(context));
+
+        context.headCommitMessage = "WIP x";
+        assertFalse(r.getCondition().test(context));
+
+        context.requested.clear();
+        context.env = Map.of();
+        assertFalse(r.getCondition().test(context));
+        assertEquals(List.of("env"), context.requested);
+    }
+
+    @Test
+    void validateCriteria() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ConditionalRunConfig().setBranch("(").validate());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ConditionalRunConfig().setMinBehind(-1).validate());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ConditionalRunConfig().setFiles(List.of("{a")).validate());
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        new ConditionalRunConfig()
+                                .setAllOf(List.of(new ConditionalRunConfig().setAuthor("[")))
+                                .validate());
+    }
 }
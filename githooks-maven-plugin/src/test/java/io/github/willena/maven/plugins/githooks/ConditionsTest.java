@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class ConditionsTest {
+
+    @Test
+    void leaves() {
+        FakeConditionContext context = new FakeConditionContext();
+        context.env = Map.of("CI", "true");
+        context.headRefNames = Set.of("refs/heads/main", "refs/tags/1.0.0");
+        context.branch = "main";
+        context.headCommitMessage = "feat: something\n\nbody";
+        context.headAuthor = "John Doe <john@example.com>";
+        context.aheadCount = 2;
+        context.behindCount = 1;
+        context.changedFiles = List.of("src/main/java/A.java", "README.md");
+
+        assertTrue(Conditions.ref(Pattern.compile("tags/1\\.0")).test(context));
+        assertTrue(Conditions.branch(Pattern.compile("^main$")).test(context));
+        assertFalse(Conditions.branch(Pattern.compile("dev")).test(context));
+        assertTrue(Conditions.env("CI", null).test(context));
+        assertTrue(Conditions.env("CI", Pattern.compile("^true$")).test(context));
+        assertFalse(Conditions.env("CI", Pattern.compile("false")).test(context));
+        assertFalse(Conditions.env("OTHER", null).test(context));
+        assertTrue(Conditions.commitMessage(Pattern.compile("^feat:")).test(context));
+        assertTrue(Conditions.author(Pattern.compile("@example\\.com>")).test(context));
+        assertTrue(Conditions.minAhead(2).test(context));
+        assertFalse(Conditions.minAhead(3).test(context));
+        assertTrue(Conditions.minBehind(1).test(context));
+        assertTrue(Conditions.files(List.of("**/*.java")).test(context));
+        assertTrue(Conditions.files(List.of("*.md")).test(context));
+        assertFalse(Conditions.files(List.of("*.xml")).test(context));
+    }
+
+    @Test
+    void commitMessagePrefersTheMessageBeingWritten() {
+        FakeConditionContext context = new FakeConditionContext();
+        context.headCommitMessage = "feat: previous commit";
+        Condition feat = Conditions.commitMessage(Pattern.compile("^feat:"));
+
+        assertTrue(feat.test(context));
+        context.commitMessage = "fix: commit being made";
+        assertFalse(feat.test(context));
+        assertTrue(Conditions.commitMessage(Pattern.compile("^fix:")).test(context));
+    }
+
+    @Test
+    void missingFactsAreFalse() {
+        FakeConditionContext context = new FakeConditionContext();
+
+        assertFalse(Conditions.branch(Pattern.compile(".*")).test(context));
+        assertFalse(Conditions.commitMessage(Pattern.compile(".*")).test(context));
+        assertFalse(Conditions.author(Pattern.compile(".*")).test(context));
+    }
+
+    @Test
+    void compositesEvaluateCheapestFirstAndShortCircuit() {
+        FakeConditionContext context = new FakeConditionContext();
+        Condition files = Conditions.files(List.of("**"));
+        Condition env = Conditions.env("CI", null);
+
+        assertFalse(Conditions.allOf(List.of(files, env)).test(context));
+        assertEquals(List.of("env"), context.requested);
+
+        context.requested.clear();
+        context.env = Map.of("CI", "true");
+        assertTrue(Conditions.anyOf(List.of(files, env)).test(context));
+        assertEquals(List.of("env"), context.requested);
+
+        context.requested.clear();
+        assertFalse(Conditions.allOf(List.of(files, env)).test(context));
+        assertEquals(List.of("env", "files"), context.requested);
+    }
+
+    @Test
+    void compositeCost() {
+        Condition env = Conditions.env("CI", null);
+        Condition ahead = Conditions.minAhead(1);
+
+        assertEquals(Condition.COST_TRACKING, Conditions.allOf(List.of(env, ahead)).cost());
+        assertEquals(Condition.COST_ENVIRONMENT, Conditions.not(env).cost());
+        assertEquals(Condition.COST_CONSTANT, Conditions.ALWAYS.cost());
+    }
+
+    @Test
+    void emptyComposites() {
+        FakeConditionContext context = new FakeConditionContext();
+
+        assertTrue(Conditions.allOf(List.of()).test(context));
+        assertFalse(Conditions.anyOf(List.of()).test(context));
+        assertSame(Conditions.NEVER, Conditions.not(Conditions.ALWAYS));
+        assertTrue(Conditions.not(Conditions.env("CI", null)).test(context));
+    }
+}
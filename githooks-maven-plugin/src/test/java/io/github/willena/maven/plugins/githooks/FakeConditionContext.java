@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** Fixed facts, recording which ones were requested. */
+class FakeConditionContext implements ConditionContext {
+    final List<String> requested = new ArrayList<>();
+    Map<String, String> env = Collections.emptyMap();
+    Set<String> headRefNames = Collections.emptySet();
+    String branch;
+    String headCommitMessage;
+    String headAuthor;
+    int aheadCount;
+    int behindCount;
+    List<String> changedFiles = Collections.emptyList();
+    String headId;
+    String upstreamMergeBase;
+    String stagedDiff = "";
+    String commitMessage;
+
+    @Override
+    public String getEnv(String name) {
+        requested.add("env");
+        return env.get(name);
+    }
+
+    @Override
+    public Set<String> getHeadRefNames() {
+        requested.add("refs");
+        return headRefNames;
+    }
+
+    @Override
+    public String getBranch() {
+        requested.add("branch");
+        return branch;
+    }
+
+    @Override
+    public String getHeadCommitMessage() {
+        requested.add("commitMessage");
+        return headCommitMessage;
+    }
+
+    @Override
+    public String getHeadAuthor() {
+        requested.add("author");
+        return headAuthor;
+    }
+
+    @Override
+    public int getAheadCount() {
+        requested.add("ahead");
+        return aheadCount;
+    }
+
+    @Override
+    public int getBehindCount() {
+        requested.add("behind");
+        return behindCount;
+    }
+
+    @Override
+    public List<String> getChangedFiles() {
+        requested.add("files");
+        return changedFiles;
+    }
+
+    @Override
+    public Path getWorkTree() {
+        requested.add("workTree");
+        return Path.of("");
+    }
+
+    @Override
+    public String getHeadId() {
+        requested.add("head");
+        return headId;
+    }
+
+    @Override
+    public String getUpstreamMergeBase() {
+        requested.add("mergeBase");
+        return upstreamMergeBase;
+    }
+
+    @Override
+    public String getStagedDiff() {
+        requested.add("stagedDiff");
+        return stagedDiff;
+    }
+
+    @Override
+    public String getCommitMessage() {
+        requested.add("message");
+        return commitMessage;
+    }
+}
@@ -16,9 +16,14 @@
 
 package io.github.willena.maven.plugins.githooks;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.maven.plugin.logging.Log;
 
 public class FakeLogger implements Log {
+    final List<String> infoMessages = new ArrayList<>();
+    final List<String> errorMessages = new ArrayList<>();
+
     @Override
     public boolean isDebugEnabled() {
         return false;
@@ -39,7 +44,9 @@ public class FakeLogger implements Log {
     }
 
     @Override
-    public void info(CharSequence content) {}
+    public void info(CharSequence content) {
+        infoMessages.add(String.valueOf(content));
+    }
 
     @Override
     public void info(CharSequence content, Throwable error) {}
@@ -67,7 +74,9 @@ public class FakeLogger implements Log {
     }
 
     @Override
-    public void error(CharSequence content) {}
+    public void error(CharSequence content) {
+        errorMessages.add(String.valueOf(content));
+    }
 
     @Override
     public void error(CharSequence content, Throwable error) {}
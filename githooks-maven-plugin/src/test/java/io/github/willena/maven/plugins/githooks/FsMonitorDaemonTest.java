@@ -0,0 +1,258 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Test;
+
+class FsMonitorDaemonTest {
+
+    private static final Path TARGET = Path.of("target");
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Test
+    void journalsWorkTreeChanges() throws Exception {
+        Path worktree = init();
+        Path stateDir = FsMonitorDaemon.stateDir(worktree.resolve(".git"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (FsMonitorDaemon daemon = FsMonitorDaemon.start(worktree, stateDir, 1024 * 1024)) {
+            assertNull(FsMonitorDaemon.start(worktree, stateDir, 1024 * 1024));
+            assertEquals(
+                    daemon.getGeneration(),
+                    Files.readString(stateDir.resolve(FsMonitorDaemon.GENERATION_FILE)));
+            Future<?> running = executor.submit(run(daemon));
+
+            Files.writeString(worktree.resolve(".git/ignored"), "x");
+            Files.writeString(worktree.resolve("a.txt"), "a");
+            Files.createDirectories(worktree.resolve("src/main"));
+            Files.writeString(worktree.resolve("src/main/b.txt"), "b");
+
+            Path journal =
+                    stateDir.resolve(FsMonitorDaemon.JOURNAL_PREFIX + daemon.getGeneration());
+            List<String> paths = awaitPaths(journal, "src/main/b.txt");
+            assertTrue(paths.contains("a.txt"));
+            assertTrue(paths.contains("src"));
+            assertFalse(paths.stream().anyMatch(p -> p.startsWith(".git")));
+
+            daemon.close();
+            running.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertFalse(Files.exists(stateDir.resolve(FsMonitorDaemon.GENERATION_FILE)));
+        assertFalse(Files.exists(stateDir.resolve(FsMonitorDaemon.PID_FILE)));
+    }
+
+    @Test
+    void startsNewGenerationWhenJournalIsFull() throws Exception {
+        Path worktree = init();
+        Path stateDir = FsMonitorDaemon.stateDir(worktree.resolve(".git"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (FsMonitorDaemon daemon = FsMonitorDaemon.start(worktree, stateDir, 1)) {
+            String first = daemon.getGeneration();
+            executor.submit(run(daemon));
+
+            Files.writeString(worktree.resolve("a.txt"), "a");
+
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (first.equals(daemon.getGeneration()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertNotEquals(first, daemon.getGeneration());
+            assertFalse(Files.exists(stateDir.resolve(FsMonitorDaemon.JOURNAL_PREFIX + first)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void hookScriptAnswersFromJournal() throws Exception {
+        Path worktree = init();
+        Path hook =
+                new HookScriptWriter(null, "maven", "java", false)
+                        .writeHook(HookType.FSMONITOR_WATCHMAN, worktree.resolve(".git/hooks"));
+        Path stateDir = FsMonitorDaemon.stateDir(worktree.resolve(".git"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (FsMonitorDaemon daemon = FsMonitorDaemon.start(worktree, stateDir, 1024 * 1024)) {
+            executor.submit(run(daemon));
+
+            String[] initial = runHook(worktree, hook, "2", "");
+            assertEquals(daemon.getGeneration() + ":0", initial[0]);
+            assertEquals("/", initial[1]);
+
+            Files.writeString(worktree.resolve("a.txt"), "a");
+            awaitPaths(
+                    stateDir.resolve(FsMonitorDaemon.JOURNAL_PREFIX + daemon.getGeneration()),
+                    "a.txt");
+
+            String[] changes = runHook(worktree, hook, "2", initial[0]);
+            assertNotEquals(initial[0], changes[0]);
+            assertEquals("a.txt", changes[1]);
+
+            String[] unchanged = runHook(worktree, hook, "2", changes[0]);
+            assertArrayEquals(new String[] {changes[0]}, unchanged);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, new ProcessBuilder("sh", hook.toString(), "1", "0").start().waitFor());
+    }
+
+    @Test
+    void hookScriptWaitsForPendingChanges() throws Exception {
+        Path worktree = init();
+        Path hook =
+                new HookScriptWriter(null, "maven", "java", false)
+                        .writeHook(HookType.FSMONITOR_WATCHMAN, worktree.resolve(".git/hooks"));
+        Path stateDir = FsMonitorDaemon.stateDir(worktree.resolve(".git"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (FsMonitorDaemon daemon = FsMonitorDaemon.start(worktree, stateDir, 1024 * 1024)) {
+            executor.submit(run(daemon));
+            String token = runHook(worktree, hook, "2", "")[0];
+
+            for (int i = 0; i < 20; i++) {
+                String file = "file-" + i + ".txt";
+                Files.writeString(worktree.resolve(file), "x");
+                // Queried right away, as git does after an edit
+                String[] changes = runHook(worktree, hook, "2", token);
+                assertTrue(
+                        List.of(changes).contains(file), file + " missing from " + List.of(changes));
+                token = changes[0];
+            }
+            try (Stream<Path> cookies = Files.list(stateDir.resolve(FsMonitorDaemon.COOKIES_DIR))) {
+                assertEquals(0, cookies.count());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void hookScriptDoesNotTrustStaleDaemonState() throws Exception {
+        Path worktree = init();
+        Path hook =
+                new HookScriptWriter(null, "maven", "java", false)
+                        .writeHook(HookType.FSMONITOR_WATCHMAN, worktree.resolve(".git/hooks"));
+        Path stateDir = FsMonitorDaemon.stateDir(worktree.resolve(".git"));
+        Files.createDirectories(stateDir);
+        // A live process that is not the daemon, as after a kill -9 and a pid reuse
+        Files.writeString(
+                stateDir.resolve(FsMonitorDaemon.PID_FILE),
+                Long.toString(ProcessHandle.current().pid()));
+        Files.writeString(stateDir.resolve(FsMonitorDaemon.GENERATION_FILE), "1");
+        Files.writeString(stateDir.resolve(FsMonitorDaemon.JOURNAL_PREFIX + "1"), "a.txt\0");
+        Path heartbeat = stateDir.resolve(FsMonitorDaemon.HEARTBEAT_FILE);
+        Files.writeString(heartbeat, "");
+        Files.setLastModifiedTime(
+                heartbeat, FileTime.from(Instant.now().minus(Duration.ofMinutes(5))));
+
+        assertArrayEquals(new String[] {"0:0", "/"}, runHook(worktree, hook, "2", "1:0"));
+        assertTrue(Files.exists(stateDir.resolve(FsMonitorDaemon.STARTING_FILE)));
+    }
+
+    @Test
+    void hookScriptWaitsForStartingDaemon() throws Exception {
+        Path worktree = init();
+        Path hook =
+                new HookScriptWriter(null, "maven", "java", false)
+                        .writeHook(HookType.FSMONITOR_WATCHMAN, worktree.resolve(".git/hooks"));
+        Path stateDir = FsMonitorDaemon.stateDir(worktree.resolve(".git"));
+        Files.createDirectories(stateDir);
+        // Pid and heartbeat of a daemon still walking the work tree
+        Files.writeString(
+                stateDir.resolve(FsMonitorDaemon.PID_FILE),
+                Long.toString(ProcessHandle.current().pid()));
+        Files.writeString(stateDir.resolve(FsMonitorDaemon.HEARTBEAT_FILE), "");
+
+        assertArrayEquals(new String[] {"0:0", "/"}, runHook(worktree, hook, "2", ""));
+        assertFalse(Files.exists(stateDir.resolve(FsMonitorDaemon.STARTING_FILE)));
+    }
+
+    @Test
+    void startPublishesPidBeforeGeneration() throws Exception {
+        Path worktree = init();
+        Path stateDir = FsMonitorDaemon.stateDir(worktree.resolve(".git"));
+        Files.createDirectories(stateDir.resolve(FsMonitorDaemon.COOKIES_DIR));
+        Files.writeString(stateDir.resolve(FsMonitorDaemon.COOKIES_DIR).resolve("1"), "");
+        Files.writeString(stateDir.resolve(FsMonitorDaemon.STARTING_FILE), "");
+        try (FsMonitorDaemon daemon = FsMonitorDaemon.start(worktree, stateDir, 1024 * 1024)) {
+            assertEquals(
+                    Long.toString(ProcessHandle.current().pid()),
+                    Files.readString(stateDir.resolve(FsMonitorDaemon.PID_FILE)));
+            assertTrue(Files.exists(stateDir.resolve(FsMonitorDaemon.HEARTBEAT_FILE)));
+            assertFalse(Files.exists(stateDir.resolve(FsMonitorDaemon.STARTING_FILE)));
+            assertFalse(Files.exists(stateDir.resolve(FsMonitorDaemon.COOKIES_DIR).resolve("1")));
+        }
+        assertFalse(Files.exists(stateDir.resolve(FsMonitorDaemon.HEARTBEAT_FILE)));
+    }
+
+    private static Callable<Void> run(FsMonitorDaemon daemon) {
+        return () -> {
+            daemon.run();
+            return null;
+        };
+    }
+
+    private static String[] runHook(Path worktree, Path hook, String... args)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("sh", hook.toString()));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).directory(worktree.toFile()).start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(0, process.waitFor());
+        return output.split("\0");
+    }
+
+    private static List<String> awaitPaths(Path journal, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (true) {
+            List<String> paths = List.of(Files.readString(journal).split("\0"));
+            if (paths.contains(expected) || System.currentTimeMillis() > deadline) {
+                assertTrue(paths.contains(expected), "Missing " + expected + " in " + paths);
+                return paths;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static Path init() throws Exception {
+        Path worktree = Files.createTempDirectory(TARGET, "").toAbsolutePath();
+        Git.init().setDirectory(worktree.toFile()).setInitialBranch("main").call().close();
+        Files.createDirectories(worktree.resolve(".git/hooks"));
+        return worktree;
+    }
+}
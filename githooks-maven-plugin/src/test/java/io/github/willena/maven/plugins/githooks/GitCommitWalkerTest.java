@@ -0,0 +1,196 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+
+class GitCommitWalkerTest {
+
+    private static final Path TARGET = Path.of("target");
+    private static final String ZERO = ObjectId.zeroId().name();
+
+    @Test
+    void validatesOnlyNewCommitsOfUpdatedRef() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        RevCommit base;
+        RevCommit bad;
+        RevCommit tip;
+        try (Git git = init(repo)) {
+            base = commit(git, "base\n\nSigned-off-by: A <a@example.com>");
+            bad = commit(git, "unsigned");
+            tip = commit(git, "tip\n\nSigned-off-by: A <a@example.com>");
+        }
+
+        List<String> validated = new ArrayList<>();
+        List<String> rejections =
+                walker(repo, 1, new RefUpdate("refs/heads/main", base.name(), tip.name()))
+                        .validate(
+                                commit -> {
+                                    validated.add(commit.getSubject());
+                                    return commit.getMessage().contains("Signed-off-by:")
+                                            ? null
+                                            : "missing sign-off";
+                                });
+
+        assertEquals(List.of("tip", "unsigned"), validated);
+        assertEquals(
+                List.of("refs/heads/main " + bad.abbreviate(7).name() + ": missing sign-off"),
+                rejections);
+    }
+
+    @Test
+    void verifiedCommitsAreNotValidatedAgain() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        RevCommit base;
+        RevCommit first;
+        RevCommit tip;
+        try (Git git = init(repo)) {
+            base = commit(git, "base");
+            first = commit(git, "first");
+            tip = commit(git, "tip");
+        }
+        RefUpdates updates =
+                RefUpdates.of(List.of(new RefUpdate("refs/heads/main", base.name(), tip.name())));
+
+        List<String> validated = new ArrayList<>();
+        CommitValidator rejectTip =
+                commit -> {
+                    validated.add(commit.getSubject());
+                    return commit.getSubject().equals("tip") ? "rejected" : null;
+                };
+        new GitCommitWalker(repo, updates, 1, VerifiedCommits.load(repo, "config"))
+                .validate(rejectTip);
+        assertEquals(List.of("tip", "first"), validated);
+
+        validated.clear();
+        VerifiedCommits verified = VerifiedCommits.load(repo, "config");
+        assertTrue(verified.contains(first.name()));
+        assertFalse(verified.contains(tip.name()));
+        new GitCommitWalker(repo, updates, 1, verified).validate(rejectTip);
+        // Only the rejected commit is checked again
+        assertEquals(List.of("tip"), validated);
+    }
+
+    @Test
+    void createdRefExcludesCommitsOfOtherRefs() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        RevCommit feature;
+        try (Git git = init(repo)) {
+            commit(git, "on main");
+            git.checkout().setCreateBranch(true).setName("feature").call();
+            feature = commit(git, "on feature");
+        }
+
+        List<String> validated = new ArrayList<>();
+        walker(repo, 1, new RefUpdate("refs/heads/feature", ZERO, feature.name()))
+                .validate(
+                        commit -> {
+                            validated.add(commit.getSubject());
+                            return null;
+                        });
+
+        assertEquals(List.of("on feature"), validated);
+    }
+
+    @Test
+    void sharedCommitsAreValidatedOnce() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        List<RefUpdate> updates = new ArrayList<>();
+        try (Git git = init(repo)) {
+            RevCommit shared = commit(git, "shared");
+            updates.add(new RefUpdate("refs/heads/main", ZERO, shared.name()));
+            for (int i = 0; i < 20; i++) {
+                updates.add(new RefUpdate("refs/heads/b" + i, ZERO, shared.name()));
+            }
+        }
+
+        AtomicInteger calls = new AtomicInteger();
+        List<String> rejections =
+                new GitCommitWalker(repo, RefUpdates.of(updates), 4)
+                        .validate(
+                                commit -> {
+                                    calls.incrementAndGet();
+                                    // Slow enough for every worker to reach the commit
+                                    Thread.sleep(50);
+                                    return "rejected";
+                                });
+
+        assertEquals(1, calls.get());
+        assertEquals(1, rejections.size());
+        assertTrue(rejections.get(0).startsWith("refs/heads/main "));
+    }
+
+    @Test
+    void validatorFailureAbortsWalk() throws IOException, GitAPIException {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        RevCommit tip;
+        try (Git git = init(repo)) {
+            tip = commit(git, "tip");
+        }
+
+        IOException e =
+                assertThrows(
+                        IOException.class,
+                        () ->
+                                walker(repo, 2, new RefUpdate("refs/heads/main", ZERO, tip.name()))
+                                        .validate(
+                                                commit -> {
+                                                    throw new IOException("broken");
+                                                }));
+        assertEquals("broken", e.getMessage());
+    }
+
+    @Test
+    void deletedRefsHaveNoCommits() throws Exception {
+        String old = "1111111111111111111111111111111111111111";
+        RefUpdates deleted = RefUpdates.of(List.of(new RefUpdate("refs/heads/old", old, ZERO)));
+        GitCommitWalker walker = new GitCommitWalker(null, deleted, 1);
+
+        assertEquals(List.of(), walker.validate(commit -> "rejected"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new GitCommitWalker(null, RefUpdates.empty(), 0));
+    }
+
+    private static GitCommitWalker walker(Path repo, int parallelism, RefUpdate update) {
+        return new GitCommitWalker(repo, RefUpdates.of(List.of(update)), parallelism);
+    }
+
+    private static Git init(Path repo) throws GitAPIException {
+        return Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call();
+    }
+
+    private static RevCommit commit(Git git, String message) throws GitAPIException {
+        return git.commit()
+                .setMessage(message)
+                .setAuthor("John Doe", "john@example.com")
+                .setAllowEmpty(true)
+                .call();
+    }
+}
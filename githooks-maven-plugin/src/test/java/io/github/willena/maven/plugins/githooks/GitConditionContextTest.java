@@ -0,0 +1,187 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.util.SystemReader;
+import org.junit.jupiter.api.Test;
+
+class GitConditionContextTest {
+
+    private static final Path TARGET = Path.of("target");
+
+    @Test
+    void emptyRepository() throws IOException, GitAPIException {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        try (Git ignored = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call();
+                GitConditionContext context = new GitConditionContext(repo, name -> null)) {
+            assertEquals(Set.of(), context.getHeadRefNames());
+            assertEquals("main", context.getBranch());
+            assertNull(context.getHeadCommitMessage());
+            assertNull(context.getHeadAuthor());
+            assertEquals(0, context.getAheadCount());
+            assertEquals(List.of(), context.getChangedFiles());
+            assertNull(context.getHeadId());
+            assertNull(context.getUpstreamMergeBase());
+            assertEquals("", context.getStagedDiff());
+            assertNull(context.getCommitMessage());
+        }
+    }
+
+    @Test
+    void untrackedFilesMakeTheWorkTreeDirty() throws IOException, GitAPIException {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            git.commit().setMessage("base").setAllowEmpty(true).call();
+        }
+        try (GitConditionContext context = new GitConditionContext(repo, name -> null)) {
+            assertTrue(context.isWorkTreeClean());
+        }
+        Files.writeString(repo.resolve("new.txt"), "new");
+        try (GitConditionContext context = new GitConditionContext(repo, name -> null)) {
+            assertFalse(context.isWorkTreeClean());
+        }
+    }
+
+    @Test
+    void changedFilesComeFromTheHookIndex() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "").toAbsolutePath();
+        Path hookIndex = repo.resolve(".git/index.hook");
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("base.txt"), "base");
+            git.add().addFilepattern("base.txt").call();
+            git.commit().setMessage("base").call();
+            Files.copy(repo.resolve(".git/index"), hookIndex);
+            Files.writeString(repo.resolve("default.txt"), "default");
+            git.add().addFilepattern("default.txt").call();
+        }
+        // Index of a git commit -a or git commit <paths>
+        try (Repository repository =
+                        new FileRepositoryBuilder()
+                                .setGitDir(repo.resolve(".git").toFile())
+                                .setIndexFile(hookIndex.toFile())
+                                .build();
+                Git git = Git.wrap(repository)) {
+            Files.writeString(repo.resolve("committed.txt"), "committed");
+            git.add().addFilepattern("committed.txt").call();
+        }
+
+        SystemReader system = SystemReader.getInstance();
+        SystemReader.setInstance(
+                new SystemReader.Delegate(system) {
+                    @Override
+                    public String getenv(String variable) {
+                        return "GIT_INDEX_FILE".equals(variable)
+                                ? hookIndex.toString()
+                                : super.getenv(variable);
+                    }
+                });
+        try (GitConditionContext context = new GitConditionContext(repo, name -> null)) {
+            assertEquals(List.of("committed.txt"), context.getChangedFiles());
+            assertTrue(context.getStagedDiff().contains("committed.txt"));
+        } finally {
+            SystemReader.setInstance(system);
+        }
+    }
+
+    @Test
+    void headFacts() throws IOException, GitAPIException {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("a.txt"), "a");
+            git.add().addFilepattern("a.txt").call();
+            git.commit()
+                    .setMessage("first commit")
+                    .setAuthor("John Doe", "john@example.com")
+                    .call();
+            git.tag().setName("1.0.0").call();
+
+            Files.createDirectories(repo.resolve("src"));
+            Files.writeString(repo.resolve("src/b.java"), "b");
+            Files.writeString(repo.resolve("unstaged.txt"), "c");
+            git.add().addFilepattern("src/b.java").call();
+        }
+        Files.writeString(repo.resolve(".git/COMMIT_EDITMSG"), "feat: message\n");
+
+        try (GitConditionContext context =
+                new GitConditionContext(
+                        repo, Map.of("KEY", "value")::get, Path.of(".git/COMMIT_EDITMSG"))) {
+            assertEquals("value", context.getEnv("KEY"));
+            assertEquals(
+                    Set.of("HEAD", "refs/heads/main", "refs/tags/1.0.0"),
+                    context.getHeadRefNames());
+            assertEquals("main", context.getBranch());
+            assertEquals("first commit", context.getHeadCommitMessage());
+            assertEquals("John Doe <john@example.com>", context.getHeadAuthor());
+            assertEquals(List.of("src/b.java"), context.getChangedFiles());
+            assertSame(context.getChangedFiles(), context.getChangedFiles());
+            assertEquals(40, context.getHeadId().length());
+            assertTrue(context.getStagedDiff().contains("+++ b/src/b.java"));
+            assertFalse(context.getStagedDiff().contains("unstaged.txt"));
+            assertSame(context.getStagedDiff(), context.getStagedDiff());
+            assertEquals("feat: message\n", context.getCommitMessage());
+            assertEquals(
+                    repo.toAbsolutePath().normalize(),
+                    context.getWorkTree().toAbsolutePath().normalize());
+        }
+    }
+
+    @Test
+    void trackingCounts() throws IOException, GitAPIException {
+        Path origin = Files.createTempDirectory(TARGET, "");
+        try (Git git = Git.init().setDirectory(origin.toFile()).setInitialBranch("main").call()) {
+            git.commit().setMessage("first").setAllowEmpty(true).call();
+        }
+
+        String base;
+        Path clone = Files.createTempDirectory(TARGET, "");
+        try (Git git =
+                Git.cloneRepository()
+                        .setURI(origin.toUri().toString())
+                        .setDirectory(clone.toFile())
+                        .call()) {
+            base = git.getRepository().resolve("HEAD").getName();
+            git.commit().setMessage("second").setAllowEmpty(true).call();
+            git.commit().setMessage("third").setAllowEmpty(true).call();
+        }
+
+        try (GitConditionContext context = new GitConditionContext(clone, name -> null)) {
+            assertEquals(2, context.getAheadCount());
+            assertEquals(0, context.getBehindCount());
+            assertEquals(base, context.getUpstreamMergeBase());
+        }
+    }
+
+    @Test
+    void noRepository() {
+        try (GitConditionContext context = new GitConditionContext(null, name -> null)) {
+            assertNull(context.getEnv("KEY"));
+            assertThrows(IllegalStateException.class, context::getBranch);
+        }
+    }
+}
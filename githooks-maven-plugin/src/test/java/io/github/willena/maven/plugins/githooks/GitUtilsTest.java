@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
@@ -129,4 +130,21 @@ class GitUtilsTest {
                 GitUtils.headMatchesRefPattern(newRepo, Pattern.compile("refs/heads/newBranch")));
         assertFalse(GitUtils.headMatchesRefPattern(newRepo, Pattern.compile("fss")));
     }
+
+    @Test
+    void getHeadRefNames() throws IOException, GitAPIException {
+        Path newRepo = Files.createTempDirectory(TARGET, "");
+        try (Git git = Git.init().setDirectory(newRepo.toFile()).call()) {
+            assertEquals(Set.of(), GitUtils.getHeadRefNames(newRepo));
+
+            Files.createTempFile(newRepo, "", "");
+            git.add().addFilepattern("*").call();
+            git.commit().setMessage("msg").call();
+            git.tag().setName("1.0.0").call();
+        }
+
+        assertEquals(
+                Set.of("HEAD", "refs/heads/master", "refs/tags/1.0.0"),
+                GitUtils.getHeadRefNames(newRepo));
+    }
 }
@@ -17,11 +17,17 @@
 package io.github.willena.maven.plugins.githooks;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -29,6 +35,9 @@ class HookConfigScriptWriterTest {
 
     private static final Path TARGET = Path.of("target");
 
+    /** Latency budget of a high-frequency hook run from the shell, per call. */
+    private static final long MAX_NATIVE_OVERHEAD_MILLIS = 100;
+
     @Test
     void writeHook() throws IOException {
         HookScriptWriter writer =
@@ -50,6 +59,7 @@ class HookConfigScriptWriterTest {
 
         assertEquals(
                 "#!/bin/sh\n"
+                        + "hookStart=$(date +%s%3N);\n"
                         + "args=$(IFS=, ; echo \"$*\");\n"
                         + "export PATH=\""
                         + Path.of("b").resolve("bin")
@@ -61,7 +71,223 @@ class HookConfigScriptWriterTest {
                         + "alias type='type -p';\n"
                         + "shPath=$($(command -v where || command -v type) sh);\n"
                         + "unalias type;\n"
-                        + "mvn githooks:run \"-Dsh.path=${shPath}\" \"-Dhook.name=COMMIT_MSG\" \"-Dhook.args=${args}\";",
+                        + "mvn githooks:run \"-Dsh.path=${shPath}\" \"-Dhook.name=COMMIT_MSG\" \"-Dhook.args=${args}\" \"-Dhook.startTime=${hookStart}\" \"-Dhook.stdin=false\";",
                 content);
     }
+
+    @Test
+    void writeHookDefaultTellsWhetherGitWritesTheStandardInput() throws IOException {
+        HookScriptWriter writer = new HookScriptWriter(null, "a", "b", false);
+        Path repo = Files.createTempDirectory(TARGET, "");
+
+        assertTrue(
+                Files.readString(writer.writeHook(HookType.PRE_PUSH, repo))
+                        .contains("\"-Dhook.stdin=true\""));
+        assertTrue(
+                Files.readString(writer.writeHook(HookType.PRE_COMMIT, repo))
+                        .contains("\"-Dhook.stdin=false\""));
+    }
+
+    @Test
+    void writeHighFrequencyHookWithCommandsOnly() throws IOException, InterruptedException {
+        Path repo = Files.createTempDirectory(TARGET, "").toAbsolutePath();
+        Path out = repo.resolve("out.txt");
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        command("first", "echo first >> " + out),
+                        command("disabled", "false").setEnabled(false),
+                        command("second", "cat >> " + out + "; :"));
+
+        Path hook =
+                new HookScriptWriter(null, "a", "b", false)
+                        .writeHook(HookType.REFERENCE_TRANSACTION, definitions, repo);
+
+        String content = Files.readString(hook);
+        assertFalse(content.contains("mvn"));
+        assertEquals(0, runHook(hook, "committed", "line\n"));
+        assertEquals("first committed\nline\n", Files.readString(out));
+    }
+
+    @Test
+    void nativeHookStopsAtFirstFailure() throws IOException, InterruptedException {
+        Path repo = Files.createTempDirectory(TARGET, "").toAbsolutePath();
+        Path out = repo.resolve("out.txt");
+        Path hook =
+                new HookScriptWriter(null, "a", "b", false)
+                        .writeHook(
+                                HookType.POST_INDEX_CHANGE,
+                                List.of(command("fail", "exit 3"), command("next", "touch " + out)),
+                                repo);
+
+        assertEquals(3, runHook(hook, "0", ""));
+        assertFalse(Files.exists(out));
+    }
+
+    @Test
+    void highFrequencyHookFallsBackToMaven() throws IOException {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        HookDefinitionConfig conditional = command("conditional", "true");
+        conditional.setOnlyIf(new ConditionalRunConfig().setBranch("main"));
+        List<List<HookDefinitionConfig>> fallbacks =
+                List.of(
+                        List.of(conditional),
+                        List.of(
+                                new HookDefinitionConfig()
+                                        .setName("class")
+                                        .setRunConfig(new RunConfig().setClassName("BasicHook"))),
+                        List.of(command("classpath", "classpath:script.sh")));
+        HookScriptWriter writer = new HookScriptWriter(null, "a", "b", false);
+
+        for (List<HookDefinitionConfig> definitions : fallbacks) {
+            Path hook = writer.writeHook(HookType.REFERENCE_TRANSACTION, definitions, repo);
+            assertTrue(Files.readString(hook).contains("mvn githooks:run"));
+        }
+        Path commit =
+                writer.writeHook(HookType.PRE_COMMIT, List.of(command("true", "true")), repo);
+        assertTrue(Files.readString(commit).contains("mvn githooks:run"));
+    }
+
+    @Test
+    void nativeHookOverheadIsBounded() throws IOException, InterruptedException {
+        Path repo = Files.createTempDirectory(TARGET, "").toAbsolutePath();
+        Path hook =
+                new HookScriptWriter(null, "a", "b", false)
+                        .writeHook(
+                                HookType.REFERENCE_TRANSACTION,
+                                List.of(command("a", "true"), command("b", "true")),
+                                repo);
+
+        long[] durations = new long[21];
+        for (int i = 0; i < durations.length; i++) {
+            long start = System.nanoTime();
+            assertEquals(0, runHook(hook, "prepared", "0 1 refs/heads/main\n"));
+            durations[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(durations);
+        long median = Duration.ofNanos(durations[durations.length / 2]).toMillis();
+        assertTrue(
+                median < MAX_NATIVE_OVERHEAD_MILLIS,
+                "Median hook overhead " + median + "ms exceeds " + MAX_NATIVE_OVERHEAD_MILLIS);
+    }
+
+    @Test
+    void commitMessageRulesRunWithoutMaven() throws IOException, InterruptedException {
+        Path repo = Files.createTempDirectory(TARGET, "").toAbsolutePath();
+        CommitMessageConfig rules =
+                new CommitMessageConfig()
+                        .setSubjectPattern("^(feat|fix)(\\([a-z]+\\))?: ")
+                        .setIgnorePattern("^Merge ")
+                        .setMaxSubjectLength(30)
+                        .setMaxLineLength(30)
+                        .setRequiredTrailers(List.of("Signed-off-by"));
+        Path hook =
+                new HookScriptWriter(null, "a", "b", false)
+                        .writeHook(HookType.COMMIT_MSG, List.of(), rules, repo);
+        assertFalse(Files.readString(hook).contains("mvn"));
+
+        Path message = repo.resolve("COMMIT_EDITMSG");
+        Files.writeString(
+                message,
+                "\nfix(core): it's fixed\n\nBody\n\nSigned-off-by: A <a@b>\n# comment\n");
+        assertEquals(0, runHook(hook, message.toString(), ""));
+        Files.writeString(message, "Merge branch 'x' into a branch with a long name\n");
+        assertEquals(0, runHook(hook, message.toString(), ""));
+        Files.writeString(
+                message,
+                "fix: ok\n\nSigned-off-by: A <a@b>\n# ------------------------ >8"
+                        + " ------------------------\n+ a diff line longer than the limit\n");
+        assertEquals(0, runHook(hook, message.toString(), ""));
+
+        for (String rejected :
+                List.of(
+                        "update things\n\nSigned-off-by: A <a@b>\n",
+                        "fix: a subject longer than thirty characters\n\nSigned-off-by: A\n",
+                        "fix: ok\n\nA body line longer than thirty chars\n\nSigned-off-by: A\n",
+                        "fix: ok\n")) {
+            Files.writeString(message, rejected);
+            assertEquals(1, runHook(hook, message.toString(), ""), rejected);
+        }
+    }
+
+    @Test
+    void commitMessageRulesRunBeforeMaven() throws IOException {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        HookScriptWriter writer = new HookScriptWriter(null, "a", "b", false);
+        CommitMessageConfig rules = new CommitMessageConfig().setMaxSubjectLength(50);
+
+        String content =
+                Files.readString(
+                        writer.writeHook(
+                                HookType.COMMIT_MSG,
+                                List.of(
+                                        new HookDefinitionConfig()
+                                                .setName("class")
+                                                .setRunConfig(
+                                                        new RunConfig()
+                                                                .setClassName("BasicHook"))),
+                                rules,
+                                repo));
+        assertTrue(content.startsWith("#!/bin/sh\n"));
+        assertEquals(content.indexOf("#!"), content.lastIndexOf("#!"));
+        assertTrue(content.indexOf("awk") < content.indexOf("mvn githooks:run"));
+    }
+
+    @Test
+    void sharedArchiveIsUsedByMavenHooks() throws IOException {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        Path archive = repo.toAbsolutePath().resolve("hooks.jsa");
+        HookScriptWriter writer = new HookScriptWriter(null, "a", "b", false, archive);
+
+        String content = Files.readString(writer.writeHook(HookType.PRE_COMMIT, repo));
+        assertTrue(
+                content.startsWith(
+                        "#!/bin/sh\n" + HookScriptWriter.sharedArchiveOptions(archive)));
+        assertTrue(content.contains("mvn githooks:run"));
+        assertFalse(
+                Files.readString(writer.writeHook(HookType.FSMONITOR_WATCHMAN, repo))
+                        .contains("MAVEN_OPTS"));
+        assertFalse(
+                Files.readString(
+                                new HookScriptWriter(null, "a", "b", false)
+                                        .writeHook(HookType.PRE_COMMIT, repo))
+                        .contains("MAVEN_OPTS"));
+    }
+
+    @Test
+    void invalidSharedArchiveIsIgnored() throws IOException, InterruptedException {
+        Path repo = Files.createTempDirectory(TARGET, "").toAbsolutePath();
+        Path archive = repo.resolve("hooks.jsa");
+        Files.writeString(archive, "not an archive");
+        Path script = repo.resolve("java.sh");
+        Files.writeString(
+                script,
+                HookScriptWriter.sharedArchiveOptions(archive)
+                        + "exec \"$1\" $MAVEN_OPTS -version\n");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        Process process =
+                new ProcessBuilder("sh", script.toString(), java)
+                        .redirectErrorStream(true)
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .start();
+        assertEquals(0, process.waitFor());
+    }
+
+    private static HookDefinitionConfig command(String name, String command) {
+        return new HookDefinitionConfig()
+                .setName(name)
+                .setRunConfig(new RunConfig().setCommand(command));
+    }
+
+    private static int runHook(Path hook, String arg, String input)
+            throws IOException, InterruptedException {
+        Process process =
+                new ProcessBuilder("sh", hook.toString(), arg)
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .start();
+        try (OutputStream stdin = process.getOutputStream()) {
+            stdin.write(input.getBytes(StandardCharsets.UTF_8));
+        }
+        return process.waitFor();
+    }
 }
@@ -16,9 +16,9 @@
 
 package io.github.willena.maven.plugins.githooks;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class HookDefinitionConfigTest {
@@ -39,4 +39,53 @@ class HookDefinitionConfigTest {
         assertNotNull(def.getOnlyIf());
         assertNotNull(def.getSkipIf());
     }
+
+    @Test
+    void validate() {
+        HookDefinitionConfig def =
+                new HookDefinitionConfig()
+                        .setName("name")
+                        .setOnlyIf(new ConditionalRunConfig().setRef("main"))
+                        .setSkipIf(new ConditionalRunConfig().setRef("[invalid"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, def::validate);
+        assertTrue(e.getMessage().contains("'name'"));
+
+        def.setSkipIf(null);
+        assertDoesNotThrow(def::validate);
+
+        def.setRunConfig(new RunConfig().setModuleParallelism(0));
+        assertThrows(IllegalArgumentException.class, def::validate);
+        def.setRunConfig(new RunConfig().setCommand("lint").setBatchParallelism(0));
+        assertThrows(IllegalArgumentException.class, def::validate);
+        def.setRunConfig(new RunConfig().setCommand("lint").setFiles(List.of("[invalid")));
+        assertThrows(IllegalArgumentException.class, def::validate);
+        def.setRunConfig(new RunConfig().setClassName("hook").setFiles(List.of("*.java")));
+        assertThrows(IllegalArgumentException.class, def::validate);
+        def.setRunConfig(new RunConfig().setCommand("lint").setFiles(List.of("*.java")));
+        assertDoesNotThrow(def::validate);
+    }
+
+    @Test
+    void runConditionCombinesSkipIfAndOnlyIf() {
+        FakeConditionContext context = new FakeConditionContext();
+        HookDefinitionConfig def =
+                new HookDefinitionConfig()
+                        .setOnlyIf(new ConditionalRunConfig().setBranch("main"))
+                        .setSkipIf(new ConditionalRunConfig().setCommitMessage("^WIP"));
+
+        context.branch = "main";
+        context.headCommitMessage = "fix";
+        assertTrue(def.getRunCondition().test(context));
+
+        context.headCommitMessage = "WIP";
+        assertFalse(def.getRunCondition().test(context));
+
+        context.branch = "dev";
+        context.headCommitMessage = "fix";
+        assertFalse(def.getRunCondition().test(context));
+
+        def.setOnlyIf(new ConditionalRunConfig()).setSkipIf(null);
+        assertSame(Conditions.ALWAYS, def.getRunCondition());
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HookInputTest {
+    private static final String A = "1111111111111111111111111111111111111111";
+    private static final String B = "2222222222222222222222222222222222222222";
+
+    @Test
+    void spoolAndParse() throws IOException {
+        Path file;
+        try (HookInput input = spool("refs/heads/main " + A + " refs/heads/main " + B + "\n")) {
+            file = input.getFile();
+            assertTrue(Files.exists(file));
+
+            List<RefUpdate> updates = list(input.getRefUpdates(HookType.PRE_PUSH, List.of()));
+            assertEquals(
+                    List.of(new RefUpdate("refs/heads/main", B, A, "refs/heads/main")), updates);
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void updateUsesArguments() {
+        List<RefUpdate> updates =
+                list(
+                        HookInput.none()
+                                .getRefUpdates(HookType.UPDATE, List.of("refs/heads/x", A, B)));
+
+        assertEquals(List.of(new RefUpdate("refs/heads/x", A, B)), updates);
+    }
+
+    @Test
+    void hooksWithoutRefInputHaveNoUpdates() throws IOException {
+        try (HookInput input = spool(A + " " + B + " refs/heads/main\n")) {
+            assertTrue(list(input.getRefUpdates(HookType.PRE_COMMIT, List.of())).isEmpty());
+        }
+        assertNull(HookInput.none().getFile());
+        assertTrue(list(HookInput.none().getRefUpdates(HookType.PRE_RECEIVE, null)).isEmpty());
+    }
+
+    private static HookInput spool(String content) throws IOException {
+        return HookInput.spool(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<RefUpdate> list(RefUpdates updates) {
+        return updates.stream().toList();
+    }
+}
@@ -18,9 +18,15 @@ package io.github.willena.maven.plugins.githooks;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -28,9 +34,16 @@ import org.apache.maven.execution.DefaultMavenExecutionRequest;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.DefaultBuildPluginManager;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
 import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
 import org.junit.jupiter.api.Test;
 
 class HookRunnerTest {
@@ -75,6 +88,704 @@ class HookRunnerTest {
         assertEquals(List.of("A"), Arrays.asList(BasicHook.receivedArgs));
     }
 
+    @Test
+    void runFailsFastOnUnknownClassName() {
+        BasicHook.receivedArgs = null;
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("first")
+                                .setRunConfig(
+                                        new RunConfig()
+                                                .setArgs(List.of("A"))
+                                                .setClassName(BasicHook.class.getSimpleName())),
+                        new HookDefinitionConfig()
+                                .setName("second")
+                                .setRunConfig(new RunConfig().setClassName("NotExists")),
+                        new HookDefinitionConfig()
+                                .setName("skipped")
+                                .setRunConfig(new RunConfig().setClassName("NotExistsEither")));
+
+        HookRunner runner =
+                new HookRunner(
+                        definitions,
+                        new FakeLogger(),
+                        new HookRunner.HookRunnerConfig.Builder()
+                                .skipRuns(List.of("skipped"))
+                                .runnableHooks(Map.of(BasicHook.class.getSimpleName(), new BasicHook()))
+                                .build());
+
+        MojoExecutionException e = assertThrows(MojoExecutionException.class, runner::run);
+        assertTrue(e.getMessage().contains("[NotExists]"));
+        assertNull(BasicHook.receivedArgs);
+    }
+
+    @Test
+    void runAppliesSkipIfAndOnlyIf() throws MojoExecutionException {
+        BasicHook.receivedArgs = null;
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("skipped")
+                                .setOnlyIf(new ConditionalRunConfig().setEnv(Map.of("PATH", "")))
+                                .setSkipIf(new ConditionalRunConfig().setEnv(Map.of("PATH", "")))
+                                .setRunConfig(
+                                        new RunConfig()
+                                                .setArgs(List.of("skipped"))
+                                                .setClassName(BasicHook.class.getSimpleName())),
+                        new HookDefinitionConfig()
+                                .setName("kept")
+                                .setOnlyIf(new ConditionalRunConfig().setEnv(Map.of("PATH", "")))
+                                .setSkipIf(
+                                        new ConditionalRunConfig()
+                                                .setEnv(Map.of("GITHOOKS_UNDEFINED_VARIABLE", "")))
+                                .setRunConfig(
+                                        new RunConfig()
+                                                .setArgs(List.of("kept"))
+                                                .setClassName(BasicHook.class.getSimpleName())));
+
+        new HookRunner(
+                        definitions,
+                        new FakeLogger(),
+                        new HookRunner.HookRunnerConfig.Builder()
+                                .runnableHooks(Map.of(BasicHook.class.getSimpleName(), new BasicHook()))
+                                .build())
+                .run();
+
+        assertArrayEquals(new String[] {"kept"}, BasicHook.receivedArgs);
+    }
+
+    @Test
+    void runRecordsTimings() {
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("class")
+                                .setRunConfig(
+                                        new RunConfig()
+                                                .setClassName(BasicHook.class.getSimpleName())),
+                        new HookDefinitionConfig()
+                                .setName("echo")
+                                .setRunConfig(
+                                        new RunConfig().setCommand("echo").setArgs(List.of("hello"))),
+                        new HookDefinitionConfig()
+                                .setName("failing")
+                                .setRunConfig(new RunConfig().setCommand("exit 3")));
+
+        HookTimings timings = new HookTimings("PRE_COMMIT", Duration.ofMillis(1500));
+        FakeLogger logger = new FakeLogger();
+        HookRunner runner =
+                new HookRunner(
+                        definitions,
+                        logger,
+                        new HookRunner.HookRunnerConfig.Builder()
+                                .runnableHooks(Map.of(BasicHook.class.getSimpleName(), new BasicHook()))
+                                .timings(timings)
+                                .build());
+
+        assertThrows(MojoExecutionException.class, runner::run);
+
+        List<HookTiming> recorded = timings.getDefinitions();
+        assertEquals(
+                List.of("class", "echo", "failing"),
+                recorded.stream().map(HookTiming::getName).toList());
+
+        HookTiming classTiming = recorded.get(0);
+        assertEquals("class", classTiming.getType());
+        assertTrue(classTiming.isSuccess());
+        assertTrue(classTiming.getSpawnLatency().isEmpty());
+
+        HookTiming echoTiming = recorded.get(1);
+        assertEquals("command", echoTiming.getType());
+        assertTrue(echoTiming.isSuccess());
+        assertTrue(echoTiming.getSpawnLatency().isPresent());
+        assertEquals("hello\n".length(), echoTiming.getOutputBytes());
+
+        assertFalse(recorded.get(2).isSuccess());
+        assertTrue(timings.getTotal().compareTo(Duration.ofMillis(1500)) >= 0);
+        assertSame(timings, runner.getTimings());
+    }
+
+    @Test
+    void runWritesTrace() throws MojoExecutionException, IOException {
+        Path traceFile = Files.createTempDirectory(Path.of("target"), "").resolve("trace.json");
+        HookTracer tracer = new HookTracer(traceFile);
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("echo")
+                                .setOnlyIf(new ConditionalRunConfig().setEnv(Map.of("PATH", "")))
+                                .setRunConfig(
+                                        new RunConfig().setCommand("echo").setArgs(List.of("hi"))));
+
+        new HookRunner(
+                        definitions,
+                        new FakeLogger(),
+                        new HookRunner.HookRunnerConfig.Builder().tracer(tracer).build())
+                .run();
+        tracer.write();
+
+        assertEquals(
+                List.of(
+                        HookTracer.Kind.CONDITION,
+                        HookTracer.Kind.SPAWN,
+                        HookTracer.Kind.OUTPUT,
+                        HookTracer.Kind.DEFINITION,
+                        HookTracer.Kind.RUN),
+                tracer.getEvents().stream().map(e -> e.kind).toList());
+        assertTrue(Files.readString(traceFile).contains("\"cat\":\"process\""));
+    }
+
+    @Test
+    void runPropagatesTraceContextToCommands() throws MojoExecutionException {
+        HookTracer tracer =
+                new HookTracer(
+                        null, true, "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        FakeLogger logger = new FakeLogger();
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("traced")
+                                .setRunConfig(
+                                        new RunConfig()
+                                                .setCommand("echo")
+                                                .setArgs(List.of("parent=$TRACEPARENT"))));
+
+        new HookRunner(
+                        definitions,
+                        logger,
+                        new HookRunner.HookRunnerConfig.Builder().tracer(tracer).build())
+                .run();
+
+        HookTracer.TraceEvent definition =
+                tracer.getEvents().stream()
+                        .filter(e -> e.kind == HookTracer.Kind.DEFINITION)
+                        .findFirst()
+                        .orElseThrow();
+        assertTrue(
+                logger.infoMessages.contains(
+                        "parent=00-0af7651916cd43dd8448eb211c80319c-" + definition.spanId + "-01"));
+    }
+
+    @Test
+    void runPassesHookInput() throws MojoExecutionException, IOException {
+        String line =
+                "1111111111111111111111111111111111111111 "
+                        + "2222222222222222222222222222222222222222 refs/heads/main";
+        List<RefUpdate> received = new ArrayList<>();
+        FakeLogger logger = new FakeLogger();
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("class")
+                                .setRunConfig(new RunConfig().setClassName("refs")),
+                        new HookDefinitionConfig()
+                                .setName("command")
+                                .setRunConfig(new RunConfig().setCommand("cat")));
+
+        try (HookInput input =
+                HookInput.spool(new ByteArrayInputStream((line + "\n").getBytes()))) {
+            new HookRunner(
+                            definitions,
+                            logger,
+                            new HookRunner.HookRunnerConfig.Builder()
+                                    .hookType(HookType.PRE_RECEIVE)
+                                    .hookInput(input)
+                                    .runnableHooks(
+                                            Map.of(
+                                                    "refs",
+                                                    (context, args) ->
+                                                            context.getRefUpdates()
+                                                                    .forEach(received::add)))
+                                    .build())
+                    .run();
+        }
+
+        assertEquals(List.of(RefUpdate.parse(RefUpdate.Format.RECEIVE, line)), received);
+        assertTrue(logger.infoMessages.contains(line));
+    }
+
+    @Test
+    void runStagedDefinitionsOnSnapshot() throws Exception {
+        Path repo = Files.createTempDirectory(Path.of("target"), "");
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("file.txt"), "staged");
+            git.add().addFilepattern(".").call();
+            Files.writeString(repo.resolve("file.txt"), "working tree");
+        }
+        MavenProject project = new MavenProject();
+        project.setFile(repo.resolve("pom.xml").toFile());
+        List<Path> snapshots = new ArrayList<>();
+        FakeLogger logger = new FakeLogger();
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("command")
+                                .setRunConfig(
+                                        new RunConfig().setCommand("cat file.txt").setStaged(true)),
+                        new HookDefinitionConfig()
+                                .setName("class")
+                                .setRunConfig(
+                                        new RunConfig().setClassName("snapshot").setStaged(true)));
+
+        new HookRunner(
+                        definitions,
+                        logger,
+                        new HookRunner.HookRunnerConfig.Builder()
+                                .mavenProject(project)
+                                .runnableHooks(
+                                        Map.of(
+                                                "snapshot",
+                                                (context, args) ->
+                                                        snapshots.add(
+                                                                context.getStagedSnapshot()
+                                                                        .orElseThrow())))
+                                .build())
+                .run();
+
+        assertTrue(logger.infoMessages.contains("staged"));
+        assertEquals(1, snapshots.size());
+        // Removed at the end of the run
+        assertFalse(Files.exists(snapshots.get(0)));
+    }
+
+    @Test
+    void runProtectsUnstagedChanges() throws Exception {
+        Path repo = Files.createTempDirectory(Path.of("target"), "");
+        Path file = repo.resolve("file.txt").toAbsolutePath();
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(file, "a\nb\nc\nd\ne\nf\n");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("base").call();
+            Files.writeString(file, "a \nb\nc\nd\ne\nf\n");
+            git.add().addFilepattern(".").call();
+        }
+        Files.writeString(file, "a \nb\nc\nd\ne\nf\ng\n");
+        MavenProject project = new MavenProject();
+        project.setFile(repo.resolve("pom.xml").toFile());
+        FakeLogger logger = new FakeLogger();
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("check")
+                                .setRunConfig(new RunConfig().setCommand("cat '" + file + "'")),
+                        new HookDefinitionConfig()
+                                .setName("fix")
+                                .setRunConfig(
+                                        new RunConfig()
+                                                .setCommand(
+                                                        "printf 'a\\nb\\nc\\nd\\ne\\nf\\n' > '"
+                                                                + file
+                                                                + "'")));
+
+        new HookRunner(
+                        definitions,
+                        logger,
+                        new HookRunner.HookRunnerConfig.Builder()
+                                .mavenProject(project)
+                                .protectUnstaged(true)
+                                .build())
+                .run();
+
+        // The unstaged line was not visible to the definitions
+        assertFalse(logger.infoMessages.contains("g"));
+        assertEquals("a\nb\nc\nd\ne\nf\ng\n", Files.readString(file));
+        try (Git git = Git.open(repo.toFile())) {
+            ObjectId staged = git.getRepository().readDirCache().getEntry("file.txt").getObjectId();
+            assertEquals(
+                    "a\nb\nc\nd\ne\nf\n",
+                    new String(git.getRepository().open(staged).getBytes()));
+        }
+    }
+
+    @Test
+    void runPerModuleOnlyForAffectedModules() throws Exception {
+        Path repo = Files.createTempDirectory(Path.of("target"), "").toAbsolutePath();
+        List<MavenProject> projects = new ArrayList<>();
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            for (String module : List.of("", "a", "b", "c")) {
+                Files.createDirectories(repo.resolve(module));
+                Files.writeString(repo.resolve(module).resolve("name.txt"), "module-" + module);
+                MavenProject project = new MavenProject();
+                project.setArtifactId("module-" + module);
+                project.setFile(repo.resolve(module).resolve("pom.xml").toFile());
+                projects.add(project);
+            }
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("base").call();
+            Files.writeString(repo.resolve("a/changed.txt"), "a");
+            Files.writeString(repo.resolve("b/changed.txt"), "b");
+            git.add().addFilepattern(".").call();
+        }
+        MavenSession session =
+                new MavenSession(
+                        null,
+                        (RepositorySystemSession) null,
+                        new DefaultMavenExecutionRequest(),
+                        null);
+        session.setProjects(projects);
+        FakeLogger logger = new FakeLogger();
+        HookTracer tracer = new HookTracer(null, true, null);
+
+        HookRunner runner =
+                new HookRunner(
+                        List.of(
+                                new HookDefinitionConfig()
+                                        .setName("modules")
+                                        .setRunConfig(
+                                                new RunConfig()
+                                                        .setCommand("cat name.txt")
+                                                        .setPerModule(true)
+                                                        .setModuleParallelism(2))),
+                        logger,
+                        new HookRunner.HookRunnerConfig.Builder()
+                                .mavenProject(projects.get(0))
+                                .mavenSession(session)
+                                .tracer(tracer)
+                                .build());
+        runner.run();
+
+        assertTrue(logger.infoMessages.contains("module-a"));
+        assertTrue(logger.infoMessages.contains("module-b"));
+        assertFalse(logger.infoMessages.contains("module-c"));
+        assertFalse(logger.infoMessages.contains("module-"));
+        // The statistics add up the commands of both modules
+        HookTiming timing = runner.getTimings().getDefinitions().get(0);
+        assertEquals("module-a".length() + "module-b".length(), timing.getOutputBytes());
+        assertTrue(timing.getSpawnLatency().isPresent());
+        // Modules run on other threads, under the span of the definition
+        String definition =
+                tracer.getEvents().stream()
+                        .filter(e -> e.kind == HookTracer.Kind.DEFINITION)
+                        .findFirst()
+                        .orElseThrow()
+                        .spanId;
+        assertEquals(
+                List.of(definition, definition),
+                tracer.getEvents().stream()
+                        .filter(e -> e.kind == HookTracer.Kind.SPAWN)
+                        .map(e -> e.parentSpanId)
+                        .toList());
+    }
+
+    @Test
+    void runPerModuleVersionlessMojoAgainstEachModule() throws Exception {
+        Path repo = Files.createTempDirectory(Path.of("target"), "").toAbsolutePath();
+        List<MavenProject> projects = new ArrayList<>();
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            for (String module : List.of("", "a", "b")) {
+                Files.createDirectories(repo.resolve(module));
+                Files.writeString(repo.resolve(module).resolve("name.txt"), "module-" + module);
+                MavenProject project = new MavenProject();
+                project.setArtifactId("module-" + module);
+                project.setFile(repo.resolve(module).resolve("pom.xml").toFile());
+                projects.add(project);
+            }
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("base").call();
+            Files.writeString(repo.resolve("a/changed.txt"), "a");
+            Files.writeString(repo.resolve("b/changed.txt"), "b");
+            git.add().addFilepattern(".").call();
+        }
+        MavenSession session =
+                new MavenSession(
+                        null,
+                        (RepositorySystemSession) null,
+                        new DefaultMavenExecutionRequest(),
+                        null);
+        session.setProjects(projects);
+        Plugin versionless = new Plugin();
+        versionless.setGroupId("group");
+        versionless.setArtifactId("checker");
+        RecordingPluginManager pluginManager = new RecordingPluginManager();
+
+        new HookRunner(
+                        List.of(
+                                new HookDefinitionConfig()
+                                        .setName("modules")
+                                        .setRunConfig(
+                                                new RunConfig()
+                                                        .setMojo(
+                                                                new MojoConfig()
+                                                                        .setPlugin(versionless)
+                                                                        .setGoal("check"))
+                                                        .setPerModule(true)
+                                                        .setModuleParallelism(2))),
+                        new FakeLogger(),
+                        new HookRunner.HookRunnerConfig.Builder()
+                                .mavenProject(projects.get(0))
+                                .mavenSession(session)
+                                .pluginManager(pluginManager)
+                                .build())
+                .run();
+
+        assertEquals(
+                List.of("module-a", "module-b"),
+                pluginManager.executedOn.stream().sorted().toList());
+    }
+
+    @Test
+    void runCommandOnChangedFiles() throws Exception {
+        Path repo = Files.createTempDirectory(Path.of("target"), "");
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("deleted.java"), "deleted");
+            Files.writeString(repo.resolve("unchanged.java"), "unchanged");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("base").call();
+            Files.writeString(repo.resolve("a.java"), "a");
+            Files.writeString(repo.resolve("with space.java"), "b");
+            Files.writeString(repo.resolve("b.txt"), "b");
+            git.add().addFilepattern(".").call();
+            git.rm().addFilepattern("deleted.java").call();
+        }
+        MavenProject project = new MavenProject();
+        project.setFile(repo.resolve("pom.xml").toFile());
+        FakeLogger logger = new FakeLogger();
+
+        new HookRunner(
+                        List.of(
+                                new HookDefinitionConfig()
+                                        .setName("files")
+                                        .setRunConfig(
+                                                new RunConfig()
+                                                        .setCommand("printf '%s\\n'")
+                                                        .setFiles(List.of("*.java"))
+                                                        .setStaged(true)
+                                                        .setBatchParallelism(2))),
+                        logger,
+                        new HookRunner.HookRunnerConfig.Builder().mavenProject(project).build())
+                .run();
+
+        assertTrue(logger.infoMessages.contains("a.java"));
+        assertTrue(logger.infoMessages.contains("with space.java"));
+        assertFalse(logger.infoMessages.contains("b.txt"));
+        assertFalse(logger.infoMessages.contains("deleted.java"));
+        assertFalse(logger.infoMessages.contains("unchanged.java"));
+    }
+
+    @Test
+    void runSharesGitFactsWithDefinitions() throws Exception {
+        Path repo = Files.createTempDirectory(Path.of("target"), "");
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("a.java"), "a");
+            git.add().addFilepattern(".").call();
+        }
+        MavenProject project = new MavenProject();
+        project.setFile(repo.resolve("pom.xml").toFile());
+        List<GitFacts> facts = new ArrayList<>();
+        RunnableGitHook hook = (context, args) -> facts.add(context.getGitFacts().orElseThrow());
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("first")
+                                .setOnlyIf(new ConditionalRunConfig().setFiles(List.of("*.java")))
+                                .setRunConfig(new RunConfig().setClassName("facts")),
+                        new HookDefinitionConfig()
+                                .setName("second")
+                                .setRunConfig(new RunConfig().setClassName("facts")));
+
+        new HookRunner(
+                        definitions,
+                        new FakeLogger(),
+                        new HookRunner.HookRunnerConfig.Builder()
+                                .mavenProject(project)
+                                .runnableHooks(Map.of("facts", hook))
+                                .build())
+                .run();
+
+        assertEquals(2, facts.size());
+        assertSame(facts.get(0), facts.get(1));
+        // Computed once, for the condition
+        assertSame(facts.get(0).getChangedFiles(), facts.get(1).getChangedFiles());
+    }
+
+    @Test
+    void runSkipsDefinitionsAllPushedCommitsPassed() throws Exception {
+        Path repo = Files.createTempDirectory(Path.of("target"), "");
+        String line;
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            ObjectId base = git.commit().setMessage("base").setAllowEmpty(true).call();
+            ObjectId tip = git.commit().setMessage("tip").setAllowEmpty(true).call();
+            line = "refs/heads/main " + tip.name() + " refs/heads/main " + base.name();
+        }
+        MavenProject project = new MavenProject();
+        project.setFile(repo.resolve("pom.xml").toFile());
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("check")
+                                .setRunConfig(new RunConfig().setCommand("echo checked")));
+
+        List<FakeLogger> loggers = List.of(new FakeLogger(), new FakeLogger());
+        for (FakeLogger logger : loggers) {
+            try (HookInput input =
+                    HookInput.spool(new ByteArrayInputStream((line + "\n").getBytes()))) {
+                new HookRunner(
+                                definitions,
+                                logger,
+                                new HookRunner.HookRunnerConfig.Builder()
+                                        .mavenProject(project)
+                                        .hookType(HookType.PRE_PUSH)
+                                        .hookInput(input)
+                                        .rememberVerifiedCommits(true)
+                                        .build())
+                        .run();
+            }
+        }
+
+        assertTrue(loggers.get(0).infoMessages.contains("checked"));
+        assertFalse(loggers.get(1).infoMessages.contains("checked"));
+    }
+
+    @Test
+    void runOnlyRemembersCommitsACommandChecked() throws Exception {
+        Path repo = Files.createTempDirectory(Path.of("target"), "");
+        String baseLine;
+        String tipLine;
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            ObjectId root = git.commit().setMessage("root").setAllowEmpty(true).call();
+            ObjectId base = git.commit().setMessage("base").setAllowEmpty(true).call();
+            ObjectId tip = git.commit().setMessage("tip").setAllowEmpty(true).call();
+            baseLine = "refs/heads/main " + base.name() + " refs/heads/main " + root.name();
+            tipLine = "refs/heads/main " + tip.name() + " refs/heads/main " + base.name();
+        }
+        MavenProject project = new MavenProject();
+        project.setFile(repo.resolve("pom.xml").toFile());
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("check")
+                                .setRunConfig(new RunConfig().setCommand("echo checked")));
+
+        // The work tree holds the tip, not the pushed base; then it holds an untracked file
+        List<String> lines = List.of(baseLine, baseLine, tipLine, tipLine);
+        List<Boolean> checked = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (i == 2) {
+                Files.writeString(repo.resolve("untracked.txt"), "untracked");
+            }
+            FakeLogger logger = new FakeLogger();
+            try (HookInput input =
+                    HookInput.spool(
+                            new ByteArrayInputStream((lines.get(i) + "\n").getBytes()))) {
+                new HookRunner(
+                                definitions,
+                                logger,
+                                new HookRunner.HookRunnerConfig.Builder()
+                                        .mavenProject(project)
+                                        .hookType(HookType.PRE_PUSH)
+                                        .hookInput(input)
+                                        .rememberVerifiedCommits(true)
+                                        .build())
+                        .run();
+            }
+            checked.add(logger.infoMessages.contains("checked"));
+        }
+
+        assertEquals(List.of(true, true, true, true), checked);
+    }
+
+    @Test
+    void runChecksPushedCommitsAgainWhenTheCheckerChanges() throws Exception {
+        Path repo = Files.createTempDirectory(Path.of("target"), "").toAbsolutePath();
+        String line;
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            ObjectId base = git.commit().setMessage("base").setAllowEmpty(true).call();
+            ObjectId tip = git.commit().setMessage("tip").setAllowEmpty(true).call();
+            line = "refs/heads/main " + tip.name() + " refs/heads/main " + base.name();
+        }
+        MavenProject project = new MavenProject();
+        project.setFile(repo.resolve("pom.xml").toFile());
+        // Outside of the repository, which must stay clean for the commits to be remembered
+        Path script =
+                Files.createTempDirectory(Path.of("target"), "")
+                        .toAbsolutePath()
+                        .resolve("check.sh");
+        Plugin plugin = new Plugin();
+        plugin.setGroupId("group");
+        plugin.setArtifactId("checker");
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("script")
+                                .setRunConfig(new RunConfig().setCommand(script.toString())),
+                        new HookDefinitionConfig()
+                                .setName("mojo")
+                                .setRunConfig(
+                                        new RunConfig()
+                                                .setMojo(
+                                                        new MojoConfig()
+                                                                .setPlugin(plugin)
+                                                                .setGoal("check"))));
+        RecordingPluginManager pluginManager = new RecordingPluginManager();
+
+        List<String> checked = new ArrayList<>();
+        for (String version : List.of("1.0.0", "1.0.0", "2.0.0", "2.0.0")) {
+            plugin.setVersion(version);
+            Files.writeString(script, "echo script-" + version + "\n");
+            script.toFile().setExecutable(true);
+            int mojoRuns = pluginManager.executedOn.size();
+            FakeLogger logger = new FakeLogger();
+            try (HookInput input =
+                    HookInput.spool(new ByteArrayInputStream((line + "\n").getBytes()))) {
+                new HookRunner(
+                                definitions,
+                                logger,
+                                new HookRunner.HookRunnerConfig.Builder()
+                                        .mavenProject(project)
+                                        .mavenSession(
+                                                new MavenSession(
+                                                        null,
+                                                        (RepositorySystemSession) null,
+                                                        new DefaultMavenExecutionRequest(),
+                                                        null))
+                                        .pluginManager(pluginManager)
+                                        .hookType(HookType.PRE_PUSH)
+                                        .hookInput(input)
+                                        .rememberVerifiedCommits(true)
+                                        .build())
+                        .run();
+            }
+            checked.add(
+                    logger.infoMessages.contains("script-" + version)
+                            + "/"
+                            + (pluginManager.executedOn.size() > mojoRuns));
+        }
+
+        // Upgrading the plugin and changing the script check the pushed commits again
+        assertEquals(List.of("true/true", "false/false", "true/true", "false/false"), checked);
+    }
+
+    @Test
+    void runFailsFastOnInvalidCondition() {
+        BasicHook.receivedArgs = null;
+        List<HookDefinitionConfig> definitions =
+                List.of(
+                        new HookDefinitionConfig()
+                                .setName("first")
+                                .setRunConfig(
+                                        new RunConfig()
+                                                .setArgs(List.of("A"))
+                                                .setClassName(BasicHook.class.getSimpleName())),
+                        new HookDefinitionConfig()
+                                .setName("second")
+                                .setSkipIf(new ConditionalRunConfig().setRef("(unclosed"))
+                                .setRunConfig(
+                                        new RunConfig()
+                                                .setClassName(BasicHook.class.getSimpleName())));
+
+        HookRunner runner =
+                new HookRunner(
+                        definitions,
+                        new FakeLogger(),
+                        new HookRunner.HookRunnerConfig.Builder()
+                                .runnableHooks(Map.of(BasicHook.class.getSimpleName(), new BasicHook()))
+                                .build());
+
+        assertThrows(MojoExecutionException.class, runner::run);
+        assertNull(BasicHook.receivedArgs);
+    }
+
     @Test
     void runClass() {
         HookRunner runner =
@@ -183,4 +894,40 @@ class HookRunnerTest {
         RunConfig config2 = new RunConfig();
         assertThrows(IllegalArgumentException.class, () -> runner.run(config2));
     }
+
+    /** Executes the goal {@code check} of any plugin, recording the current project. */
+    private static class RecordingPluginManager extends DefaultBuildPluginManager {
+        private final List<String> executedOn = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public PluginDescriptor loadPlugin(
+                Plugin plugin,
+                List<RemoteRepository> repositories,
+                RepositorySystemSession repositorySession) {
+            PluginDescriptor descriptor = new PluginDescriptor();
+            descriptor.setGroupId(plugin.getGroupId());
+            descriptor.setArtifactId(plugin.getArtifactId());
+            descriptor.setVersion(plugin.getVersion());
+            MojoDescriptor mojo = new MojoDescriptor();
+            mojo.setGoal("check");
+            mojo.setPluginDescriptor(descriptor);
+            try {
+                descriptor.addMojo(mojo);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return descriptor;
+        }
+
+        @Override
+        public ClassRealm getPluginRealm(MavenSession session, PluginDescriptor pluginDescriptor) {
+            return null;
+        }
+
+        @Override
+        public void executeMojo(MavenSession mavenSession, MojoExecution execution) {
+            MavenProject current = mavenSession.getCurrentProject();
+            executedOn.add(current == null ? "" : current.getArtifactId());
+        }
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+class HookTracerTest {
+
+    private static final Path TARGET = Path.of("target");
+
+    @Test
+    void writesChromeTrace() throws IOException {
+        Path traceFile = Files.createTempDirectory(TARGET, "").resolve("trace.json");
+        HookTracer tracer = new HookTracer(traceFile);
+
+        tracer.recordEndingNow(HookTracer.Kind.BOOTSTRAP, "maven", Duration.ofMillis(800));
+        try (HookTracer.Span run = tracer.start(HookTracer.Kind.RUN, "PRE_COMMIT")) {
+            try (HookTracer.Span definition =
+                    tracer.start(HookTracer.Kind.DEFINITION, "check \"quoted\"")) {
+                definition.attribute("type", "command");
+            }
+        }
+        tracer.write();
+
+        List<HookTracer.TraceEvent> events = tracer.getEvents();
+        assertEquals(3, events.size());
+        assertEquals(HookTracer.Kind.BOOTSTRAP, events.get(0).kind);
+        assertTrue(events.get(0).endNanos - events.get(0).startNanos >= 800_000_000L);
+        assertEquals("check \"quoted\"", events.get(1).name);
+        assertEquals(HookTracer.Kind.RUN, events.get(2).kind);
+
+        String json = Files.readString(traceFile);
+        assertTrue(json.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        assertTrue(json.contains("\"name\":\"maven\",\"cat\":\"bootstrap\",\"ph\":\"X\""));
+        assertTrue(json.contains("\"name\":\"check \\\"quoted\\\"\",\"cat\":\"definition\""));
+        assertTrue(json.contains("\"args\":{\"type\":\"command\"}"));
+        assertTrue(json.trim().endsWith("]}"));
+    }
+
+    @Test
+    void wrappedTasksStartSpansUnderTheCallingSpan() throws Exception {
+        HookTracer tracer = new HookTracer(null, true, null);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        String definitionId;
+        try (HookTracer.Span run = tracer.start(HookTracer.Kind.RUN, "PRE_PUSH")) {
+            try (HookTracer.Span definition =
+                    tracer.start(HookTracer.Kind.DEFINITION, "check")) {
+                definitionId = definition.getSpanId();
+                pool.submit(
+                                tracer.wrap(
+                                        () -> {
+                                            tracer.start(HookTracer.Kind.SPAWN, "wrapped")
+                                                    .close();
+                                            return null;
+                                        }))
+                        .get();
+            }
+            pool.submit(() -> tracer.start(HookTracer.Kind.SPAWN, "unwrapped").close()).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        Map<String, String> parents =
+                tracer.getEvents().stream()
+                        .filter(e -> e.kind == HookTracer.Kind.SPAWN)
+                        .collect(Collectors.toMap(e -> e.name, e -> e.parentSpanId));
+        assertEquals(definitionId, parents.get("wrapped"));
+        // Left unwrapped, the worker only sees the run
+        assertNotEquals(definitionId, parents.get("unwrapped"));
+    }
+
+    @Test
+    void jfrOnlyKeepsNoSpan() throws IOException {
+        HookTracer tracer = HookTracer.jfrOnly();
+        try (HookTracer.Span ignored = tracer.start(HookTracer.Kind.RUN, "PRE_COMMIT")) {
+            tracer.recordEndingNow(HookTracer.Kind.BOOTSTRAP, "maven", Duration.ofMillis(1));
+        }
+        tracer.write();
+
+        assertNull(tracer.getTraceFile());
+        assertEquals(List.of(), tracer.getEvents());
+    }
+
+    @Test
+    void emitsJfrEvents() throws IOException {
+        Path dump = Files.createTempFile(TARGET, "", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("io.github.willena.githooks.Definition").withoutThreshold();
+            recording.start();
+            try (HookTracer.Span span =
+                    HookTracer.jfrOnly().start(HookTracer.Kind.DEFINITION, "checkstyle")) {
+                span.attribute("type", "mojo");
+            }
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertEquals(1, events.size());
+        assertEquals("checkstyle", events.get(0).getString("name"));
+        assertEquals("{type=mojo}", events.get(0).getString("detail"));
+    }
+
+    @Test
+    void json() {
+        assertEquals("null", HookTracer.json(null));
+        assertEquals("\"a\\\\b\\n\\u0001\"", HookTracer.json("a\\b\n\u0001"));
+    }
+}
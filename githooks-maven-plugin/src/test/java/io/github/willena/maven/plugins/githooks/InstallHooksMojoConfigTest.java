@@ -146,6 +146,7 @@ public class InstallHooksMojoConfigTest extends AbstractMojoTestCase {
 
         assertEquals(
                 "#!/bin/sh\n"
+                        + "hookStart=$(date +%s%3N);\n"
                         + "args=$(IFS=, ; echo \"$*\");\n"
                         + "export PATH=\"${javaBin}:${mavenBin}:$PATH\";\n"
                         + "export JAVA_HOME=\"${javaHome}\";\n"
@@ -153,7 +154,7 @@ public class InstallHooksMojoConfigTest extends AbstractMojoTestCase {
                         + "alias type='type -p';\n"
                         + "shPath=$($(command -v where || command -v type) sh);\n"
                         + "unalias type;\n"
-                        + "mvn githooks:run \"-Dsh.path=${shPath}\" \"-Dhook.name=PRE_COMMIT\" \"-Dhook.args=${args}\";",
+                        + "mvn githooks:run \"-Dsh.path=${shPath}\" \"-Dhook.name=PRE_COMMIT\" \"-Dhook.args=${args}\" \"-Dhook.startTime=${hookStart}\" \"-Dhook.stdin=false\";",
                 Files.readString(preCommitFile));
     }
 
@@ -21,6 +21,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.apache.maven.model.Plugin;
 import org.codehaus.plexus.configuration.DefaultPlexusConfiguration;
 import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.configuration.xml.XmlPlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.junit.jupiter.api.Test;
 
 class MojoConfigTest {
@@ -38,4 +40,31 @@ class MojoConfigTest {
         assertEquals(c, mojoConfig.getConfiguration());
         assertEquals("test", mojoConfig.getGoal());
     }
+
+    @Test
+    void configurationDomIsConvertedOnce() {
+        XmlPlexusConfiguration c = new XmlPlexusConfiguration("configuration");
+        c.addChild("config", "value");
+        XmlPlexusConfiguration list = new XmlPlexusConfiguration("list");
+        list.addChild("item", "a");
+        c.addChild(list);
+
+        MojoConfig mojoConfig = new MojoConfig().setConfiguration(c);
+        c.addChild("late", "ignored");
+
+        Xpp3Dom first = mojoConfig.getConfigurationDom();
+        Xpp3Dom second = mojoConfig.getConfigurationDom();
+
+        assertEquals("configuration", first.getName());
+        assertEquals("value", first.getChild("config").getValue());
+        assertEquals("a", first.getChild("list").getChild("item").getValue());
+        assertNull(first.getChild("late"));
+        assertSame(first, second);
+    }
+
+    @Test
+    void configurationDomWithoutConfiguration() {
+        assertNull(new MojoConfig().getConfigurationDom());
+        assertNull(new MojoConfig().setConfiguration(null).getConfigurationDom());
+    }
 }
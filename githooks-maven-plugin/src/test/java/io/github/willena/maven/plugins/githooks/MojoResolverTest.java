@@ -0,0 +1,195 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.PluginResolutionException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.configuration.xml.XmlPlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.junit.jupiter.api.Test;
+
+class MojoResolverTest {
+
+    @Test
+    void pluginsAreResolvedOnceAndShared() throws Exception {
+        CountingPluginManager manager = new CountingPluginManager();
+        MojoResolver resolver = newResolver(manager);
+
+        MojoConfig first = new MojoConfig().setPlugin(plugin("a")).setGoal("check");
+        MojoConfig second = new MojoConfig().setPlugin(plugin("a")).setGoal("format");
+        MojoConfig third = new MojoConfig().setPlugin(plugin("b")).setGoal("check");
+
+        resolver.preResolve(List.of(first, second, third));
+        assertEquals(2, manager.loads.get());
+        assertEquals(2, manager.realms.get());
+
+        resolver.execute(first, new Xpp3Dom("configuration"));
+        resolver.execute(second, new Xpp3Dom("configuration"));
+        resolver.execute(third, new Xpp3Dom("configuration"));
+
+        assertEquals(2, manager.loads.get());
+        assertEquals(List.of("a:check", "a:format", "b:check"), manager.executed);
+    }
+
+    @Test
+    void resolvesLazilyWithoutPreResolve() throws Exception {
+        CountingPluginManager manager = new CountingPluginManager();
+        MojoResolver resolver = newResolver(manager);
+
+        MojoConfig mojo = new MojoConfig().setPlugin(plugin("a")).setGoal("check");
+        resolver.execute(mojo, new Xpp3Dom("configuration"));
+        resolver.execute(mojo, new Xpp3Dom("configuration"));
+
+        assertEquals(1, manager.loads.get());
+        assertEquals(2, manager.executed.size());
+    }
+
+    @Test
+    void defaultsAreMergedIntoACopyOfTheConfiguration() throws Exception {
+        CountingPluginManager manager = new CountingPluginManager();
+        MojoResolver resolver = newResolver(manager);
+        Xpp3Dom configuration = new Xpp3Dom("configuration");
+        Xpp3Dom skip = new Xpp3Dom("skip");
+        skip.setValue("true");
+        configuration.addChild(skip);
+
+        resolver.execute(
+                new MojoConfig().setPlugin(plugin("a")).setGoal("check"), configuration);
+
+        Xpp3Dom executed = manager.configurations.get(0);
+        assertEquals("true", executed.getChild("skip").getValue());
+        assertEquals("${check.verbose}", executed.getChild("verbose").getValue());
+        assertNull(configuration.getChild("verbose"));
+    }
+
+    @Test
+    void unknownGoal() {
+        MojoResolver resolver = newResolver(new CountingPluginManager());
+        assertThrows(
+                MojoExecutionException.class,
+                () ->
+                        resolver.execute(
+                                new MojoConfig().setPlugin(plugin("a")).setGoal("missing"),
+                                new Xpp3Dom("configuration")));
+    }
+
+    @Test
+    void resolutionFailureIsReportedOnExecution() {
+        CountingPluginManager manager = new CountingPluginManager();
+        manager.failing = true;
+        MojoResolver resolver = newResolver(manager);
+        MojoConfig mojo = new MojoConfig().setPlugin(plugin("a")).setGoal("check");
+
+        assertDoesNotThrow(() -> resolver.preResolve(List.of(mojo)));
+        assertThrows(
+                MojoExecutionException.class,
+                () -> resolver.execute(mojo, new Xpp3Dom("configuration")));
+    }
+
+    private static MojoResolver newResolver(BuildPluginManager manager) {
+        return new MojoResolver(
+                manager,
+                new MavenSession(
+                        null,
+                        (RepositorySystemSession) null,
+                        new DefaultMavenExecutionRequest(),
+                        null),
+                new MavenProject(),
+                new FakeLogger());
+    }
+
+    private static Plugin plugin(String artifactId) {
+        Plugin plugin = new Plugin();
+        plugin.setGroupId("group");
+        plugin.setArtifactId(artifactId);
+        plugin.setVersion("1.0.0");
+        return plugin;
+    }
+
+    private static class CountingPluginManager implements BuildPluginManager {
+        private final AtomicInteger loads = new AtomicInteger();
+        private final AtomicInteger realms = new AtomicInteger();
+        private final List<String> executed = new ArrayList<>();
+        private final List<Xpp3Dom> configurations = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public PluginDescriptor loadPlugin(
+                Plugin plugin, List<RemoteRepository> repositories, RepositorySystemSession session)
+                throws PluginResolutionException {
+            loads.incrementAndGet();
+            if (failing) {
+                throw new PluginResolutionException(plugin, new IllegalStateException("failing"));
+            }
+            PluginDescriptor descriptor = new PluginDescriptor();
+            descriptor.setGroupId(plugin.getGroupId());
+            descriptor.setArtifactId(plugin.getArtifactId());
+            descriptor.setVersion(plugin.getVersion());
+            for (String goal : List.of("check", "format")) {
+                MojoDescriptor mojo = new MojoDescriptor();
+                mojo.setGoal(goal);
+                mojo.setPluginDescriptor(descriptor);
+                XmlPlexusConfiguration defaults = new XmlPlexusConfiguration("configuration");
+                defaults.addChild("verbose", "${" + goal + ".verbose}");
+                mojo.setMojoConfiguration(defaults);
+                try {
+                    descriptor.addMojo(mojo);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return descriptor;
+        }
+
+        @Override
+        public MojoDescriptor getMojoDescriptor(
+                Plugin plugin,
+                String goal,
+                List<RemoteRepository> repositories,
+                RepositorySystemSession session) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ClassRealm getPluginRealm(MavenSession session, PluginDescriptor pluginDescriptor) {
+            realms.incrementAndGet();
+            return null;
+        }
+
+        @Override
+        public synchronized void executeMojo(MavenSession session, MojoExecution execution) {
+            executed.add(execution.getArtifactId() + ":" + execution.getGoal());
+            configurations.add(execution.getConfiguration());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class OtlpJsonExporterTest {
+
+    private static final Path TARGET = Path.of("target");
+    private static final String TRACE_PARENT =
+            "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    private final OtlpJsonExporter exporter =
+            new OtlpJsonExporter(Map.of("service.name", "githooks"), Duration.ofSeconds(5));
+
+    private static HookTracer sampleTrace() {
+        HookTracer tracer = new HookTracer(null, true, TRACE_PARENT);
+        try (HookTracer.Span run = tracer.start(HookTracer.Kind.RUN, "PRE_PUSH")) {
+            try (HookTracer.Span definition = tracer.start(HookTracer.Kind.DEFINITION, "tests")) {
+                definition.attribute("type", "mojo");
+            }
+        }
+        return tracer;
+    }
+
+    @Test
+    void spansContinueTheCallerTrace() {
+        HookTracer tracer = sampleTrace();
+
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", tracer.getTraceId());
+        List<HookTracer.TraceEvent> events = tracer.getEvents();
+        HookTracer.TraceEvent definition = events.get(0);
+        HookTracer.TraceEvent run = events.get(1);
+        assertEquals("00f067aa0ba902b7", run.parentSpanId);
+        assertEquals(run.spanId, definition.parentSpanId);
+        assertEquals(16, definition.spanId.length());
+    }
+
+    @Test
+    void invalidTraceParentStartsANewTrace() {
+        HookTracer tracer = new HookTracer(null, true, "garbage");
+
+        assertEquals(32, tracer.getTraceId().length());
+        assertTrue(tracer.currentTraceParent().startsWith("00-" + tracer.getTraceId() + "-"));
+    }
+
+    @Test
+    void toJson() {
+        String json = exporter.toJson(sampleTrace());
+
+        assertTrue(
+                json.startsWith(
+                        "{\"resourceSpans\":[{\"resource\":{\"attributes\":[{\"key\":\"service.name\","
+                                + "\"value\":{\"stringValue\":\"githooks\"}}]}"));
+        assertTrue(json.contains("\"traceId\":\"4bf92f3577b34da6a3ce929d0e0e4736\""));
+        assertTrue(json.contains("\"parentSpanId\":\"00f067aa0ba902b7\""));
+        assertTrue(json.contains("\"name\":\"definition tests\""));
+        assertTrue(
+                json.contains(
+                        "{\"key\":\"githooks.type\",\"value\":{\"stringValue\":\"mojo\"}}"));
+        // The definition did not record a success
+        assertTrue(json.contains("\"status\":{\"code\":2}"));
+        assertTrue(json.endsWith("]}]}]}"));
+    }
+
+    @Test
+    void writeTo() throws IOException {
+        Path file = Files.createTempDirectory(TARGET, "").resolve("otlp").resolve("spans.json");
+
+        exporter.writeTo(sampleTrace(), file);
+
+        assertTrue(Files.readString(file).contains("\"name\":\"run PRE_PUSH\""));
+    }
+
+    @Test
+    void postTo() throws IOException {
+        AtomicReference<String> received = new AtomicReference<>();
+        AtomicReference<String> contentType = new AtomicReference<>();
+        HttpServer collector =
+                HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        collector.createContext(
+                "/v1/traces",
+                exchange -> {
+                    received.set(
+                            new String(
+                                    exchange.getRequestBody().readAllBytes(),
+                                    StandardCharsets.UTF_8));
+                    contentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+                    exchange.sendResponseHeaders(200, -1);
+                    exchange.close();
+                });
+        collector.createContext(
+                "/broken",
+                exchange -> {
+                    exchange.sendResponseHeaders(503, -1);
+                    exchange.close();
+                });
+        collector.start();
+        try {
+            String base = "http://localhost:" + collector.getAddress().getPort();
+            HookTracer tracer = sampleTrace();
+
+            exporter.postTo(tracer, URI.create(base + "/v1/traces"));
+            assertEquals("application/json", contentType.get());
+            assertEquals(exporter.toJson(tracer), received.get());
+
+            assertThrows(
+                    IOException.class,
+                    () -> exporter.postTo(tracer, URI.create(base + "/broken")));
+        } finally {
+            collector.stop(0);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+
+class ReactorModulesTest {
+    private static final Path ROOT = Path.of("/repo");
+
+    @Test
+    void affectedMapsFilesToDeepestModule() {
+        MavenProject root = project("");
+        MavenProject core = project("core");
+        MavenProject nested = project("core/nested");
+        MavenProject web = project("web");
+        List<MavenProject> reactor = List.of(root, core, nested, web);
+
+        assertEquals(
+                List.of(core, nested),
+                ReactorModules.affected(
+                        reactor,
+                        ROOT,
+                        List.of("core/nested/src/A.java", "core/pom.xml", "core/nested/B.java")));
+        assertEquals(List.of(root), ReactorModules.affected(reactor, ROOT, List.of("README.md")));
+        assertEquals(
+                List.of(root, web),
+                ReactorModules.affected(reactor, ROOT, List.of("web/index.html", ".gitignore")));
+    }
+
+    @Test
+    void affectedIgnoresFilesOutsideModules() {
+        List<MavenProject> reactor = List.of(project("core"));
+
+        assertEquals(List.of(), ReactorModules.affected(reactor, ROOT, List.of("docs/index.md")));
+        assertEquals(List.of(), ReactorModules.affected(reactor, ROOT, List.of()));
+    }
+
+    private static MavenProject project(String path) {
+        MavenProject project = new MavenProject();
+        project.setFile(ROOT.resolve(path).resolve("pom.xml").toFile());
+        return project;
+    }
+}
@@ -17,6 +17,7 @@
 package io.github.willena.maven.plugins.githooks;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -30,10 +31,19 @@ class RunConfigTest {
         config.setClassName(String.class.getName());
         MojoConfig p = new MojoConfig();
         config.setMojo(p);
+        config.setStaged(true);
+        config.setPerModule(true).setModuleParallelism(4);
+        config.setFiles(List.of("*.java")).setBatchParallelism(2);
 
         assertEquals(List.of("-c","echo abc"), config.getArgs());
         assertEquals("bash", config.getCommand());
         assertEquals(String.class.getName(), config.getClassName());
         assertEquals(p, config.getMojo());
+        assertTrue(config.isStaged());
+        assertTrue(config.isPerModule());
+        assertEquals(4, config.getModuleParallelism());
+        assertEquals(1, new RunConfig().getModuleParallelism());
+        assertEquals(List.of("*.java"), config.getFiles());
+        assertEquals(2, config.getBatchParallelism());
     }
 }
@@ -19,9 +19,11 @@ package io.github.willena.maven.plugins.githooks;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import org.apache.maven.execution.DefaultMavenExecutionRequest;
@@ -113,6 +115,36 @@ public class RunHooksMojoConfigTest extends AbstractMojoTestCase {
         assertEquals(List.of("--v1", "toto"), Arrays.asList(BasicHook.receivedArgs));
     }
 
+    public void testBootstrapDuration() {
+        assertEquals(
+                Duration.ofMillis(250),
+                RunHooksMojo.bootstrapDuration("1700000000000", 1700000000250L));
+        assertEquals(
+                Duration.ofMillis(1250),
+                RunHooksMojo.bootstrapDuration("17000000003N", 1700000001250L));
+        assertNull(RunHooksMojo.bootstrapDuration(null, 0));
+        assertNull(RunHooksMojo.bootstrapDuration("${hookStart}", 0));
+        assertNull(RunHooksMojo.bootstrapDuration("1700000000000", 0));
+    }
+
+    public void testStdinFlagDecidesWhetherInputIsRead() throws IOException {
+        String line =
+                "refs/heads/main 2222222222222222222222222222222222222222"
+                        + " refs/heads/main 1111111111111111111111111111111111111111\n";
+        RunHooksMojo mojo = new RunHooksMojo(List.of());
+        mojo.hook = HookType.PRE_PUSH;
+        mojo.readStdin = true;
+
+        mojo.stdin = true;
+        try (HookInput input = mojo.readInput(new ByteArrayInputStream(line.getBytes()))) {
+            assertEquals(1, input.getRefUpdates(HookType.PRE_PUSH, List.of()).stream().count());
+        }
+        mojo.stdin = false;
+        try (HookInput input = mojo.readInput(new ByteArrayInputStream(line.getBytes()))) {
+            assertNull(input.getFile());
+        }
+    }
+
     protected Path createNewProject(Path pomToTest) throws IOException, GitAPIException {
         Path newProjectDir = Files.createTempDirectory("");
         Git.init().setDirectory(newProjectDir.toFile()).call();
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Named;
+import javax.inject.Provider;
+import org.eclipse.sisu.BeanEntry;
+import org.junit.jupiter.api.Test;
+
+class RunnableHookIndexTest {
+
+    @Test
+    void findByNameAndClassName() {
+        BasicHook hook = new BasicHook();
+        RunnableHookIndex index = new RunnableHookIndex(Map.of("basic", hook));
+
+        assertSame(hook, index.get("basic"));
+        assertSame(hook, index.get(BasicHook.class.getName()));
+        assertTrue(index.contains("basic"));
+        assertTrue(index.contains(BasicHook.class.getName()));
+        assertFalse(index.contains("other"));
+        assertFalse(index.contains(null));
+        assertTrue(index.find("other").isEmpty());
+        assertEquals(Set.of("basic"), index.getNames());
+    }
+
+    @Test
+    void nameTakesPrecedenceOverClassName() {
+        BasicHook named = new BasicHook();
+        BasicHook other = new BasicHook();
+        RunnableHookIndex index =
+                new RunnableHookIndex(Map.of(BasicHook.class.getName(), named, "other", other));
+
+        assertSame(named, index.get(BasicHook.class.getName()));
+        assertSame(other, index.get("other"));
+    }
+
+    @Test
+    void missingHookListsNamesOnly() {
+        RunnableHookIndex index = new RunnableHookIndex(Map.of("b", new BasicHook(), "a", new BasicHook()));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> index.get("c"));
+        assertEquals("Could not find requested hook name: c; Available hooks: [a, b]", e.getMessage());
+    }
+
+    @Test
+    void nullMapIsEmpty() {
+        RunnableHookIndex index = new RunnableHookIndex(null);
+        assertTrue(index.getNames().isEmpty());
+        assertFalse(index.contains("a"));
+    }
+
+    @Test
+    void hooksAreInstantiatedLazilyAndOnce() {
+        AtomicInteger basicCount = new AtomicInteger();
+        AtomicInteger otherCount = new AtomicInteger();
+        RunnableHookIndex index =
+                new RunnableHookIndex.Builder()
+                        .add(
+                                "basic",
+                                BasicHook.class.getName(),
+                                () -> {
+                                    basicCount.incrementAndGet();
+                                    return new BasicHook();
+                                })
+                        .add(
+                                "other",
+                                null,
+                                () -> {
+                                    otherCount.incrementAndGet();
+                                    return new BasicHook();
+                                })
+                        .build();
+
+        assertTrue(index.contains(BasicHook.class.getName()));
+        assertEquals(0, basicCount.get());
+
+        RunnableGitHook first = index.get(BasicHook.class.getName());
+        assertSame(first, index.get("basic"));
+        assertEquals(1, basicCount.get());
+        assertEquals(0, otherCount.get());
+    }
+
+    @Test
+    void ofBeanEntries() {
+        AtomicInteger count = new AtomicInteger();
+        RunnableHookIndex index =
+                RunnableHookIndex.of(
+                        List.of(
+                                new FakeBeanEntry(
+                                        "basic",
+                                        () -> {
+                                            count.incrementAndGet();
+                                            return new BasicHook();
+                                        })));
+
+        assertEquals(Set.of("basic"), index.getNames());
+        assertTrue(index.contains(BasicHook.class.getName()));
+        assertEquals(0, count.get());
+        assertNotNull(index.get(BasicHook.class.getName()));
+        assertEquals(1, count.get());
+    }
+
+    private static final class FakeBeanEntry implements BeanEntry<Named, RunnableGitHook> {
+        private final String name;
+        private final Provider<RunnableGitHook> provider;
+
+        private FakeBeanEntry(String name, Provider<RunnableGitHook> provider) {
+            this.name = name;
+            this.provider = provider;
+        }
+
+        @Override
+        public Named getKey() {
+            return new Named() {
+                @Override
+                public String value() {
+                    return name;
+                }
+
+                @Override
+                public Class<? extends Annotation> annotationType() {
+                    return Named.class;
+                }
+            };
+        }
+
+        @Override
+        public RunnableGitHook getValue() {
+            return provider.get();
+        }
+
+        @Override
+        public RunnableGitHook setValue(RunnableGitHook value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Provider<RunnableGitHook> getProvider() {
+            return provider;
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<RunnableGitHook> getImplementationClass() {
+            return (Class<RunnableGitHook>) (Class<?>) BasicHook.class;
+        }
+
+        @Override
+        public Object getSource() {
+            return null;
+        }
+
+        @Override
+        public int getRank() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Test;
+
+class StagedSnapshotTest {
+
+    private static final Path TARGET = Path.of("target");
+
+    @Test
+    void materializesOnlyStagedChanges() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("unchanged.txt"), "unchanged");
+            Files.writeString(repo.resolve("partial.txt"), "v1");
+            Files.writeString(repo.resolve("deleted.txt"), "deleted");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("base").call();
+
+            Files.writeString(repo.resolve("partial.txt"), "v2");
+            Files.createDirectories(repo.resolve("src"));
+            Files.writeString(repo.resolve("src/added.txt"), "added");
+            git.add().addFilepattern("partial.txt").addFilepattern("src").call();
+            git.rm().addFilepattern("deleted.txt").call();
+            // Not staged, must not be seen
+            Files.writeString(repo.resolve("partial.txt"), "v3");
+            Files.writeString(repo.resolve("untracked.txt"), "untracked");
+        }
+
+        Path root;
+        try (StagedSnapshot snapshot = StagedSnapshot.create(repo)) {
+            root = snapshot.getRoot();
+            assertEquals(List.of("partial.txt", "src/added.txt"), snapshot.getFiles());
+            assertEquals("v2", Files.readString(root.resolve("partial.txt")));
+            assertEquals("added", Files.readString(root.resolve("src/added.txt")));
+            assertFalse(Files.exists(root.resolve("unchanged.txt")));
+            assertFalse(Files.exists(root.resolve("deleted.txt")));
+            assertFalse(Files.exists(root.resolve("untracked.txt")));
+
+            // Same content in the working tree and the index: linked rather than copied
+            assertTrue(
+                    Files.isSameFile(repo.resolve("src/added.txt"), root.resolve("src/added.txt")));
+            assertFalse(Files.isSameFile(repo.resolve("partial.txt"), root.resolve("partial.txt")));
+        }
+        assertFalse(Files.exists(root));
+        assertEquals("v3", Files.readString(repo.resolve("partial.txt")));
+        assertEquals("added", Files.readString(repo.resolve("src/added.txt")));
+    }
+
+    @Test
+    void emptyWithoutStagedChanges() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("file.txt"), "content");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("base").call();
+            Files.writeString(repo.resolve("file.txt"), "modified");
+        }
+
+        try (StagedSnapshot snapshot = StagedSnapshot.create(repo)) {
+            assertEquals(List.of(), snapshot.getFiles());
+        }
+    }
+}
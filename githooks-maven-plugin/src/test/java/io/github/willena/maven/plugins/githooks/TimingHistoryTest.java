@@ -0,0 +1,135 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class TimingHistoryTest {
+
+    private static final Path TARGET = Path.of("target");
+
+    @Test
+    void ringBufferIsBoundedAndPersisted() throws IOException {
+        Path file = Files.createTempDirectory(TARGET, "").resolve("history").resolve("timings.bin");
+
+        TimingHistory history = TimingHistory.load(file, 3);
+        for (int i = 1; i <= 5; i++) {
+            history.add("PRE_COMMIT/a", Duration.ofMillis(i), i);
+        }
+        assertArrayEquals(new int[] {3, 4, 5}, history.getSamples("PRE_COMMIT/a"));
+        history.save();
+
+        assertArrayEquals(
+                new int[] {3, 4, 5}, TimingHistory.load(file, 3).getSamples("PRE_COMMIT/a"));
+        assertArrayEquals(new int[] {4, 5}, TimingHistory.load(file, 2).getSamples("PRE_COMMIT/a"));
+        assertArrayEquals(new int[0], TimingHistory.load(file, 3).getSamples("PRE_COMMIT/b"));
+    }
+
+    @Test
+    void leastRecentlyRunDefinitionsAreDropped() throws IOException {
+        Path file = Files.createTempDirectory(TARGET, "").resolve("timings.bin");
+
+        TimingHistory history = TimingHistory.load(file, 1);
+        for (int i = 0; i <= TimingHistory.MAX_DEFINITIONS; i++) {
+            history.add("PRE_COMMIT/" + i, Duration.ofMillis(1), i);
+        }
+        history.save();
+
+        TimingHistory loaded = TimingHistory.load(file, 1);
+        assertEquals(0, loaded.getSamples("PRE_COMMIT/0").length);
+        assertEquals(1, loaded.getSamples("PRE_COMMIT/1").length);
+        assertEquals(1, loaded.getSamples("PRE_COMMIT/" + TimingHistory.MAX_DEFINITIONS).length);
+    }
+
+    @Test
+    void corruptedFileIsIgnored() throws IOException {
+        Path file = Files.createTempFile(TARGET, "", ".bin");
+        Files.writeString(file, "not a history");
+
+        assertEquals(0, TimingHistory.load(file, 10).getSamples("PRE_COMMIT/a").length);
+        assertThrows(IllegalArgumentException.class, () -> TimingHistory.load(file, 0));
+    }
+
+    @Test
+    void findRegression() {
+        TimingHistory history =
+                TimingHistory.load(TARGET.resolve("does-not-exist").resolve("timings.bin"), 50);
+        String key = TimingHistory.key("PRE_COMMIT", "checkstyle");
+        for (int i = 0; i < 10; i++) {
+            history.add(key, Duration.ofMillis(1000 + i), i);
+        }
+        assertEquals(Optional.empty(), history.findRegression(key, 1.5));
+
+        for (int i = 0; i < 3; i++) {
+            history.add(key, Duration.ofMillis(2500), 10 + i);
+        }
+        TimingHistory.Regression regression = history.findRegression(key, 1.5).orElseThrow();
+        assertEquals(2500, regression.getRecentMillis());
+        assertTrue(regression.getBaselineMillis() < 1010);
+        assertTrue(regression.toString().contains("PRE_COMMIT/checkstyle"));
+    }
+
+    @Test
+    void smallAbsoluteDifferencesAreNoise() {
+        TimingHistory history =
+                TimingHistory.load(TARGET.resolve("does-not-exist").resolve("timings.bin"), 50);
+        for (int i = 0; i < 5; i++) {
+            history.add("k", Duration.ofMillis(10), i);
+        }
+        for (int i = 0; i < 5; i++) {
+            history.add("k", Duration.ofMillis(40), i);
+        }
+        assertEquals(Optional.empty(), history.findRegression("k", 1.5));
+    }
+
+    @Test
+    void addAllSkipsFailedRuns() {
+        TimingHistory history =
+                TimingHistory.load(TARGET.resolve("does-not-exist").resolve("timings.bin"), 50);
+        HookTimings timings = new HookTimings("PRE_PUSH", null);
+        timings.record(
+                new HookTiming.Builder()
+                        .name("ok")
+                        .wallTime(Duration.ofMillis(5))
+                        .success(true)
+                        .build());
+        timings.record(
+                new HookTiming.Builder()
+                        .name("ko")
+                        .wallTime(Duration.ofMillis(5))
+                        .success(false)
+                        .build());
+
+        assertEquals(List.of(), history.addAll(timings, 0, 1.5));
+        assertEquals(1, history.getSamples("PRE_PUSH/ok").length);
+        assertEquals(0, history.getSamples("PRE_PUSH/ko").length);
+    }
+
+    @Test
+    void median() {
+        assertEquals(2, TimingHistory.median(new int[] {3, 1, 2}));
+        assertEquals(2, TimingHistory.median(new int[] {4, 1, 2, 3}));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.jupiter.api.Test;
+
+class UnstagedChangesTest {
+
+    private static final Path TARGET = Path.of("target");
+
+    @Test
+    void restagesFixesAndRestoresUnstagedChanges() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        byte[] binary = {0, 1, 2, 3};
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("code.txt"), "one\ntwo\nthree\nfour\nfive\nsix\n");
+            Files.writeString(repo.resolve("other.txt"), "other\n");
+            Files.write(repo.resolve("data.bin"), new byte[] {0, 0});
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("base").call();
+
+            Files.writeString(repo.resolve("code.txt"), "one \ntwo\nthree\nfour\nfive\nsix\n");
+            Files.write(repo.resolve("data.bin"), new byte[] {0, 1});
+            git.add().addFilepattern("code.txt").addFilepattern("data.bin").call();
+        }
+        // Unstaged changes: the end of a staged file, a staged binary file, an unstaged file
+        Files.writeString(repo.resolve("code.txt"), "one \ntwo\nthree\nfour\nfive\nsix\nseven\n");
+        Files.write(repo.resolve("data.bin"), binary);
+        Files.writeString(repo.resolve("other.txt"), "changed\n");
+
+        UnstagedChanges unstaged = UnstagedChanges.save(repo);
+        assertEquals(List.of("code.txt", "data.bin"), unstaged.getPaths());
+        assertTrue(unstaged.getPatchSize() > 0);
+        assertEquals(
+                "one \ntwo\nthree\nfour\nfive\nsix\n", Files.readString(repo.resolve("code.txt")));
+        assertArrayEquals(new byte[] {0, 1}, Files.readAllBytes(repo.resolve("data.bin")));
+        assertEquals("changed\n", Files.readString(repo.resolve("other.txt")));
+
+        // A fixer trims the trailing space
+        Files.writeString(repo.resolve("code.txt"), "one\ntwo\nthree\nfour\nfive\nsix\n");
+        unstaged.restore(true);
+
+        assertEquals(
+                "one\ntwo\nthree\nfour\nfive\nsix\nseven\n",
+                Files.readString(repo.resolve("code.txt")));
+        assertArrayEquals(binary, Files.readAllBytes(repo.resolve("data.bin")));
+        assertEquals("changed\n", Files.readString(repo.resolve("other.txt")));
+        try (Repository repository = Git.open(repo.toFile()).getRepository()) {
+            assertEquals(
+                    "one\ntwo\nthree\nfour\nfive\nsix\n", indexContent(repository, "code.txt"));
+            assertEquals("other\n", indexContent(repository, "other.txt"));
+            assertFalse(Files.exists(UnstagedChanges.backupDirectory(repository)));
+        }
+    }
+
+    @Test
+    void restoreWithoutRestagingKeepsIndex() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("code.txt"), "a\n");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("base").call();
+            Files.writeString(repo.resolve("code.txt"), "b\n");
+            git.add().addFilepattern(".").call();
+        }
+        Files.writeString(repo.resolve("code.txt"), "c\n");
+
+        UnstagedChanges unstaged = UnstagedChanges.save(repo);
+        assertEquals("b\n", Files.readString(repo.resolve("code.txt")));
+        Files.writeString(repo.resolve("code.txt"), "b\n");
+        unstaged.restore(false);
+
+        assertEquals("c\n", Files.readString(repo.resolve("code.txt")));
+        try (Repository repository = Git.open(repo.toFile()).getRepository()) {
+            assertEquals("b\n", indexContent(repository, "code.txt"));
+        }
+    }
+
+    @Test
+    void nothingToSaveWithoutPartiallyStagedFiles() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(repo.resolve("code.txt"), "a\n");
+            git.add().addFilepattern(".").call();
+        }
+
+        UnstagedChanges unstaged = UnstagedChanges.save(repo);
+        assertEquals(List.of(), unstaged.getPaths());
+        assertEquals(0, unstaged.getPatchSize());
+        assertDoesNotThrow(() -> unstaged.restore(true));
+    }
+
+    private static String indexContent(Repository repository, String path) throws Exception {
+        DirCacheEntry entry = repository.readDirCache().getEntry(path);
+        return new String(repository.open(entry.getObjectId()).getBytes());
+    }
+}
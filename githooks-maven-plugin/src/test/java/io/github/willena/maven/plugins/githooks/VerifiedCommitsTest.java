@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Willena (Guillaume VILLENA)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.willena.maven.plugins.githooks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Test;
+
+class VerifiedCommitsTest {
+
+    private static final Path TARGET = Path.of("target");
+
+    @Test
+    void savedCommitsAreLoadedForSameConfiguration() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        Git.init().setDirectory(repo.toFile()).call().close();
+
+        VerifiedCommits verified = VerifiedCommits.load(repo, "config");
+        assertFalse(verified.contains("a"));
+        verified.addAll(List.of("a", "b"));
+        verified.save();
+
+        VerifiedCommits reloaded = VerifiedCommits.load(repo, "config");
+        assertTrue(reloaded.containsAll(List.of("a", "b")));
+        assertTrue(reloaded.getFile().startsWith(repo.resolve(".git/githooks/verified")));
+        assertFalse(VerifiedCommits.load(repo, "other config").contains("a"));
+    }
+
+    @Test
+    void saveKeepsMostRecentCommits() throws Exception {
+        Path repo = Files.createTempDirectory(TARGET, "");
+        Git.init().setDirectory(repo.toFile()).call().close();
+
+        VerifiedCommits verified = VerifiedCommits.load(repo, "config");
+        for (int i = 0; i <= VerifiedCommits.MAX_COMMITS; i++) {
+            verified.add("commit-" + i);
+        }
+        // Verified again, so kept over more recent ones
+        verified.add("commit-0");
+        verified.save();
+
+        VerifiedCommits reloaded = VerifiedCommits.load(repo, "config");
+        assertTrue(reloaded.contains("commit-0"));
+        assertFalse(reloaded.contains("commit-1"));
+        assertTrue(reloaded.contains("commit-" + VerifiedCommits.MAX_COMMITS));
+    }
+}